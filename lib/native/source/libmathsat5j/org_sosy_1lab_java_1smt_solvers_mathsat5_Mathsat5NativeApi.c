@@ -1219,6 +1219,11 @@ DEFINE_FUNC(string, 1get_1version) WITHOUT_ARGS
 CALL0(char *, get_version)
 PLAIN_STRING_RETURN
 
+DEFINE_FUNC(string, 1get_1search_1stats) WITH_ONE_ARG(jenv)
+ENV_ARG(1)
+CALL1(char *, get_search_stats)
+STRING_RETURN
+
 
 DEFINE_FUNC(object, 1named_1list_1from_1smtlib2) WITH_TWO_ARGS(jenv, string)
     ENV_ARG(1)
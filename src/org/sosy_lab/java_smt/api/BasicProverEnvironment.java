@@ -9,7 +9,9 @@
 package org.sosy_lab.java_smt.api;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -59,6 +61,57 @@ public interface BasicProverEnvironment<T> extends AutoCloseable {
   boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
       throws SolverException, InterruptedException;
 
+  /**
+   * Check whether the conjunction of all formulas on the stack is unsatisfiable, but give up after
+   * the given amount of wall time.
+   *
+   * <p>If the time limit is exceeded, the running check is interrupted and {@code
+   * Optional.empty()} is returned. The prover environment stays usable afterwards, i.e., the stack
+   * is unchanged and further checks can be done. Solvers that can not be interrupted might
+   * exceed the time limit and return a definite answer.
+   *
+   * @param timeout maximal wall time for this check.
+   * @return the result of {@link #isUnsat()}, or {@code Optional.empty()} if the time limit was
+   *     exceeded.
+   * @throws InterruptedException if the surrounding {@link SolverContext} was shut down.
+   */
+  Optional<Boolean> isUnsat(Duration timeout) throws SolverException, InterruptedException;
+
+  /**
+   * Check whether the conjunction of all formulas on the stack together with the list of
+   * assumptions is satisfiable, but give up after the given amount of wall time. See {@link
+   * #isUnsat(Duration)} for the handling of the time limit.
+   *
+   * @param assumptions A list of literals.
+   * @param timeout maximal wall time for this check.
+   */
+  Optional<Boolean> isUnsatWithAssumptions(Collection<BooleanFormula> assumptions, Duration timeout)
+      throws SolverException, InterruptedException;
+
+  /**
+   * Check whether the conjunction of all formulas on the stack is unsatisfiable, but give up after
+   * the given amount of solver-specific resource units.
+   *
+   * <p>In contrast to {@link #isUnsat(Duration)}, the limit is deterministic, i.e., the same query
+   * with the same limit and the same solver version gives the same result independent of the
+   * system load. The units depend on the solver, e.g., Z3 and CVC4 count their native resource
+   * units, and MathSAT, SMTInterpol, and Boolector count the number of internal termination checks.
+   * The units consumed by the check can be queried with {@link #getConsumedResources()}.
+   *
+   * @param resourceLimit maximal number of resource units for this check, must be positive.
+   * @return the result of {@link #isUnsat()}, or {@code Optional.empty()} if the limit was
+   *     exceeded.
+   * @throws UnsupportedOperationException if the solver does not support resource limits.
+   */
+  Optional<Boolean> isUnsatWithResourceLimit(long resourceLimit)
+      throws SolverException, InterruptedException;
+
+  /**
+   * Get the number of resource units consumed by the most recent call to {@link
+   * #isUnsatWithResourceLimit(long)}, including a check that exceeded its limit.
+   */
+  long getConsumedResources();
+
   /**
    * Get a satisfying assignment. This should be called only immediately after an {@link #isUnsat()}
    * call that returned <code>false</code>. A model might contain additional symbols with their
@@ -98,6 +151,18 @@ public interface BasicProverEnvironment<T> extends AutoCloseable {
   Optional<List<BooleanFormula>> unsatCoreOverAssumptions(Collection<BooleanFormula> assumptions)
       throws SolverException, InterruptedException;
 
+  /**
+   * Get statistics from the solver's native statistics interface, e.g., the number of conflicts,
+   * decisions, propagations, or the memory usage. The values describe the state after the most
+   * recent satisfiability check of this prover environment.
+   *
+   * <p>Keys and their meaning depend on the solver. Only numeric values are reported. Solvers
+   * without a readable statistics interface return an empty map.
+   */
+  default ImmutableMap<String, Number> getStatistics() {
+    return ImmutableMap.of();
+  }
+
   /**
    * Closes the prover environment. The object should be discarded, and should not be used after
    * closing.
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.java_smt.api;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.List;
 import java.util.Map;
@@ -134,6 +135,13 @@ public interface FormulaManager {
    */
   BooleanFormula applyTactic(BooleanFormula input, Tactic tactic) throws InterruptedException;
 
+  /**
+   * Returns statistics about the solver-independent tactics that were applied with {@link
+   * #applyTactic}, e.g., the number of applications, memo hits and reductions of the preprocessing
+   * passes. Native tactics of the solver are not included.
+   */
+  ImmutableMap<String, Number> getTacticStatistics();
+
   /**
    * Simplify an input formula, while ensuring equivalence.
    *
@@ -8,13 +8,22 @@
 
 package org.sosy_lab.java_smt.api;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
@@ -90,6 +99,102 @@ public interface Model extends Iterable<ValueAssignment>, AutoCloseable {
   @Nullable
   BigInteger evaluate(BitvectorFormula f);
 
+  /**
+   * Evaluation for integer formulas whose value fits into a <code>long</code>. This avoids the
+   * creation of a {@link BigInteger} for solvers that provide the value as machine integer.
+   *
+   * @throws ArithmeticException if the value does not fit into a <code>long</code>.
+   * @throws IllegalArgumentException if the model does not provide a value for the formula.
+   */
+  default long evaluateAsLong(IntegerFormula f) {
+    BigInteger value = evaluate(f);
+    Preconditions.checkArgument(value != null, "model does not provide a value for %s", f);
+    return value.longValueExact();
+  }
+
+  /**
+   * Evaluation for bitvector formulas whose (unsigned) value fits into a <code>long</code>, see
+   * {@link #evaluateAsLong(IntegerFormula)}.
+   *
+   * @throws ArithmeticException if the value does not fit into a <code>long</code>.
+   * @throws IllegalArgumentException if the model does not provide a value for the formula.
+   */
+  default long evaluateAsLong(BitvectorFormula f) {
+    BigInteger value = evaluate(f);
+    Preconditions.checkArgument(value != null, "model does not provide a value for %s", f);
+    return value.longValueExact();
+  }
+
+  /**
+   * Evaluation for integer formulas whose value fits into an <code>int</code>, see {@link
+   * #evaluateAsLong(IntegerFormula)}.
+   *
+   * @throws ArithmeticException if the value does not fit into an <code>int</code>.
+   * @throws IllegalArgumentException if the model does not provide a value for the formula.
+   */
+  default int evaluateAsInt(IntegerFormula f) {
+    return Math.toIntExact(evaluateAsLong(f));
+  }
+
+  /**
+   * Evaluation for bitvector formulas whose (unsigned) value fits into an <code>int</code>, see
+   * {@link #evaluateAsLong(IntegerFormula)}.
+   *
+   * @throws ArithmeticException if the value does not fit into an <code>int</code>.
+   * @throws IllegalArgumentException if the model does not provide a value for the formula.
+   */
+  default int evaluateAsInt(BitvectorFormula f) {
+    return Math.toIntExact(evaluateAsLong(f));
+  }
+
+  /**
+   * Evaluate all given formulas, see {@link #evaluate(Formula)}. The result contains the value of
+   * each formula at the same position as the formula in the input, and <code>null</code> where the
+   * model does not provide a value.
+   *
+   * <p>This method is more efficient than individual calls to {@link #evaluate(Formula)} for many
+   * formulas, as some solvers memoize the evaluations of the model.
+   *
+   * @throws IllegalArgumentException if a formula has unexpected type, e.g Array.
+   */
+  default List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    List<@Nullable Object> values = new ArrayList<>(pFormulas.size());
+    for (Formula f : pFormulas) {
+      values.add(evaluate(f));
+    }
+    return Collections.unmodifiableList(values);
+  }
+
+  /**
+   * Evaluate all given integer and bitvector formulas, see {@link #evaluateAll(List)}, and write
+   * their values into the given array at the position of the formula in the input. Values of
+   * bitvectors are unsigned, as for {@link #evaluate(BitvectorFormula)}.
+   *
+   * @param pValues the array for the values, at least as long as the list of formulas. Positions
+   *     without a value that fits into a <code>long</code> are not changed.
+   * @return the set of positions in the array that contain the value of the formula. All other
+   *     formulas have no value in the model, a value that does not fit into a <code>long</code>, or
+   *     a type other than integer or bitvector.
+   * @throws IllegalArgumentException if a formula has unexpected type, e.g Array.
+   */
+  default BitSet evaluateAllAsLong(List<? extends Formula> pFormulas, long[] pValues) {
+    Preconditions.checkArgument(
+        pValues.length >= pFormulas.size(), "array is too small for the values of all formulas");
+    List<@Nullable Object> values = evaluateAll(pFormulas);
+    BitSet written = new BitSet(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      Object value = values.get(i);
+      if (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE) {
+        pValues[i] = ((BigInteger) value).longValue();
+        written.set(i);
+      } else if (value instanceof Long || value instanceof Integer) {
+        pValues[i] = ((Number) value).longValue();
+        written.set(i);
+      }
+    }
+    return written;
+  }
+
   /**
    * Iterate over all values present in the model. Note that iterating multiple times may be
    * inefficient for some solvers, it is recommended to use {@link
@@ -103,6 +208,51 @@ public interface Model extends Iterable<ValueAssignment>, AutoCloseable {
   /** Build a list of assignments that stays valid after closing the model. */
   ImmutableList<ValueAssignment> asList();
 
+  /**
+   * Stream over all values present in the model. In contrast to {@link #asList()}, some solvers
+   * fetch the assignments lazily from the solver while the stream is consumed, such that only the
+   * consumed part of the model is materialized. The stream must be consumed before the model is
+   * closed.
+   */
+  default Stream<ValueAssignment> stream() {
+    return asList().stream();
+  }
+
+  /**
+   * Returns all assignments with the given name, i.e., the assignment of a variable, or all
+   * assignments of an uninterpreted function or array (see {@link ValueAssignment#getName()}). Some
+   * solvers look up the name directly in the model, without building the assignments for all other
+   * symbols.
+   */
+  default ImmutableList<ValueAssignment> getAssignments(String pName) {
+    return stream()
+        .filter(assignment -> assignment.getName().equals(pName))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Returns all assignments for the symbols with the given names, in the order of the model.
+   *
+   * @see #getAssignments(String)
+   */
+  default ImmutableList<ValueAssignment> getAssignments(Set<String> pNames) {
+    return stream()
+        .filter(assignment -> pNames.contains(assignment.getName()))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Returns all assignments whose key is one of the given formulas, i.e., the assignments of the
+   * given variables, UF applications, and array selections (see {@link ValueAssignment#getKey()}).
+   */
+  default ImmutableList<ValueAssignment> getAssignmentsForKeys(
+      Collection<? extends Formula> pKeys) {
+    ImmutableSet<Formula> keys = ImmutableSet.copyOf(pKeys);
+    return stream()
+        .filter(assignment -> keys.contains(assignment.getKey()))
+        .collect(toImmutableList());
+  }
+
   /** Pretty-printing of the model values. */
   @Override
   String toString();
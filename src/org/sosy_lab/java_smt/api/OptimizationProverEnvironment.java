@@ -8,7 +8,9 @@
 
 package org.sosy_lab.java_smt.api;
 
+import com.google.common.collect.ImmutableList;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.sosy_lab.common.rationals.Rational;
 
 /** Interface for optimization modulo SMT. */
@@ -39,6 +41,28 @@ public interface OptimizationProverEnvironment extends BasicProverEnvironment<Vo
    */
   OptStatus check() throws InterruptedException, SolverException;
 
+  /**
+   * Optimize all objectives with the given priority, independent of the configured default
+   * priority of the solver. The results are available via {@link #upper} and {@link #lower} as for
+   * {@link #check()}.
+   *
+   * @param priority how the objectives are combined.
+   * @return Status of the optimization problem.
+   */
+  OptStatus check(ObjectivePriority priority) throws InterruptedException, SolverException;
+
+  /**
+   * Enumerate the Pareto front of all objectives, i.e., all combinations of objective values that
+   * are not dominated by another solution. The points are computed lazily while the stream is
+   * consumed. Each point contains the values of all objectives, in the order of their creation.
+   * All objectives must be bounded.
+   *
+   * <p>While a point is processed, {@link #getModel()} returns a model for this point. The stream
+   * must be consumed or closed before the prover is modified again. If the enumeration fails or is
+   * interrupted, the stream throws an {@link IllegalStateException} with the causing exception.
+   */
+  Stream<ImmutableList<Rational>> paretoFront();
+
   /**
    * @param epsilon Value to substitute for the {@code epsilon}.
    * @return Upper approximation of the optimized value, or absent optional if the objective is
@@ -70,6 +94,22 @@ public interface OptimizationProverEnvironment extends BasicProverEnvironment<Vo
   @Override
   Model getModel() throws SolverException;
 
+  /** Combination of several objectives in an optimization query. */
+  enum ObjectivePriority {
+
+    /**
+     * Optimize the objectives in the order of their creation, where each objective is optimized
+     * only among the optimal solutions for all previous objectives.
+     */
+    LEXICOGRAPHIC,
+
+    /**
+     * Optimize each objective independently. The model is not necessarily optimal for all
+     * objectives at once.
+     */
+    BOX
+  }
+
   /** Status of the optimization problem. */
   enum OptStatus {
 
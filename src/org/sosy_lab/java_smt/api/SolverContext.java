@@ -52,7 +52,41 @@ public interface SolverContext extends AutoCloseable {
     GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS,
 
     /** Whether the solver should enable support for formulae build in SL theory. */
-    ENABLE_SEPARATION_LOGIC
+    ENABLE_SEPARATION_LOGIC,
+
+    /**
+     * Whether {@link ProverEnvironment#push()} and {@link ProverEnvironment#pop()} should be
+     * emulated with activation literals and solving under assumptions instead of using the native
+     * assertion stack of the solver. This can be faster for deep and frequently rewound stacks, if
+     * native push and pop are expensive. The option is ignored for solvers without native support
+     * for solving under assumptions and for interpolating and optimizing prover environments.
+     */
+    EMULATE_ASSERTION_STACK,
+
+    /**
+     * Whether constraints should be buffered and passed to the solver as one conjunction before the
+     * next satisfiability check, model query or stack operation. This reduces the number of native
+     * calls for many consecutive constraints. The option is ignored for solvers without native
+     * n-ary conjunctions (MathSAT5, Boolector, Princess), if {@link #GENERATE_UNSAT_CORE} is set,
+     * and for interpolating and optimizing prover environments, which return a handle for each
+     * constraint.
+     */
+    BATCH_CONSTRAINTS,
+
+    /**
+     * Whether the solver should be replaced transparently by a fresh instance, if it becomes slower
+     * after many stack operations. All asserted formulas are tracked and asserted again in the
+     * fresh instance. The option is ignored for interpolating and optimizing prover environments.
+     */
+    REBUILD_DEGRADED_PROVER,
+
+    /**
+     * Whether trivial satisfiability checks should be answered without calling the solver, e.g.,
+     * if the constraint {@code false} or a literal and its negation are asserted. The asserted
+     * literals are tracked for this, and the solver is called lazily if a model is requested. The
+     * option is ignored for interpolating and optimizing prover environments.
+     */
+    SKIP_TRIVIAL_QUERIES
   }
 
   /**
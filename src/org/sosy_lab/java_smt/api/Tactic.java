@@ -32,7 +32,8 @@ public enum Tactic {
    * size explosion. The resulting formula is not <i>equivalent</i> but only <i>equisatisfiable</i>
    * to the original one.
    *
-   * <p>NB: currently this tactic does not have a default implementation.
+   * <p>The default implementation reuses the fresh variables for equal subformulas over several
+   * applications of this tactic with the same {@link FormulaManager}.
    */
   TSEITIN_CNF,
 
@@ -41,4 +42,40 @@ public enum Tactic {
    * eliminated using a pattern-matching approach, eliminate it, and otherwise leave it as-is.
    */
   QE_LIGHT,
+
+  /**
+   * Evaluate applications of interpreted functions to constants, and simplify Boolean connectives
+   * and if-then-else terms with constant operands. The result is equivalent to the input.
+   */
+  CONSTANT_FOLDING,
+
+  /**
+   * Remove top-level equalities that define a variable, and substitute the variable by its
+   * definition. The result is only equisatisfiable to the input.
+   */
+  SOLVE_EQUALITIES,
+
+  /**
+   * Replace terms that can take any value due to an unconstrained variable, i.e., a variable that
+   * occurs only once, by fresh variables. The result is only equisatisfiable to the input.
+   */
+  ELIMINATE_UNCONSTRAINED,
+
+  /**
+   * Lift if-then-else terms over the enclosing function applications up to the Boolean structure of
+   * the formula. The result is equivalent to the input.
+   */
+  LIFT_ITE,
+
+  /**
+   * Eliminate Boolean variables from the top-level clauses of the formula by resolution, if the
+   * number of clauses does not increase. The result is only equisatisfiable to the input.
+   */
+  BOUNDED_VARIABLE_ELIMINATION,
+
+  /**
+   * Apply all of the above preprocessing steps in sequence. The result is only equisatisfiable to
+   * the input.
+   */
+  PREPROCESSING,
 }
@@ -8,6 +8,8 @@
 
 package org.sosy_lab.java_smt.basicimpl;
 
+import java.util.List;
+import java.util.function.BinaryOperator;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
@@ -38,6 +40,24 @@ abstract class AbstractBaseFormulaManager<TFormulaInfo, TType, TEnv, TFuncDecl>
     return getFormulaCreator().encapsulateBoolean(pTerm);
   }
 
+  /**
+   * Combine the operands with the given binary operator into a balanced tree, such that the depth
+   * of the result is logarithmic in the number of operands. The operator must be associative.
+   *
+   * @param pOperands A non-empty list of operands.
+   */
+  protected final TFormulaInfo balancedTree(
+      List<TFormulaInfo> pOperands, BinaryOperator<TFormulaInfo> pOperator) {
+    int size = pOperands.size();
+    if (size == 1) {
+      return pOperands.get(0);
+    }
+    int middle = (size + 1) / 2;
+    return pOperator.apply(
+        balancedTree(pOperands.subList(0, middle), pOperator),
+        balancedTree(pOperands.subList(middle, size), pOperator));
+  }
+
   protected final TType toSolverType(FormulaType<?> formulaType) {
     TType t;
     if (formulaType.isBooleanType()) {
@@ -245,6 +245,10 @@ public abstract class AbstractBitvectorFormulaManager<TFormulaInfo, TType, TEnv,
 
   @Override
   public BitvectorFormula makeBitvector(int pLength, BigInteger i) {
+    if (i.bitLength() < Long.SIZE) {
+      // most solvers can create such bitvectors directly, without a conversion via String
+      return wrap(makeBitvectorImpl(pLength, i.longValue()));
+    }
     return wrap(makeBitvectorImpl(pLength, i));
   }
 
@@ -269,6 +273,37 @@ public abstract class AbstractBitvectorFormulaManager<TFormulaInfo, TType, TEnv,
     return pI;
   }
 
+  /**
+   * transform a negative value into its positive counterpart, i.e., into the unsigned value of its
+   * two's complement. For the size 64, the result is the same bit pattern as the input and must be
+   * interpreted as unsigned value.
+   *
+   * @throws IllegalArgumentException if the size is larger than 64 or if the value is out of range
+   *     for the given size.
+   */
+  protected final long transformValueToRange(int pLength, long pI) {
+    Preconditions.checkArgument(
+        pLength <= Long.SIZE, "bitvector of length %s is too large", pLength);
+    if (pLength == Long.SIZE) {
+      return pI;
+    }
+    if (pI < 0) {
+      Preconditions.checkArgument(
+          pI >= -(1L << (pLength - 1)),
+          "%s is to small for a bitvector with length %s",
+          pI,
+          pLength);
+      return pI & ((1L << pLength) - 1);
+    } else {
+      Preconditions.checkArgument(
+          pLength >= Long.SIZE - 1 || pI < (1L << pLength),
+          "%s is to large for a bitvector with length %s",
+          pI,
+          pLength);
+      return pI;
+    }
+  }
+
   @Override
   public BitvectorFormula makeVariable(BitvectorType type, String pVar) {
     return makeVariable(type.getSize(), pVar);
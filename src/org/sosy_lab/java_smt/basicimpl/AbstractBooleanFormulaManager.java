@@ -17,6 +17,7 @@ import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
@@ -123,27 +124,33 @@ public abstract class AbstractBooleanFormulaManager<TFormulaInfo, TType, TEnv, T
   }
 
   /**
-   * Create an n-ary conjunction. The default implementation delegates to {@link #and(Object,
-   * Object)} and assumes that all simplifications are done by that method. This method can be
-   * overridden, in which case it should filter out irrelevant operands.
+   * Create an n-ary conjunction. The default implementation filters out irrelevant operands and
+   * combines the remaining ones into a balanced tree of {@link #and(Object, Object)}. This method
+   * should be overridden if the solver supports n-ary conjunctions directly, in which case it
+   * should also filter out irrelevant operands.
    *
    * @param pParams A collection of at least 3 operands.
    * @return A term that is equivalent to a conjunction of pParams.
    */
   protected TFormulaInfo andImpl(Collection<TFormulaInfo> pParams) {
-    TFormulaInfo result = makeBooleanImpl(true);
+    List<TFormulaInfo> operands = new ArrayList<>(pParams.size());
     for (TFormulaInfo formula : pParams) {
       if (isFalse(formula)) {
         return formula;
       }
-      result = and(result, formula);
+      if (!isTrue(formula)) {
+        operands.add(formula);
+      }
+    }
+    if (operands.isEmpty()) {
+      return makeBooleanImpl(true);
     }
-    return result;
+    return balancedTree(operands, this::and);
   }
 
   @Override
   public Collector<BooleanFormula, ?, BooleanFormula> toConjunction() {
-    return Collectors.reducing(makeTrue(), this::and);
+    return Collectors.collectingAndThen(Collectors.toList(), this::and);
   }
 
   @Override
@@ -185,27 +192,33 @@ public abstract class AbstractBooleanFormulaManager<TFormulaInfo, TType, TEnv, T
   }
 
   /**
-   * Create an n-ary disjunction. The default implementation delegates to {@link #or(Object,
-   * Object)} and assumes that all simplifications are done by that method. This method can be
-   * overridden, in which case it should filter out irrelevant operands.
+   * Create an n-ary disjunction. The default implementation filters out irrelevant operands and
+   * combines the remaining ones into a balanced tree of {@link #or(Object, Object)}. This method
+   * should be overridden if the solver supports n-ary disjunctions directly, in which case it
+   * should also filter out irrelevant operands.
    *
    * @param pParams A collection of at least 3 operands.
    * @return A term that is equivalent to a disjunction of pParams.
    */
   protected TFormulaInfo orImpl(Collection<TFormulaInfo> pParams) {
-    TFormulaInfo result = makeBooleanImpl(false);
+    List<TFormulaInfo> operands = new ArrayList<>(pParams.size());
     for (TFormulaInfo formula : pParams) {
       if (isTrue(formula)) {
         return formula;
       }
-      result = or(result, formula);
+      if (!isFalse(formula)) {
+        operands.add(formula);
+      }
+    }
+    if (operands.isEmpty()) {
+      return makeBooleanImpl(false);
     }
-    return result;
+    return balancedTree(operands, this::or);
   }
 
   @Override
   public Collector<BooleanFormula, ?, BooleanFormula> toDisjunction() {
-    return Collectors.reducing(makeFalse(), this::or);
+    return Collectors.collectingAndThen(Collectors.toList(), this::or);
   }
 
   protected abstract TFormulaInfo xor(TFormulaInfo pParam1, TFormulaInfo pParam2);
@@ -40,7 +40,9 @@ import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
-import org.sosy_lab.java_smt.basicimpl.tactics.NNFVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.NNFTransformer;
+import org.sosy_lab.java_smt.basicimpl.tactics.Preprocessor;
+import org.sosy_lab.java_smt.basicimpl.tactics.TseitinCNFTransformer;
 import org.sosy_lab.java_smt.utils.SolverUtils;
 
 /**
@@ -119,6 +121,12 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
 
   private final FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> formulaCreator;
 
+  /** The default CNF transformation, which keeps its definitions over several applications. */
+  private @Nullable TseitinCNFTransformer cnfTransformer;
+
+  /** The default preprocessing, which keeps its memoized results over several applications. */
+  private @Nullable Preprocessor preprocessor;
+
   /** Builds a solver from the given theory implementations. */
   @SuppressWarnings("checkstyle:parameternumber")
   protected AbstractFormulaManager(
@@ -263,6 +271,13 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
         return applyCNFImpl(f);
       case QE_LIGHT:
         return applyQELightImpl(f);
+      case CONSTANT_FOLDING:
+      case SOLVE_EQUALITIES:
+      case ELIMINATE_UNCONSTRAINED:
+      case LIFT_ITE:
+      case BOUNDED_VARIABLE_ELIMINATION:
+      case PREPROCESSING:
+        return applyPreprocessingImpl(f, tactic);
       default:
         throw new UnsupportedOperationException("Unexpected enum value");
     }
@@ -298,10 +313,28 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
    * @throws InterruptedException Can be thrown by the native code.
    */
   protected BooleanFormula applyCNFImpl(BooleanFormula pF) throws InterruptedException {
+    if (cnfTransformer == null) {
+      cnfTransformer = new TseitinCNFTransformer(this);
+    }
+    return cnfTransformer.apply(pF);
+  }
 
-    // TODO: generic implementation.
-    throw new UnsupportedOperationException(
-        "Currently there is no generic implementation for CNF conversion");
+  /**
+   * Apply a preprocessing step to the given input formula.
+   *
+   * @throws InterruptedException Can be thrown by the native code.
+   */
+  protected BooleanFormula applyPreprocessingImpl(BooleanFormula pF, Tactic pTactic)
+      throws InterruptedException {
+    if (preprocessor == null) {
+      preprocessor = new Preprocessor(this);
+    }
+    return preprocessor.apply(pF, pTactic);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getTacticStatistics() {
+    return preprocessor == null ? ImmutableMap.of() : preprocessor.getStatistics();
   }
 
   /**
@@ -310,7 +343,7 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
    * @throws InterruptedException Can be thrown by the native code.
    */
   protected BooleanFormula applyNNFImpl(BooleanFormula input) throws InterruptedException {
-    return getBooleanFormulaManager().transformRecursively(input, new NNFVisitor(this));
+    return new NNFTransformer(this).apply(input);
   }
 
   @Override
@@ -425,6 +458,9 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
   @Override
   public <T extends Formula> T substitute(
       final T pF, final Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    if (pFromToMapping.isEmpty()) {
+      return pF;
+    }
     return transformRecursively(
         pF,
         new FormulaTransformationVisitor(this) {
@@ -8,10 +8,20 @@
 
 package org.sosy_lab.java_smt.basicimpl;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -26,6 +36,15 @@ import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model {
   protected final FormulaCreator<TFormulaInfo, TType, TEnv, ?> creator;
 
+  /**
+   * Values of all formulas evaluated by {@link #evaluateAll}. The model does not change, thus the
+   * values stay valid. The formulas are kept as keys instead of their native terms, such that the
+   * native terms are not freed and reused for other formulas.
+   */
+  private final Map<Formula, Optional<Object>> evaluations = new HashMap<>();
+
+  private boolean closed = false;
+
   protected AbstractModel(FormulaCreator<TFormulaInfo, TType, TEnv, ?> creator) {
     this.creator = creator;
   }
@@ -62,6 +81,16 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
     return (BigInteger) evaluateImpl(creator.extractInfo(f));
   }
 
+  @Override
+  public long evaluateAsLong(IntegerFormula f) {
+    return evaluateAsLongImpl(creator.extractInfo(f));
+  }
+
+  @Override
+  public long evaluateAsLong(BitvectorFormula f) {
+    return evaluateAsLongImpl(creator.extractInfo(f));
+  }
+
   @Nullable
   @Override
   public final Object evaluate(Formula f) {
@@ -71,6 +100,88 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
     return evaluateImpl(creator.extractInfo(f));
   }
 
+  /**
+   * Evaluate the integer or bitvector formula and return its value as <code>long</code>. Solvers
+   * should override this if they can access the value as machine integer, the default converts the
+   * value from {@link #evaluateImpl}.
+   *
+   * @throws ArithmeticException if the value does not fit into a <code>long</code>.
+   * @throws IllegalArgumentException if the model does not provide a value for the formula.
+   */
+  protected long evaluateAsLongImpl(TFormulaInfo f) {
+    Object value = evaluateImpl(f);
+    Preconditions.checkArgument(value != null, "model does not provide a value for %s", f);
+    return ((BigInteger) value).longValueExact();
+  }
+
+  /**
+   * Evaluate all given formulas, where each distinct formula is evaluated only once per model. The
+   * values of the given formulas are memoized for further calls of this method, but not the values
+   * of their subterms, which the solver evaluates again for each new formula.
+   */
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    Preconditions.checkState(!closed, "cannot use model after it is closed");
+    List<@Nullable Object> values = new ArrayList<>(pFormulas.size());
+    for (Formula f : pFormulas) {
+      Optional<Object> value = evaluations.get(f);
+      if (value == null) {
+        value = Optional.ofNullable(evaluate(f));
+        evaluations.put(f, value);
+      }
+      values.add(value.orElse(null));
+    }
+    return Collections.unmodifiableList(values);
+  }
+
+  /**
+   * Evaluate all given integer and bitvector formulas with {@link #evaluateAsLongImpl}, such that
+   * solvers with access to machine integers do not convert each value into a {@link BigInteger}.
+   * Values memoized by {@link #evaluateAll} are reused, but new values are not memoized.
+   */
+  @Override
+  public BitSet evaluateAllAsLong(List<? extends Formula> pFormulas, long[] pValues) {
+    Preconditions.checkState(!closed, "cannot use model after it is closed");
+    Preconditions.checkArgument(
+        pValues.length >= pFormulas.size(), "array is too small for the values of all formulas");
+    BitSet written = new BitSet(pFormulas.size());
+    for (int i = 0; i < pFormulas.size(); i++) {
+      Formula f = pFormulas.get(i);
+      Preconditions.checkArgument(
+          !(f instanceof ArrayFormula),
+          "cannot compute a simple constant evaluation for an array-formula");
+      if (!(f instanceof IntegerFormula) && !(f instanceof BitvectorFormula)) {
+        continue;
+      }
+      Optional<Object> memoized = evaluations.get(f);
+      if (memoized != null) {
+        Object value = memoized.orElse(null);
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE) {
+          pValues[i] = ((BigInteger) value).longValue();
+          written.set(i);
+        }
+      } else {
+        try {
+          pValues[i] = evaluateAsLongImpl(creator.extractInfo(f));
+          written.set(i);
+        } catch (ArithmeticException | IllegalArgumentException e) {
+          // no value in the model or the value does not fit into a long
+        }
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Close the model and drop the memoized values of {@link #evaluateAll}. Subclasses that free
+   * native resources need to call this method.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    evaluations.clear();
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
    * set in the model and evaluation aborts, return <code>null</code>.
@@ -111,7 +222,35 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
       return modelAssignments;
     }
 
+    @Override
+    public Stream<ValueAssignment> stream() {
+      return modelAssignments == null ? toStream() : modelAssignments.stream();
+    }
+
+    @Override
+    public ImmutableList<ValueAssignment> getAssignments(String pName) {
+      return modelAssignments == null ? toList(pName) : super.getAssignments(pName);
+    }
+
     /** Build a list of all available assignments from the model. */
     protected abstract ImmutableList<ValueAssignment> toList();
+
+    /**
+     * Stream over all available assignments from the model. Solvers should override this if they
+     * can fetch the assignments lazily, the default builds the list of all assignments.
+     */
+    protected Stream<ValueAssignment> toStream() {
+      return asList().stream();
+    }
+
+    /**
+     * Build a list of all assignments with the given name. Solvers should override this if they can
+     * look up the name in the model, the default filters the stream of all assignments.
+     */
+    protected ImmutableList<ValueAssignment> toList(String pName) {
+      return toStream()
+          .filter(assignment -> assignment.getName().equals(pName))
+          .collect(toImmutableList());
+    }
   }
 }
@@ -97,6 +97,10 @@ public abstract class AbstractNumeralFormulaManager<
 
   @Override
   public ResultFormulaType makeNumber(BigInteger i) {
+    if (i.bitLength() < Long.SIZE) {
+      // most solvers can create such numbers directly, without a conversion via String
+      return wrap(makeNumberImpl(i.longValue()));
+    }
     return wrap(makeNumberImpl(i));
   }
 
@@ -115,6 +119,9 @@ public abstract class AbstractNumeralFormulaManager<
   }
 
   protected TFormulaInfo makeNumberImpl(Rational pRational) {
+    if (pRational.isIntegral() && pRational.getNum().bitLength() < Long.SIZE) {
+      return makeNumberImpl(pRational.getNum().longValue());
+    }
     return makeNumberImpl(pRational.toString());
   }
 
@@ -125,6 +132,11 @@ public abstract class AbstractNumeralFormulaManager<
 
   protected abstract TFormulaInfo makeNumberImpl(double pNumber);
 
+  /** Returns whether the number is integral and fits into a <code>long</code>. */
+  protected static boolean isLongValue(double pNumber) {
+    return pNumber == Math.rint(pNumber) && pNumber >= Long.MIN_VALUE && pNumber < 0x1p63;
+  }
+
   @Override
   public ResultFormulaType makeNumber(BigDecimal pNumber) {
     return wrap(makeNumberImpl(pNumber));
@@ -200,12 +212,16 @@ public abstract class AbstractNumeralFormulaManager<
     return wrap(sumImpl(Lists.transform(operands, this::extractInfo)));
   }
 
+  /**
+   * Create an n-ary sum. The default implementation combines the operands into a balanced tree of
+   * {@link #add(Object, Object)}. This method should be overridden if the solver supports n-ary
+   * sums directly.
+   */
   protected TFormulaInfo sumImpl(List<TFormulaInfo> operands) {
-    TFormulaInfo result = makeNumberImpl(0);
-    for (TFormulaInfo operand : operands) {
-      result = add(result, operand);
+    if (operands.isEmpty()) {
+      return makeNumberImpl(0);
     }
-    return result;
+    return balancedTree(operands, this::add);
   }
 
   @Override
@@ -9,9 +9,24 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
+import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
 
 public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
 
@@ -23,7 +38,26 @@ public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
 
   private static final String TEMPLATE = "Please set the prover option %s.";
 
+  /** Notifier of the surrounding context, used to distinguish a shutdown from a timeout. */
+  private final ShutdownNotifier contextShutdownNotifier;
+
+  /** Notifier of the currently running time-bounded check, or null if there is none. */
+  private volatile @Nullable ShutdownNotifier boundedCheckNotifier = null;
+
+  /** Limit of the currently running resource-limited check, or zero if there is none. */
+  private long resourceLimit = 0;
+
+  /** Steps counted by {@link #consumeResourceStep()} during the current resource-limited check. */
+  private long resourceSteps = 0;
+
+  private long consumedResources = 0;
+
   protected AbstractProver(Set<ProverOptions> pOptions) {
+    this(pOptions, ShutdownNotifier.createDummy());
+  }
+
+  protected AbstractProver(Set<ProverOptions> pOptions, ShutdownNotifier pShutdownNotifier) {
+    contextShutdownNotifier = pShutdownNotifier;
     generateModels = pOptions.contains(ProverOptions.GENERATE_MODELS);
     generateAllSat = pOptions.contains(ProverOptions.GENERATE_ALL_SAT);
     generateUnsatCores = pOptions.contains(ProverOptions.GENERATE_UNSAT_CORE);
@@ -54,4 +88,172 @@ public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
   protected final void checkEnableSeparationLogic() {
     Preconditions.checkState(enableSL, TEMPLATE, ProverOptions.ENABLE_SEPARATION_LOGIC);
   }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    return checkWithTimeout(pTimeout, this::isUnsat);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    return checkWithTimeout(pTimeout, () -> isUnsatWithAssumptions(pAssumptions));
+  }
+
+  /**
+   * Run the given check with its own {@link ShutdownManager} that is triggered by the shared timer
+   * wheel after the given time. Only this check is interrupted, the surrounding context and the
+   * prover remain usable.
+   */
+  private Optional<Boolean> checkWithTimeout(Duration pTimeout, SatCheck pCheck)
+      throws SolverException, InterruptedException {
+    Preconditions.checkArgument(!pTimeout.isNegative(), "negative timeout %s", pTimeout);
+    Preconditions.checkState(boundedCheckNotifier == null, "time-bounded checks can not be nested");
+    contextShutdownNotifier.shutdownIfNecessary();
+
+    ShutdownManager checkShutdownManager = ShutdownManager.create();
+    ShutdownNotifier checkNotifier = checkShutdownManager.getNotifier();
+    ShutdownRequestListener interruptListener =
+        reason -> {
+          if (boundedCheckNotifier == checkNotifier) { // check is still running
+            interruptBoundedCheck();
+          }
+        };
+    checkNotifier.register(interruptListener);
+    boundedCheckNotifier = checkNotifier;
+    String reason = "Time limit of " + pTimeout + " exceeded";
+    HashedTimerWheel.Timeout timeout =
+        HashedTimerWheel.getInstance()
+            .schedule(pTimeout, () -> checkShutdownManager.requestShutdown(reason));
+    try {
+      return Optional.of(pCheck.check());
+    } catch (InterruptedException | SolverException e) {
+      if (checkNotifier.shouldShutdown() && !contextShutdownNotifier.shouldShutdown()) {
+        return Optional.empty(); // our own timeout, not a shutdown of the context
+      }
+      throw e;
+    } finally {
+      timeout.cancel();
+      boundedCheckNotifier = null;
+      checkNotifier.unregister(interruptListener);
+    }
+  }
+
+  /**
+   * Interrupt the currently running time-bounded check. This method is called from the timer thread
+   * and must return quickly. Solvers that poll for termination instead of being interrupted can
+   * leave this empty and query {@link #shouldInterruptBoundedCheck()}.
+   *
+   * <p>Interrupted checks should throw either an {@link InterruptedException} or a {@link
+   * SolverException}.
+   */
+  protected void interruptBoundedCheck() {}
+
+  /** Returns whether the time limit of the currently running time-bounded check was exceeded. */
+  protected final boolean shouldInterruptBoundedCheck() {
+    ShutdownNotifier notifier = boundedCheckNotifier;
+    return notifier != null && notifier.shouldShutdown();
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    Preconditions.checkArgument(pResourceLimit > 0, "invalid resource limit %s", pResourceLimit);
+    if (!supportsResourceLimits()) {
+      throw new UnsupportedOperationException("Solver does not support resource limits.");
+    }
+    Preconditions.checkState(resourceLimit == 0, "resource-limited checks can not be nested");
+    resourceLimit = pResourceLimit;
+    resourceSteps = 0;
+    startResourceLimit(pResourceLimit);
+    try {
+      return Optional.of(isUnsat());
+    } catch (InterruptedException | SolverException e) {
+      if (isResourceLimitExceeded()) {
+        return Optional.empty();
+      }
+      throw e;
+    } finally {
+      consumedResources = stopResourceLimit();
+      resourceLimit = 0;
+    }
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return consumedResources;
+  }
+
+  /**
+   * Returns whether this prover supports {@link #isUnsatWithResourceLimit(long)}. Solvers either
+   * install a native limit in {@link #startResourceLimit(long)}, or count the polls of their
+   * termination callback via {@link #consumeResourceStep()}.
+   */
+  protected boolean supportsResourceLimits() {
+    return false;
+  }
+
+  /** Install a native resource limit before the check. The default counts polled steps only. */
+  protected void startResourceLimit(@SuppressWarnings("unused") long pResourceLimit) {}
+
+  /** Remove the native resource limit after the check and return the consumed units. */
+  protected long stopResourceLimit() {
+    return resourceSteps;
+  }
+
+  /** Returns whether the failed check was stopped due to its resource limit. */
+  protected boolean isResourceLimitExceeded() {
+    return resourceSteps > resourceLimit;
+  }
+
+  /**
+   * Count one step of the currently running resource-limited check and return whether its limit is
+   * exceeded. Solvers with a polling termination callback call this method from the callback.
+   */
+  protected final boolean consumeResourceStep() {
+    if (resourceLimit == 0) {
+      return false;
+    }
+    resourceSteps++;
+    return resourceSteps > resourceLimit;
+  }
+
+  @FunctionalInterface
+  private interface SatCheck {
+    boolean check() throws SolverException, InterruptedException;
+  }
+
+  /**
+   * Parse a textual statistics output of a solver into a map of numeric values. Each line is
+   * expected to contain a key followed by a value, optionally separated by ':' or '='. Lines
+   * without a numeric value are ignored.
+   */
+  protected static ImmutableMap<String, Number> parseStatistics(String pStatistics) {
+    Map<String, Number> result = new LinkedHashMap<>();
+    for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(pStatistics)) {
+      List<String> tokens =
+          Splitter.onPattern("[\\s:=;()]+").omitEmptyStrings().splitToList(line);
+      if (tokens.size() >= 2) {
+        Number value = parseStatisticsValue(Iterables.getLast(tokens));
+        if (value != null) {
+          result.put(String.join(" ", tokens.subList(0, tokens.size() - 1)), value);
+        }
+      }
+    }
+    return ImmutableMap.copyOf(result);
+  }
+
+  /** Parse an integral or floating-point value, or return null if the value is not numeric. */
+  protected static @Nullable Number parseStatisticsValue(String pValue) {
+    try {
+      return Long.parseLong(pValue);
+    } catch (NumberFormatException e) {
+      try {
+        return Double.parseDouble(pValue);
+      } catch (NumberFormatException e2) {
+        return null;
+      }
+    }
+  }
 }
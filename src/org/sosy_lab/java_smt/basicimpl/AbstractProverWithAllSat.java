@@ -35,7 +35,7 @@ public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
       Set<ProverOptions> pOptions,
       BooleanFormulaManager pBmgr,
       ShutdownNotifier pShutdownNotifier) {
-    super(pOptions);
+    super(pOptions, pShutdownNotifier);
     bmgr = pBmgr;
     shutdownNotifier = pShutdownNotifier;
   }
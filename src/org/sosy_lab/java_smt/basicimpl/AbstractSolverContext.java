@@ -16,8 +16,14 @@ import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.batched.BatchedConstraintsProver;
+import org.sosy_lab.java_smt.basicimpl.guardedStack.GuardedStackProver;
+import org.sosy_lab.java_smt.basicimpl.multiObjective.MultiObjectiveFallbackProver;
+import org.sosy_lab.java_smt.basicimpl.rebuilding.RebuildingProver;
+import org.sosy_lab.java_smt.basicimpl.trivialQueries.TrivialQueryProver;
 import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.InterpolatingProverWithAssumptionsWrapper;
 import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.ProverWithAssumptionsWrapper;
+import org.sosy_lab.java_smt.utils.SolverUtils;
 
 public abstract class AbstractSolverContext implements SolverContext {
 
@@ -34,11 +40,38 @@ public abstract class AbstractSolverContext implements SolverContext {
 
   @Override
   public final ProverEnvironment newProverEnvironment(ProverOptions... options) {
-    ProverEnvironment out = newProverEnvironment0(toSet(options));
+    Set<ProverOptions> opts = toSet(options);
+    ProverEnvironment out;
+    if (opts.contains(ProverOptions.REBUILD_DEGRADED_PROVER)) {
+      out = new RebuildingProver(() -> newWrappedProverEnvironment(opts));
+    } else {
+      out = newWrappedProverEnvironment(opts);
+    }
+    if (opts.contains(ProverOptions.BATCH_CONSTRAINTS)
+        && !opts.contains(ProverOptions.GENERATE_UNSAT_CORE)
+        && supportsNaryConjunction()) {
+      // a batch is only cheaper than separate constraints if the conjunction is a single term
+      out = new BatchedConstraintsProver(out, fmgr.getBooleanFormulaManager());
+    }
+    if (opts.contains(ProverOptions.SKIP_TRIVIAL_QUERIES)) {
+      out =
+          new TrivialQueryProver(
+              out,
+              fmgr.getBooleanFormulaManager(),
+              opts.contains(ProverOptions.GENERATE_UNSAT_CORE));
+    }
+    return out;
+  }
+
+  private ProverEnvironment newWrappedProverEnvironment(Set<ProverOptions> opts) {
+    ProverEnvironment out = newProverEnvironment0(opts);
     if (!supportsAssumptionSolving()) {
       // In the case we do not already have a prover environment with assumptions,
       // we add a wrapper to it
       out = new ProverWithAssumptionsWrapper(out);
+    } else if (opts.contains(ProverOptions.EMULATE_ASSERTION_STACK)) {
+      // the assumptions of the solver are used to emulate the assertion stack
+      out = new GuardedStackProver(out, fmgr.getBooleanFormulaManager());
     }
     return out;
   }
@@ -66,7 +99,14 @@ public abstract class AbstractSolverContext implements SolverContext {
   @Override
   public final OptimizationProverEnvironment newOptimizationProverEnvironment(
       ProverOptions... options) {
-    return newOptimizationProverEnvironment0(toSet(options));
+    OptimizationProverEnvironment out = newOptimizationProverEnvironment0(toSet(options));
+    if (!supportsObjectivePriorities()) {
+      // box optimization and the Pareto front are computed by binary search on a separate prover
+      out =
+          new MultiObjectiveFallbackProver(
+              out, () -> SolverUtils.binarySearchOptimizationProver(this));
+    }
+    return out;
   }
 
   protected abstract OptimizationProverEnvironment newOptimizationProverEnvironment0(
@@ -89,6 +129,25 @@ public abstract class AbstractSolverContext implements SolverContext {
    */
   protected abstract boolean supportsAssumptionSolving();
 
+  /**
+   * Whether the solver builds an n-ary conjunction as a single term with one native call. Otherwise
+   * the conjunction consists of many binary terms, and {@link ProverOptions#BATCH_CONSTRAINTS} is
+   * ignored, because asserting a batch would not be cheaper than asserting each constraint.
+   *
+   * <p>This method is expected to always return the same value.
+   */
+  protected abstract boolean supportsNaryConjunction();
+
+  /**
+   * Whether the optimization prover environments of the solver support all {@link
+   * OptimizationProverEnvironment.ObjectivePriority priorities} and the Pareto front by
+   * themselves. Otherwise, they only need to support the lexicographic priority, and this class
+   * wraps them and computes the other queries with a binary search for integer objectives.
+   *
+   * <p>This method is expected to always return the same value.
+   */
+  protected abstract boolean supportsObjectivePriorities();
+
   private static Set<ProverOptions> toSet(ProverOptions... options) {
     Set<ProverOptions> opts = EnumSet.noneOf(ProverOptions.class);
     Collections.addAll(opts, options);
@@ -0,0 +1,150 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timer wheel that executes short tasks after a given delay.
+ *
+ * <p>All timeouts are handled by a single daemon thread that advances the wheel in fixed ticks.
+ * Scheduling and cancelling a timeout is cheap and does not require a thread per query, which
+ * matters for clients that issue many small time-bounded queries. Tasks are executed on the timer
+ * thread and must return quickly.
+ */
+final class HashedTimerWheel {
+
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final int WHEEL_SIZE = 512;
+
+  private static final HashedTimerWheel INSTANCE = new HashedTimerWheel();
+
+  /** Timeouts that were scheduled, but not yet sorted into a bucket by the timer thread. */
+  private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+
+  /** The buckets of the wheel, only accessed by the timer thread. */
+  private final Deque<Timeout>[] buckets;
+
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final long startTime = System.nanoTime();
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private HashedTimerWheel() {
+    buckets = new Deque[WHEEL_SIZE];
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      buckets[i] = new ArrayDeque<>();
+    }
+  }
+
+  static HashedTimerWheel getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Schedule a task to be run after the given delay. The returned handle can be used to cancel the
+   * task, if it has not yet been run.
+   */
+  Timeout schedule(Duration pDelay, Runnable pTask) {
+    long deadline;
+    try {
+      deadline = Math.addExact(System.nanoTime() - startTime, pDelay.toNanos());
+    } catch (ArithmeticException e) {
+      deadline = Long.MAX_VALUE; // practically never
+    }
+    Timeout timeout = new Timeout(deadline, pTask);
+    newTimeouts.add(timeout);
+    if (started.compareAndSet(false, true)) {
+      Thread thread = new Thread(this::run, "JavaSMT timer wheel");
+      thread.setDaemon(true);
+      thread.start();
+    }
+    return timeout;
+  }
+
+  @SuppressWarnings("InfiniteLoopStatement")
+  private void run() {
+    long tick = 0;
+    while (true) {
+      waitForTick(tick);
+      transferNewTimeouts(tick);
+      expireTimeouts(buckets[(int) (tick % WHEEL_SIZE)]);
+      tick++;
+    }
+  }
+
+  private void waitForTick(long tick) {
+    long deadline = (tick + 1) * TICK_NANOS;
+    long remaining;
+    while ((remaining = deadline - (System.nanoTime() - startTime)) > 0) {
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+
+  /** Sort all newly scheduled timeouts into their bucket. */
+  private void transferNewTimeouts(long currentTick) {
+    Timeout timeout;
+    while ((timeout = newTimeouts.poll()) != null) {
+      if (timeout.cancelled) {
+        continue;
+      }
+      long ticks = Math.max(currentTick, timeout.deadline / TICK_NANOS);
+      timeout.remainingRounds = (ticks - currentTick) / WHEEL_SIZE;
+      buckets[(int) (ticks % WHEEL_SIZE)].add(timeout);
+    }
+  }
+
+  private void expireTimeouts(Deque<Timeout> bucket) {
+    Iterator<Timeout> it = bucket.iterator();
+    while (it.hasNext()) {
+      Timeout timeout = it.next();
+      if (timeout.cancelled) {
+        it.remove();
+      } else if (timeout.remainingRounds > 0) {
+        timeout.remainingRounds--;
+      } else {
+        it.remove();
+        try {
+          timeout.task.run();
+        } catch (RuntimeException e) {
+          Thread current = Thread.currentThread();
+          current.getUncaughtExceptionHandler().uncaughtException(current, e);
+        }
+      }
+    }
+  }
+
+  /** Handle for a scheduled task. */
+  static final class Timeout {
+
+    private final long deadline;
+    private final Runnable task;
+    private volatile boolean cancelled = false;
+
+    /** Number of full rotations of the wheel before expiry, only accessed by the timer thread. */
+    private long remainingRounds;
+
+    private Timeout(long pDeadline, Runnable pTask) {
+      deadline = pDeadline;
+      task = pTask;
+    }
+
+    /** Cancel the task. This has no effect if the task was already run. */
+    void cancel() {
+      cancelled = true;
+    }
+  }
+}
@@ -0,0 +1,203 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.batched;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A {@link ProverEnvironment} that buffers asserted constraints and passes them to the wrapped
+ * prover before the next operation that depends on them, i.e., a satisfiability check, a model or
+ * unsat core query, or a modification of the stack.
+ *
+ * <p>All buffered constraints are asserted as one n-ary conjunction, such that the solver is called
+ * only once for the whole batch. Constraints that are popped before the next query are never
+ * passed to the solver. The wrapper is only useful for solvers that build n-ary conjunctions as a
+ * single term, and not for unsat cores, which would contain the conjunction instead of each
+ * constraint.
+ */
+public class BatchedConstraintsProver implements ProverEnvironment {
+
+  private final ProverEnvironment delegate;
+  private final BooleanFormulaManager bmgr;
+
+  /** Constraints on the current level that are not yet asserted. */
+  private final List<BooleanFormula> buffer = new ArrayList<>();
+
+  private int flushes = 0;
+  private int bufferedConstraints = 0;
+  private int discardedConstraints = 0;
+  private boolean closed = false;
+
+  public BatchedConstraintsProver(ProverEnvironment pDelegate, BooleanFormulaManager pBmgr) {
+    delegate = checkNotNull(pDelegate);
+    bmgr = checkNotNull(pBmgr);
+  }
+
+  /** Assert all buffered constraints in the wrapped prover. */
+  private void flush() throws InterruptedException {
+    checkState(!closed);
+    if (buffer.isEmpty()) {
+      return;
+    }
+    flushes++;
+    if (buffer.size() == 1) {
+      delegate.addConstraint(buffer.get(0));
+    } else {
+      delegate.addConstraint(bmgr.and(buffer));
+    }
+    // on interrupt, the buffer is kept and asserted again, which does not change the semantics
+    buffer.clear();
+  }
+
+  /** Flush the buffer in an operation that can not be interrupted. */
+  private void flushUninterruptibly() throws SolverException {
+    try {
+      flush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SolverException("Interrupted while asserting buffered constraints", e);
+    }
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    checkState(!closed);
+    buffer.add(checkNotNull(pConstraint));
+    bufferedConstraints++;
+    return null;
+  }
+
+  @Override
+  public void push() {
+    checkState(!closed);
+    try {
+      flush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while asserting buffered constraints", e);
+    }
+    delegate.push();
+  }
+
+  @Override
+  public void pop() {
+    checkState(!closed);
+    // the buffer only contains constraints of the current level
+    discardedConstraints += buffer.size();
+    buffer.clear();
+    delegate.pop();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    flush();
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    flush();
+    return delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    flush();
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    flush();
+    return delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    flush();
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    flushUninterruptibly();
+    return delegate.getModel();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    flushUninterruptibly();
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkState(!closed);
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    flush();
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Map<String, Number> statistics = new HashMap<>(delegate.getStatistics());
+    statistics.put("batched constraints", bufferedConstraints);
+    statistics.put("batched constraint flushes", flushes);
+    statistics.put("batched constraints discarded", discardedConstraints);
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    flush();
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      buffer.clear();
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,405 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.guardedStack;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A {@link ProverEnvironment} that implements {@link #push()} and {@link #pop()} without the
+ * assertion stack of the wrapped prover.
+ *
+ * <p>Each level of the stack is guarded by a fresh activation literal, i.e., a constraint {@code c}
+ * on level {@code i} is asserted as {@code g_i => c}, and all satisfiability checks are done under
+ * the assumption of all active guards. Popping a level retires its guard by asserting its negation.
+ * The clauses of retired guards are garbage collected once they outnumber the live constraints:
+ * the single native level holding all constraints is then popped and the live constraints are
+ * asserted again, such that the amortized costs stay linear in the number of asserted constraints.
+ *
+ * <p>If {@link #pop()} is interrupted while updating the native level, it throws an {@link
+ * IllegalStateException} after removing the level, and the native level is rebuilt from the live
+ * constraints before the next operation that may be interrupted.
+ */
+public class GuardedStackProver implements ProverEnvironment {
+
+  private static final UniqueIdGenerator UNIQUE_ID_GENERATOR = new UniqueIdGenerator();
+  private static final String PREFIX = "__GUARDED_STACK_";
+
+  /** Minimal number of retired constraints before garbage collection is applied. */
+  private static final int MIN_GARBAGE = 100;
+
+  private final ProverEnvironment delegate;
+  private final BooleanFormulaManager bmgr;
+
+  /** The guard of each level, where the outermost level is unguarded. */
+  private final List<@Nullable BooleanFormula> guards = new ArrayList<>();
+
+  /** The constraints of each level, parallel to the guards. */
+  private final List<List<BooleanFormula>> levels = new ArrayList<>();
+
+  /** Mapping from asserted (guarded) formulas to the original constraints, for unsat cores. */
+  private final Map<BooleanFormula, BooleanFormula> originalConstraints = new HashMap<>();
+
+  private int liveConstraints = 0;
+  private int retiredConstraints = 0;
+  private int garbageCollections = 0;
+  private boolean closed = false;
+
+  /** Whether the native level does not match the live constraints after an interrupted pop. */
+  private boolean rebuildPending = false;
+
+  public GuardedStackProver(ProverEnvironment pDelegate, BooleanFormulaManager pBmgr) {
+    delegate = checkNotNull(pDelegate);
+    bmgr = checkNotNull(pBmgr);
+    guards.add(null);
+    levels.add(new ArrayList<>());
+    delegate.push(); // native level that is rebuilt on garbage collection
+  }
+
+  /** Whether the variable was created by this class. */
+  private static boolean isGuard(String pName) {
+    return pName.startsWith(PREFIX);
+  }
+
+  private List<BooleanFormula> getActiveGuards() {
+    return guards.subList(1, guards.size());
+  }
+
+  private List<BooleanFormula> withActiveGuards(Collection<BooleanFormula> pAssumptions) {
+    return ImmutableList.<BooleanFormula>builder()
+        .addAll(getActiveGuards())
+        .addAll(pAssumptions)
+        .build();
+  }
+
+  @Override
+  public void push() {
+    checkState(!closed);
+    guards.add(bmgr.makeVariable(PREFIX + UNIQUE_ID_GENERATOR.getFreshId()));
+    levels.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    checkState(!closed);
+    checkState(guards.size() > 1, "cannot pop the outermost level");
+    BooleanFormula guard = guards.remove(guards.size() - 1);
+    List<BooleanFormula> retired = levels.remove(levels.size() - 1);
+    liveConstraints -= retired.size();
+    retiredConstraints += retired.size();
+    if (rebuildPending) {
+      return; // the native level is rebuilt anyway
+    }
+    try {
+      if (retiredConstraints >= Math.max(MIN_GARBAGE, liveConstraints)) {
+        collectGarbage();
+      } else if (!retired.isEmpty()) {
+        // permanently disable the clauses of the level, such that the solver can simplify them
+        delegate.addConstraint(bmgr.not(guard));
+      }
+    } catch (InterruptedException e) {
+      rebuildPending = true;
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while removing the popped level", e);
+    }
+  }
+
+  /**
+   * Remove all retired constraints by rebuilding the native level from the live constraints. If the
+   * rebuild is interrupted, it is repeated before the next operation.
+   */
+  private void collectGarbage() throws InterruptedException {
+    rebuildPending = true;
+    delegate.pop();
+    delegate.push();
+    originalConstraints.clear();
+    retiredConstraints = 0;
+    garbageCollections++;
+    for (int i = 0; i < levels.size(); i++) {
+      for (BooleanFormula constraint : levels.get(i)) {
+        assertGuarded(guards.get(i), constraint);
+      }
+    }
+    rebuildPending = false;
+  }
+
+  /** Check that the prover is open and its native level matches the live constraints. */
+  private void checkUsable() throws InterruptedException {
+    checkState(!closed);
+    if (rebuildPending) {
+      collectGarbage();
+    }
+  }
+
+  /** Check that the last result is still valid, i.e., no pop was interrupted since. */
+  private void checkResultAvailable() {
+    checkState(!closed);
+    checkState(!rebuildPending, "the native level was not rebuilt after an interrupted pop");
+  }
+
+  private void assertGuarded(@Nullable BooleanFormula guard, BooleanFormula constraint)
+      throws InterruptedException {
+    BooleanFormula asserted = guard == null ? constraint : bmgr.implication(guard, constraint);
+    originalConstraints.put(asserted, constraint);
+    delegate.addConstraint(asserted);
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    checkUsable();
+    int level = levels.size() - 1;
+    assertGuarded(guards.get(level), pConstraint);
+    levels.get(level).add(pConstraint);
+    liveConstraints++;
+    return null;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    checkUsable();
+    return delegate.isUnsatWithAssumptions(getActiveGuards());
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    checkUsable();
+    return delegate.isUnsatWithAssumptions(withActiveGuards(pAssumptions));
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    checkUsable();
+    return delegate.isUnsatWithAssumptions(getActiveGuards(), pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    checkUsable();
+    return delegate.isUnsatWithAssumptions(withActiveGuards(pAssumptions), pTimeout);
+  }
+
+  /**
+   * There is no resource-limited check under assumptions, thus the active guards are asserted on a
+   * temporary native level. This is the only native push outside of garbage collection, together
+   * with {@link #allSat}.
+   */
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    checkUsable();
+    delegate.push();
+    try {
+      for (BooleanFormula guard : getActiveGuards()) {
+        delegate.addConstraint(guard);
+      }
+      return delegate.isUnsatWithResourceLimit(pResourceLimit);
+    } finally {
+      delegate.pop();
+    }
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkResultAvailable();
+    return new GuardFilteringModel(delegate.getModel());
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    checkResultAvailable();
+    ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
+    for (ValueAssignment assignment : delegate.getModelAssignments()) {
+      if (!isGuard(assignment.getName())) {
+        assignments.add(assignment);
+      }
+    }
+    return assignments.build();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkResultAvailable();
+    List<BooleanFormula> core = new ArrayList<>();
+    for (BooleanFormula asserted : delegate.getUnsatCore()) {
+      // guards and negated retired guards have no original constraint
+      BooleanFormula original = asserted == null ? null : originalConstraints.get(asserted);
+      if (original != null) {
+        core.add(original);
+      }
+    }
+    return core;
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    checkUsable();
+    Optional<List<BooleanFormula>> core =
+        delegate.unsatCoreOverAssumptions(withActiveGuards(pAssumptions));
+    if (!core.isPresent()) {
+      return core;
+    }
+    List<BooleanFormula> activeGuards = getActiveGuards();
+    List<BooleanFormula> filtered = new ArrayList<>();
+    for (BooleanFormula assumption : core.orElseThrow()) {
+      if (!activeGuards.contains(assumption)) {
+        filtered.add(assumption);
+      }
+    }
+    return Optional.of(filtered);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Map<String, Number> statistics = new HashMap<>(delegate.getStatistics());
+    statistics.put("guarded stack garbage collections", garbageCollections);
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    checkUsable();
+    delegate.push();
+    try {
+      for (BooleanFormula guard : getActiveGuards()) {
+        delegate.addConstraint(guard);
+      }
+      return delegate.allSat(pCallback, pImportant);
+    } finally {
+      delegate.pop();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      guards.clear();
+      levels.clear();
+      originalConstraints.clear();
+      delegate.close();
+    }
+  }
+
+  /** A model that hides the guards, like {@link #getModelAssignments()}. */
+  private static final class GuardFilteringModel implements Model {
+
+    private final Model delegate;
+
+    private GuardFilteringModel(Model pDelegate) {
+      delegate = checkNotNull(pDelegate);
+    }
+
+    @Override
+    public <T extends Formula> @Nullable T eval(T pFormula) {
+      return delegate.eval(pFormula);
+    }
+
+    @Override
+    public @Nullable Object evaluate(Formula pF) {
+      return delegate.evaluate(pF);
+    }
+
+    @Override
+    public @Nullable BigInteger evaluate(IntegerFormula pF) {
+      return delegate.evaluate(pF);
+    }
+
+    @Override
+    public @Nullable Rational evaluate(RationalFormula pF) {
+      return delegate.evaluate(pF);
+    }
+
+    @Override
+    public @Nullable Boolean evaluate(BooleanFormula pF) {
+      return delegate.evaluate(pF);
+    }
+
+    @Override
+    public @Nullable BigInteger evaluate(BitvectorFormula pF) {
+      return delegate.evaluate(pF);
+    }
+
+    @Override
+    public long evaluateAsLong(IntegerFormula pF) {
+      return delegate.evaluateAsLong(pF);
+    }
+
+    @Override
+    public long evaluateAsLong(BitvectorFormula pF) {
+      return delegate.evaluateAsLong(pF);
+    }
+
+    @Override
+    public List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+      return delegate.evaluateAll(pFormulas);
+    }
+
+    @Override
+    public BitSet evaluateAllAsLong(List<? extends Formula> pFormulas, long[] pValues) {
+      return delegate.evaluateAllAsLong(pFormulas, pValues);
+    }
+
+    @Override
+    public ImmutableList<ValueAssignment> asList() {
+      return stream().collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public Stream<ValueAssignment> stream() {
+      return delegate.stream().filter(assignment -> !isGuard(assignment.getName()));
+    }
+
+    @Override
+    public String toString() {
+      return Joiner.on('\n').join(iterator());
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,292 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.multiObjective;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * An {@link OptimizationProverEnvironment} for solvers that optimize several objectives only
+ * lexicographically. Box optimization and the Pareto front are computed by a fallback prover, into
+ * which the constraints and objectives of all levels are replayed.
+ *
+ * <p>The fallback prover holds the bounds and the model of its query until the next query or
+ * modification, afterwards all queries are answered by the wrapped prover again.
+ */
+public class MultiObjectiveFallbackProver implements OptimizationProverEnvironment {
+
+  private final OptimizationProverEnvironment delegate;
+  private final Supplier<OptimizationProverEnvironment> fallbackFactory;
+
+  /** The constraints and objectives of each level, from the bottom to the top of the stack. */
+  private final List<Level> levels = new ArrayList<>();
+
+  private @Nullable OptimizationProverEnvironment fallback = null;
+
+  /** Handle of an objective in the wrapped prover -> handle in the fallback prover. */
+  private ImmutableMap<Integer, Integer> fallbackHandles = ImmutableMap.of();
+
+  private boolean closed = false;
+
+  private static final class Level {
+    private final List<BooleanFormula> constraints = new ArrayList<>();
+    private final List<Objective> objectives = new ArrayList<>();
+  }
+
+  private static final class Objective {
+    private final int handle;
+    private final Formula term;
+    private final boolean maximize;
+
+    private Objective(int pHandle, Formula pTerm, boolean pMaximize) {
+      handle = pHandle;
+      term = pTerm;
+      maximize = pMaximize;
+    }
+  }
+
+  public MultiObjectiveFallbackProver(
+      OptimizationProverEnvironment pDelegate,
+      Supplier<OptimizationProverEnvironment> pFallbackFactory) {
+    delegate = checkNotNull(pDelegate);
+    fallbackFactory = checkNotNull(pFallbackFactory);
+    levels.add(new Level());
+  }
+
+  private Level currentLevel() {
+    return levels.get(levels.size() - 1);
+  }
+
+  /** Replay the constraints and objectives of all levels into a new fallback prover. */
+  @SuppressWarnings("resource")
+  private OptimizationProverEnvironment createFallback() throws InterruptedException {
+    closeFallback();
+    OptimizationProverEnvironment prover = fallbackFactory.get();
+    try {
+      ImmutableMap.Builder<Integer, Integer> handles = ImmutableMap.builder();
+      for (Level level : levels) {
+        for (BooleanFormula constraint : level.constraints) {
+          prover.addConstraint(constraint);
+        }
+        for (Objective objective : level.objectives) {
+          Formula term = objective.term;
+          handles.put(
+              objective.handle, objective.maximize ? prover.maximize(term) : prover.minimize(term));
+        }
+      }
+      fallbackHandles = handles.build();
+    } catch (RuntimeException | InterruptedException e) {
+      prover.close();
+      throw e;
+    }
+    fallback = prover;
+    return prover;
+  }
+
+  private void closeFallback() {
+    checkState(!closed);
+    if (fallback != null) {
+      fallback.close();
+      fallback = null;
+      fallbackHandles = ImmutableMap.of();
+    }
+  }
+
+  @Override
+  public void push() {
+    closeFallback();
+    delegate.push();
+    levels.add(new Level());
+  }
+
+  @Override
+  public void pop() {
+    closeFallback();
+    checkState(levels.size() > 1);
+    delegate.pop();
+    levels.remove(levels.size() - 1);
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    closeFallback();
+    delegate.addConstraint(pConstraint);
+    currentLevel().constraints.add(pConstraint);
+    return null;
+  }
+
+  @Override
+  public int maximize(Formula pObjective) {
+    closeFallback();
+    int handle = delegate.maximize(pObjective);
+    currentLevel().objectives.add(new Objective(handle, pObjective, true));
+    return handle;
+  }
+
+  @Override
+  public int minimize(Formula pObjective) {
+    closeFallback();
+    int handle = delegate.minimize(pObjective);
+    currentLevel().objectives.add(new Objective(handle, pObjective, false));
+    return handle;
+  }
+
+  @Override
+  public OptStatus check() throws InterruptedException, SolverException {
+    closeFallback();
+    return delegate.check();
+  }
+
+  @Override
+  public OptStatus check(ObjectivePriority pPriority)
+      throws InterruptedException, SolverException {
+    closeFallback();
+    if (pPriority == ObjectivePriority.LEXICOGRAPHIC) {
+      return delegate.check(pPriority);
+    }
+    return createFallback().check(pPriority);
+  }
+
+  @Override
+  public Stream<ImmutableList<Rational>> paretoFront() {
+    try {
+      return createFallback().paretoFront();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public Optional<Rational> upper(int pHandle, Rational pEpsilon) {
+    checkState(!closed);
+    if (fallback != null) {
+      return fallback.upper(fallbackHandles.get(pHandle), pEpsilon);
+    }
+    return delegate.upper(pHandle, pEpsilon);
+  }
+
+  @Override
+  public Optional<Rational> lower(int pHandle, Rational pEpsilon) {
+    checkState(!closed);
+    if (fallback != null) {
+      return fallback.lower(fallbackHandles.get(pHandle), pEpsilon);
+    }
+    return delegate.lower(pHandle, pEpsilon);
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    closeFallback();
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    closeFallback();
+    return delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    closeFallback();
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    closeFallback();
+    return delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    closeFallback();
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkState(!closed);
+    return fallback != null ? fallback.getModel() : delegate.getModel();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    checkState(!closed);
+    return fallback != null ? fallback.getModelAssignments() : delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkState(!closed);
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    closeFallback();
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    closeFallback();
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closeFallback();
+      closed = true;
+      levels.clear();
+      delegate.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
@@ -0,0 +1,256 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.rebuilding;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A {@link ProverEnvironment} that transparently replaces the wrapped prover by a fresh one, if the
+ * wrapped prover seems to be degraded by a long sequence of stack operations, e.g., due to learned
+ * clauses or internal tables that are never cleaned up.
+ *
+ * <p>The asserted formulas of each level are tracked in Java. Before a satisfiability check, the
+ * prover is rebuilt from these formulas if the number of popped levels since the last rebuild
+ * exceeds the churn limit, or if the stack churn is at least the number of tracked formulas and
+ * the average latency of recent checks exceeds the average latency of the first checks after the
+ * last rebuild by the slowdown factor. The second condition bounds the costs of rebuilding by the
+ * costs of the stack operations since the last rebuild.
+ */
+public class RebuildingProver implements ProverEnvironment {
+
+  /** Default number of popped levels, after which the prover is always rebuilt. */
+  public static final int DEFAULT_CHURN_LIMIT = 100_000;
+
+  /** Default factor, by which the latency of recent checks must exceed the initial latency. */
+  public static final double DEFAULT_SLOWDOWN_FACTOR = 4.0;
+
+  /** Number of checks after a rebuild whose average latency is used as baseline. */
+  private static final int BASELINE_CHECKS = 32;
+
+  /** Weight of the latest check in the moving average of the latency. */
+  private static final double LATENCY_WEIGHT = 1.0 / BASELINE_CHECKS;
+
+  private final Supplier<ProverEnvironment> proverFactory;
+  private final long churnLimit;
+  private final double slowdownFactor;
+
+  private ProverEnvironment delegate;
+
+  /** The asserted formulas of each level. */
+  private final List<List<BooleanFormula>> levels = new ArrayList<>();
+
+  private int trackedFormulas = 0;
+
+  /** Number of popped levels since the last rebuild. */
+  private long churn = 0;
+
+  private int baselineChecks = 0;
+  private double baselineLatency = 0;
+  private double recentLatency = 0;
+
+  private int rebuilds = 0;
+  private boolean closed = false;
+
+  public RebuildingProver(Supplier<ProverEnvironment> pProverFactory) {
+    this(pProverFactory, DEFAULT_CHURN_LIMIT, DEFAULT_SLOWDOWN_FACTOR);
+  }
+
+  public RebuildingProver(
+      Supplier<ProverEnvironment> pProverFactory, long pChurnLimit, double pSlowdownFactor) {
+    checkArgument(pChurnLimit > 0, "invalid churn limit %s", pChurnLimit);
+    checkArgument(pSlowdownFactor > 1, "invalid slowdown factor %s", pSlowdownFactor);
+    proverFactory = checkNotNull(pProverFactory);
+    churnLimit = pChurnLimit;
+    slowdownFactor = pSlowdownFactor;
+    delegate = checkNotNull(proverFactory.get());
+    levels.add(new ArrayList<>());
+  }
+
+  private boolean isDegraded() {
+    if (churn >= churnLimit) {
+      return true;
+    }
+    return churn >= trackedFormulas
+        && baselineChecks == BASELINE_CHECKS
+        && recentLatency > slowdownFactor * baselineLatency;
+  }
+
+  /** Rebuild the prover if required by the policy. Called before each check. */
+  private void rebuildIfDegraded() throws InterruptedException {
+    checkState(!closed);
+    if (!isDegraded()) {
+      return;
+    }
+    // some solvers do not support several provers at once, thus the old one is closed first
+    delegate.close();
+    delegate = checkNotNull(proverFactory.get());
+    for (int i = 0; i < levels.size(); i++) {
+      if (i > 0) {
+        delegate.push();
+      }
+      for (BooleanFormula formula : levels.get(i)) {
+        delegate.addConstraint(formula);
+      }
+    }
+    churn = 0;
+    baselineChecks = 0;
+    baselineLatency = 0;
+    recentLatency = 0;
+    rebuilds++;
+  }
+
+  /** Update the latency statistics with a finished check. */
+  private void recordLatency(long pStartTime) {
+    double latency = System.nanoTime() - pStartTime;
+    if (baselineChecks < BASELINE_CHECKS) {
+      baselineChecks++;
+      baselineLatency += (latency - baselineLatency) / baselineChecks;
+      recentLatency = baselineLatency;
+    } else {
+      recentLatency += LATENCY_WEIGHT * (latency - recentLatency);
+    }
+  }
+
+  @Override
+  public void push() {
+    checkState(!closed);
+    delegate.push();
+    levels.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    checkState(!closed);
+    checkState(levels.size() > 1);
+    delegate.pop();
+    trackedFormulas -= levels.remove(levels.size() - 1).size();
+    churn++;
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    checkState(!closed);
+    delegate.addConstraint(pConstraint);
+    levels.get(levels.size() - 1).add(pConstraint);
+    trackedFormulas++;
+    return null;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    rebuildIfDegraded();
+    long start = System.nanoTime();
+    boolean result = delegate.isUnsat();
+    recordLatency(start);
+    return result;
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    rebuildIfDegraded();
+    long start = System.nanoTime();
+    boolean result = delegate.isUnsatWithAssumptions(pAssumptions);
+    recordLatency(start);
+    return result;
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    rebuildIfDegraded();
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    rebuildIfDegraded();
+    return delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    rebuildIfDegraded();
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkState(!closed);
+    return delegate.getModel();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    checkState(!closed);
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkState(!closed);
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    rebuildIfDegraded();
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Map<String, Number> statistics = new HashMap<>(delegate.getStatistics());
+    statistics.put("prover rebuilds", rebuilds);
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    rebuildIfDegraded();
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      levels.clear();
+      delegate.close();
+    }
+  }
+}
@@ -12,6 +12,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -39,6 +41,11 @@ abstract class ReusableStackAbstractProver<T, D extends BasicProverEnvironment<T
     size++;
   }
 
+  /** Returns the number of levels on the stack, including the initial level. */
+  int getStackSize() {
+    return size;
+  }
+
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
     Preconditions.checkState(size >= 1);
@@ -51,6 +58,31 @@ abstract class ReusableStackAbstractProver<T, D extends BasicProverEnvironment<T
     return delegate.isUnsatWithAssumptions(pAssumptions);
   }
 
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    Preconditions.checkState(size >= 1);
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    Preconditions.checkState(size >= 1);
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
   @Override
   public final void push() {
     size++;
@@ -92,6 +124,11 @@ abstract class ReusableStackAbstractProver<T, D extends BasicProverEnvironment<T
     return delegate.unsatCoreOverAssumptions(assumptions);
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    return delegate.getStatistics();
+  }
+
   @Override
   public void close() {
     while (size > 1) {
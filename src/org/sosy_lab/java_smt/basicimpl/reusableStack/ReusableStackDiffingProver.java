@@ -0,0 +1,113 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.reusableStack;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A reusable prover for sequences of related queries, where each query is given as a whole list of
+ * constraints.
+ *
+ * <p>Each constraint of a query is asserted on its own level of the stack. For the next query, only
+ * the levels after the longest common prefix of both constraint lists are popped, and only the new
+ * constraints are pushed. The solver keeps its learned state for the shared prefix.
+ *
+ * <p>Constraints asserted with {@link #addConstraint} on the initial level are shared by all
+ * queries. Levels that are modified by {@link #push()}, {@link #pop()} or {@link #addConstraint}
+ * are never reused for a query.
+ */
+public class ReusableStackDiffingProver
+    extends ReusableStackAbstractProver<Void, ProverEnvironment> implements ProverEnvironment {
+
+  /**
+   * The constraint of each level above the initial level, or null if the level was not created by
+   * a query or was modified afterwards.
+   */
+  private final List<@Nullable BooleanFormula> levels = new ArrayList<>();
+
+  private int reusedLevels = 0;
+  private int pushedLevels = 0;
+
+  public ReusableStackDiffingProver(ProverEnvironment pDelegate) {
+    super(pDelegate);
+  }
+
+  /** Add an unknown entry for each level that was pushed directly. */
+  private void synchronizeLevels() {
+    while (levels.size() < getStackSize() - 1) {
+      levels.add(null);
+    }
+  }
+
+  /**
+   * Replace the constraints of the previous query with the given constraints, reusing the levels
+   * of the longest common prefix.
+   */
+  public void setConstraints(List<BooleanFormula> pConstraints) throws InterruptedException {
+    synchronizeLevels();
+    int common = 0;
+    while (common < levels.size()
+        && common < pConstraints.size()
+        && pConstraints.get(common).equals(levels.get(common))) {
+      common++;
+    }
+    while (levels.size() > common) {
+      pop();
+    }
+    reusedLevels += common;
+    for (BooleanFormula constraint : pConstraints.subList(common, pConstraints.size())) {
+      push();
+      super.addConstraint(constraint);
+      levels.add(constraint);
+      pushedLevels++;
+    }
+  }
+
+  /**
+   * Check the given constraints for satisfiability, reusing the levels of the longest common prefix
+   * with the previous query.
+   */
+  public boolean isUnsat(List<BooleanFormula> pConstraints)
+      throws SolverException, InterruptedException {
+    setConstraints(pConstraints);
+    return isUnsat();
+  }
+
+  @Override
+  public void pop() {
+    synchronizeLevels();
+    super.pop();
+    levels.remove(levels.size() - 1);
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    synchronizeLevels();
+    if (!levels.isEmpty()) {
+      levels.set(levels.size() - 1, null);
+    }
+    return super.addConstraint(pConstraint);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Map<String, Number> statistics = new HashMap<>(super.getStatistics());
+    statistics.put("reused stack levels", reusedLevels);
+    statistics.put("pushed stack levels", pushedLevels);
+    return ImmutableMap.copyOf(statistics);
+  }
+}
@@ -0,0 +1,189 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.basicimpl.tactics.Preprocessor.Application;
+
+/**
+ * Bounded variable elimination: the top-level conjuncts of the formula are treated as clauses, and
+ * a Boolean variable that occurs only as literal in these clauses is eliminated by replacing all
+ * clauses that contain it by their resolvents, if this does not increase the number of clauses.
+ * Only variables with few occurrences are considered, such that the costs stay bounded.
+ *
+ * <p>Disjuncts that are not literals of Boolean variables are kept as they are, and the variables
+ * in them are not eliminated. The result is equisatisfiable to the input.
+ */
+final class BoundedVariableEliminator {
+
+  /** Maximum number of clauses with a variable, such that the variable is considered. */
+  private static final int MAX_OCCURRENCES = 16;
+
+  /** Maximum number of literals in a resolvent. */
+  private static final int MAX_RESOLVENT_SIZE = 16;
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+  private final Preprocessor preprocessor;
+
+  BoundedVariableEliminator(FormulaManager pFmgr, Preprocessor pPreprocessor) {
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    preprocessor = pPreprocessor;
+  }
+
+  BooleanFormula apply(BooleanFormula pFormula) {
+    // each clause maps its atoms to their polarity, removed clauses are null
+    List<@Nullable Map<BooleanFormula, Boolean>> clauses = new ArrayList<>();
+    Map<BooleanFormula, List<Integer>> occurrences = new LinkedHashMap<>();
+    Set<Formula> frozen = new HashSet<>();
+
+    for (BooleanFormula conjunct : bfmgr.toConjunctionArgs(pFormula, true)) {
+      Map<BooleanFormula, Boolean> clause = new LinkedHashMap<>();
+      boolean tautology = false;
+      for (BooleanFormula disjunct : bfmgr.toDisjunctionArgs(conjunct, true)) {
+        BooleanFormula atom = disjunct;
+        boolean polarity = true;
+        Application application = Preprocessor.getApplication(fmgr, disjunct);
+        if (application != null && application.getKind() == FunctionDeclarationKind.NOT) {
+          atom = (BooleanFormula) application.arguments.get(0);
+          polarity = false;
+        }
+        if (!Preprocessor.isFreeVariable(fmgr, atom)) {
+          // some other formula is kept as it is
+          atom = disjunct;
+          polarity = true;
+          frozen.addAll(fmgr.extractVariables(disjunct).values());
+        }
+        Boolean previous = clause.put(atom, polarity);
+        tautology |= previous != null && previous != polarity;
+      }
+      if (!tautology) {
+        addClause(clause, clauses, occurrences);
+      }
+    }
+
+    List<BooleanFormula> candidates = new ArrayList<>();
+    for (Map.Entry<BooleanFormula, List<Integer>> entry : occurrences.entrySet()) {
+      if (!frozen.contains(entry.getKey())
+          && Preprocessor.isFreeVariable(fmgr, entry.getKey())
+          && entry.getValue().size() <= MAX_OCCURRENCES) {
+        candidates.add(entry.getKey());
+      }
+    }
+    candidates.sort(Comparator.comparingInt(variable -> occurrences.get(variable).size()));
+
+    int eliminated = 0;
+    for (BooleanFormula variable : candidates) {
+      if (eliminate(variable, clauses, occurrences)) {
+        eliminated++;
+      }
+    }
+    if (eliminated == 0) {
+      return pFormula;
+    }
+    preprocessor.count("eliminated variables", eliminated);
+
+    List<BooleanFormula> result = new ArrayList<>();
+    for (Map<BooleanFormula, Boolean> clause : clauses) {
+      if (clause != null) {
+        List<BooleanFormula> literals = new ArrayList<>(clause.size());
+        clause.forEach((atom, polarity) -> literals.add(polarity ? atom : bfmgr.not(atom)));
+        result.add(bfmgr.or(literals));
+      }
+    }
+    return bfmgr.and(result);
+  }
+
+  private static void addClause(
+      Map<BooleanFormula, Boolean> pClause,
+      List<@Nullable Map<BooleanFormula, Boolean>> pClauses,
+      Map<BooleanFormula, List<Integer>> pOccurrences) {
+    int index = pClauses.size();
+    pClauses.add(pClause);
+    for (BooleanFormula atom : pClause.keySet()) {
+      pOccurrences.computeIfAbsent(atom, k -> new ArrayList<>()).add(index);
+    }
+  }
+
+  /** Eliminate the variable by resolution, if the number of clauses does not increase. */
+  private boolean eliminate(
+      BooleanFormula pVariable,
+      List<@Nullable Map<BooleanFormula, Boolean>> pClauses,
+      Map<BooleanFormula, List<Integer>> pOccurrences) {
+    List<Integer> positive = new ArrayList<>();
+    List<Integer> negative = new ArrayList<>();
+    for (int index : pOccurrences.get(pVariable)) {
+      Map<BooleanFormula, Boolean> clause = pClauses.get(index);
+      if (clause != null) {
+        (clause.get(pVariable) ? positive : negative).add(index);
+      }
+    }
+    int removed = positive.size() + negative.size();
+    if (removed > MAX_OCCURRENCES) {
+      return false;
+    }
+
+    List<Map<BooleanFormula, Boolean>> resolvents = new ArrayList<>();
+    for (int positiveIndex : positive) {
+      for (int negativeIndex : negative) {
+        Map<BooleanFormula, Boolean> resolvent =
+            resolve(pClauses.get(positiveIndex), pClauses.get(negativeIndex), pVariable);
+        if (resolvent == null) {
+          continue;
+        } else if (resolvent.size() > MAX_RESOLVENT_SIZE || resolvents.size() >= removed) {
+          return false;
+        }
+        resolvents.add(resolvent);
+      }
+    }
+
+    for (int index : positive) {
+      pClauses.set(index, null);
+    }
+    for (int index : negative) {
+      pClauses.set(index, null);
+    }
+    for (Map<BooleanFormula, Boolean> resolvent : resolvents) {
+      addClause(resolvent, pClauses, pOccurrences);
+    }
+    return true;
+  }
+
+  /** Returns the resolvent of both clauses on the variable, or null for a tautology. */
+  private static @Nullable Map<BooleanFormula, Boolean> resolve(
+      Map<BooleanFormula, Boolean> pPositive,
+      Map<BooleanFormula, Boolean> pNegative,
+      BooleanFormula pVariable) {
+    Map<BooleanFormula, Boolean> resolvent = new LinkedHashMap<>(pPositive);
+    resolvent.remove(pVariable);
+    for (Map.Entry<BooleanFormula, Boolean> literal : pNegative.entrySet()) {
+      if (literal.getKey().equals(pVariable)) {
+        continue;
+      }
+      Boolean previous = resolvent.put(literal.getKey(), literal.getValue());
+      if (previous != null && !previous.equals(literal.getValue())) {
+        return null;
+      }
+    }
+    return resolvent;
+  }
+}
@@ -0,0 +1,192 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.utils.GroundTermEvaluator;
+import org.sosy_lab.java_smt.utils.SolverUtils;
+
+/**
+ * Constant folding: applications of interpreted functions to constants are evaluated in Java, and
+ * Boolean connectives and if-then-else terms with constant operands are simplified.
+ */
+final class ConstantFolder extends FormulaTransformationVisitor {
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+  private final GroundTermEvaluator evaluator;
+  private final Preprocessor preprocessor;
+
+  /**
+   * The folded result for each visited function application, shared over all applications until
+   * it reaches {@link Preprocessor#MAX_MEMO_SIZE} entries.
+   */
+  private final Map<Formula, Formula> memo = new HashMap<>();
+
+  ConstantFolder(FormulaManager pFmgr, Preprocessor pPreprocessor) {
+    super(pFmgr);
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    evaluator = SolverUtils.groundTermEvaluator(pFmgr);
+    preprocessor = pPreprocessor;
+  }
+
+  BooleanFormula apply(BooleanFormula pFormula) {
+    if (memo.size() >= Preprocessor.MAX_MEMO_SIZE) {
+      memo.clear();
+      preprocessor.count("CONSTANT_FOLDING subterm memo resets", 1);
+    }
+    return fmgr.transformRecursively(pFormula, this);
+  }
+
+  @Override
+  public Formula visitFunction(
+      Formula pF, List<Formula> pNewArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+    Formula result = memo.get(pF);
+    if (result == null) {
+      result = fold(pF, pNewArgs, pFunctionDeclaration);
+      memo.put(pF, result);
+    }
+    return result;
+  }
+
+  private Formula fold(Formula pF, List<Formula> pNewArgs, FunctionDeclaration<?> pDeclaration) {
+    Formula simplified = simplifyBoolean(pDeclaration.getKind(), pNewArgs);
+    if (simplified != null) {
+      preprocessor.count("folded constants", 1);
+      return simplified;
+    }
+    Formula application = super.visitFunction(pF, pNewArgs, pDeclaration);
+    if (!isFoldable(pDeclaration.getKind()) || pNewArgs.isEmpty()) {
+      return application;
+    }
+    for (Formula arg : pNewArgs) {
+      if (!Preprocessor.isConstant(fmgr, arg)) {
+        return application;
+      }
+    }
+    Formula constant;
+    try {
+      Object value = evaluator.evaluate(application, ImmutableMap.of());
+      constant = makeConstant(fmgr.getFormulaType(pF), value);
+    } catch (IllegalArgumentException | UnsupportedOperationException | ArithmeticException e) {
+      // the evaluation is not supported, or undefined like a division by zero
+      return application;
+    }
+    if (constant == null) {
+      return application;
+    }
+    preprocessor.count("folded constants", 1);
+    return constant;
+  }
+
+  private static boolean isFoldable(FunctionDeclarationKind pKind) {
+    switch (pKind) {
+      case UF:
+      case VAR:
+      case SELECT:
+      case STORE:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /** Simplify Boolean connectives and if-then-else terms, or return null if not possible. */
+  private @Nullable Formula simplifyBoolean(FunctionDeclarationKind pKind, List<Formula> pArgs) {
+    switch (pKind) {
+      case AND:
+      case OR:
+        {
+          boolean isAnd = pKind == FunctionDeclarationKind.AND;
+          List<BooleanFormula> operands = new ArrayList<>(pArgs.size());
+          for (Formula arg : pArgs) {
+            BooleanFormula operand = (BooleanFormula) arg;
+            if (isAnd ? bfmgr.isFalse(operand) : bfmgr.isTrue(operand)) {
+              return operand;
+            } else if (!(isAnd ? bfmgr.isTrue(operand) : bfmgr.isFalse(operand))) {
+              operands.add(operand);
+            }
+          }
+          if (operands.size() == pArgs.size()) {
+            return null;
+          }
+          return isAnd ? bfmgr.and(operands) : bfmgr.or(operands);
+        }
+      case IMPLIES:
+        {
+          BooleanFormula antecedent = (BooleanFormula) pArgs.get(0);
+          BooleanFormula consequent = (BooleanFormula) pArgs.get(1);
+          if (bfmgr.isFalse(antecedent) || bfmgr.isTrue(consequent)) {
+            return bfmgr.makeTrue();
+          } else if (bfmgr.isTrue(antecedent)) {
+            return consequent;
+          }
+          return null;
+        }
+      case ITE:
+        {
+          BooleanFormula condition = (BooleanFormula) pArgs.get(0);
+          if (bfmgr.isTrue(condition) || pArgs.get(1).equals(pArgs.get(2))) {
+            return pArgs.get(1);
+          } else if (bfmgr.isFalse(condition)) {
+            return pArgs.get(2);
+          }
+          return null;
+        }
+      case EQ:
+      case IFF:
+      case BV_EQ:
+        return pArgs.size() == 2 && pArgs.get(0).equals(pArgs.get(1)) ? bfmgr.makeTrue() : null;
+      default:
+        return null;
+    }
+  }
+
+  /** Create a constant formula for the value, or return null if this is not supported. */
+  private @Nullable Formula makeConstant(FormulaType<?> pType, Object pValue) {
+    if (pType.isBooleanType()) {
+      return bfmgr.makeBoolean((Boolean) pValue);
+    } else if (pType.isIntegerType() && pValue instanceof BigInteger) {
+      return fmgr.getIntegerFormulaManager().makeNumber((BigInteger) pValue);
+    } else if (pType.isRationalType() && pValue instanceof Rational) {
+      return fmgr.getRationalFormulaManager().makeNumber((Rational) pValue);
+    } else if (pType.isRationalType() && pValue instanceof BigInteger) {
+      return fmgr.getRationalFormulaManager().makeNumber((BigInteger) pValue);
+    } else if (pType.isBitvectorType() && pValue instanceof BigInteger) {
+      return fmgr.getBitvectorFormulaManager()
+          .makeBitvector(((BitvectorType) pType).getSize(), (BigInteger) pValue);
+    } else if (pType.isFloatingPointType() && pValue instanceof Number) {
+      double value = ((Number) pValue).doubleValue();
+      // special values and the sign of zero are not supported by all solvers
+      if (Double.isNaN(value) || Double.isInfinite(value) || value == 0) {
+        return null;
+      }
+      return fmgr.getFloatingPointFormulaManager().makeNumber(value, (FloatingPointType) pType);
+    }
+    return null;
+  }
+}
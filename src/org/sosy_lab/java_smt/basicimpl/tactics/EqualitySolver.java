@@ -0,0 +1,115 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.basicimpl.tactics.Preprocessor.Application;
+
+/**
+ * Equality substitution: a top-level conjunct {@code x = t}, where the variable {@code x} does not
+ * occur in {@code t}, is removed and {@code x} is replaced by {@code t} in all other conjuncts.
+ * Boolean variables and their negations as top-level conjuncts are replaced by constants.
+ *
+ * <p>The result is equisatisfiable to the input, but does not constrain the substituted variables.
+ */
+final class EqualitySolver {
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+  private final Preprocessor preprocessor;
+
+  EqualitySolver(FormulaManager pFmgr, Preprocessor pPreprocessor) {
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    preprocessor = pPreprocessor;
+  }
+
+  BooleanFormula apply(BooleanFormula pFormula) {
+    // the values of the substitution never contain one of its keys
+    Map<Formula, Formula> substitution = new LinkedHashMap<>();
+    List<BooleanFormula> remaining = new ArrayList<>();
+    for (BooleanFormula conjunct : bfmgr.toConjunctionArgs(pFormula, true)) {
+      BooleanFormula substituted =
+          substitution.isEmpty() ? conjunct : fmgr.substitute(conjunct, substitution);
+      Map.Entry<Formula, Formula> definition = getDefinition(substituted);
+      if (definition == null) {
+        remaining.add(substituted);
+        continue;
+      }
+      Map<Formula, Formula> single = ImmutableMap.of(definition.getKey(), definition.getValue());
+      for (Map.Entry<Formula, Formula> entry : substitution.entrySet()) {
+        entry.setValue(fmgr.substitute(entry.getValue(), single));
+      }
+      substitution.put(definition.getKey(), definition.getValue());
+      preprocessor.count("substituted variables", 1);
+    }
+    if (substitution.isEmpty()) {
+      return pFormula;
+    }
+    // earlier conjuncts may contain variables that were defined later
+    List<BooleanFormula> result = new ArrayList<>(remaining.size());
+    for (BooleanFormula conjunct : remaining) {
+      result.add(fmgr.substitute(conjunct, substitution));
+    }
+    return bfmgr.and(result);
+  }
+
+  /** Returns the variable and its value, if the conjunct defines a variable. */
+  private Map.@Nullable Entry<Formula, Formula> getDefinition(BooleanFormula pConjunct) {
+    if (Preprocessor.isFreeVariable(fmgr, pConjunct)) {
+      return Maps.immutableEntry(pConjunct, bfmgr.makeTrue());
+    }
+    Application application = Preprocessor.getApplication(fmgr, pConjunct);
+    if (application == null) {
+      return null;
+    }
+    switch (application.getKind()) {
+      case NOT:
+        Formula operand = application.arguments.get(0);
+        if (Preprocessor.isFreeVariable(fmgr, operand)) {
+          return Maps.immutableEntry(operand, bfmgr.makeFalse());
+        }
+        return null;
+      case EQ:
+      case IFF:
+      case BV_EQ:
+        if (application.arguments.size() != 2) {
+          return null;
+        }
+        Formula left = application.arguments.get(0);
+        Formula right = application.arguments.get(1);
+        if (!fmgr.getFormulaType(left).equals(fmgr.getFormulaType(right))) {
+          return null;
+        } else if (isDefinable(left, right)) {
+          return Maps.immutableEntry(left, right);
+        } else if (isDefinable(right, left)) {
+          return Maps.immutableEntry(right, left);
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  /** Returns whether the formula is a variable that does not occur in the value. */
+  private boolean isDefinable(Formula pVariable, Formula pValue) {
+    return Preprocessor.isFreeVariable(fmgr, pVariable)
+        && !fmgr.extractVariables(pValue).containsValue(pVariable);
+  }
+}
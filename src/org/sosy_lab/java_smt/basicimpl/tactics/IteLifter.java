@@ -0,0 +1,115 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.Preprocessor.Application;
+
+/**
+ * Lifting of if-then-else terms: an application {@code f(ite(c, a, b), t)} with exactly one
+ * non-Boolean if-then-else argument is replaced by {@code ite(c, f(a, t), f(b, t))}. Thus
+ * if-then-else terms move up to the Boolean structure of the formula, and constant branches can be
+ * folded into the enclosing terms. Applications with several if-then-else arguments are not
+ * changed, in order to avoid an exponential growth of the formula.
+ *
+ * <p>The result is equivalent to the input.
+ */
+final class IteLifter extends FormulaTransformationVisitor {
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+  private final Preprocessor preprocessor;
+
+  IteLifter(FormulaManager pFmgr, Preprocessor pPreprocessor) {
+    super(pFmgr);
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    preprocessor = pPreprocessor;
+  }
+
+  BooleanFormula apply(BooleanFormula pFormula) {
+    return fmgr.transformRecursively(pFormula, this);
+  }
+
+  @Override
+  public Formula visitFunction(
+      Formula pF, List<Formula> pNewArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+    return lift(pFunctionDeclaration, pNewArgs);
+  }
+
+  /** Create the application, and lift its if-then-else argument if possible. */
+  private Formula lift(FunctionDeclaration<?> pDeclaration, List<Formula> pArgs) {
+    if (isLiftable(pDeclaration.getKind())) {
+      int index = -1;
+      Application ite = null;
+      for (int i = 0; i < pArgs.size(); i++) {
+        Application candidate = getIte(pArgs.get(i));
+        if (candidate != null) {
+          if (ite != null) {
+            // several if-then-else arguments
+            ite = null;
+            break;
+          }
+          ite = candidate;
+          index = i;
+        }
+      }
+      if (ite != null) {
+        preprocessor.count("lifted if-then-else terms", 1);
+        List<Formula> thenArgs = new ArrayList<>(pArgs);
+        thenArgs.set(index, ite.arguments.get(1));
+        List<Formula> elseArgs = new ArrayList<>(pArgs);
+        elseArgs.set(index, ite.arguments.get(2));
+        return bfmgr.ifThenElse(
+            (BooleanFormula) ite.arguments.get(0),
+            lift(pDeclaration, thenArgs),
+            lift(pDeclaration, elseArgs));
+      }
+    }
+    return fmgr.makeApplication(pDeclaration, pArgs);
+  }
+
+  /** Returns the if-then-else term, if the formula is a non-Boolean if-then-else term. */
+  private @Nullable Application getIte(Formula pFormula) {
+    if (pFormula instanceof BooleanFormula) {
+      return null;
+    }
+    Application application = Preprocessor.getApplication(fmgr, pFormula);
+    if (application == null || application.getKind() != FunctionDeclarationKind.ITE) {
+      return null;
+    }
+    return application;
+  }
+
+  /** Boolean connectives and if-then-else terms themselves are not lifted over. */
+  private static boolean isLiftable(FunctionDeclarationKind pKind) {
+    switch (pKind) {
+      case AND:
+      case OR:
+      case NOT:
+      case IFF:
+      case XOR:
+      case IMPLIES:
+      case ITE:
+      case VAR:
+        return false;
+      default:
+        return true;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * Bottom-up transformation of a formula DAG with an explicit stack instead of recursion, such that
+ * deeply nested formulas do not overflow the Java stack.
+ *
+ * <p>Each key, e.g., a formula or a formula together with its polarity, is decomposed into a {@link
+ * Step}, i.e., the keys of its operands and a function that combines the results of the operands.
+ * The results are memoized per key, and each key is decomposed and combined at most once.
+ */
+final class IterativeTransformation {
+
+  private IterativeTransformation() {}
+
+  /** The operands of a key and the combination of their results. */
+  static final class Step<K> {
+
+    private final List<K> operands;
+    private final Function<List<BooleanFormula>, BooleanFormula> combination;
+
+    private Step(List<K> pOperands, Function<List<BooleanFormula>, BooleanFormula> pCombination) {
+      operands = pOperands;
+      combination = pCombination;
+    }
+  }
+
+  /** A step without operands, i.e., with a fixed result. */
+  static <K> Step<K> leaf(BooleanFormula pResult) {
+    return new Step<>(ImmutableList.of(), results -> pResult);
+  }
+
+  static <K> Step<K> step(
+      List<K> pOperands, Function<List<BooleanFormula>, BooleanFormula> pCombination) {
+    return new Step<>(pOperands, pCombination);
+  }
+
+  /**
+   * Transform the given key and all keys it depends on, and return its result. The results of all
+   * transformed keys are stored in the given memo, which may already contain results of previous
+   * transformations.
+   */
+  static <K> BooleanFormula apply(
+      K pRoot, Map<K, BooleanFormula> pMemo, Function<K, Step<K>> pDecomposition) {
+    Map<K, Step<K>> pending = new HashMap<>();
+    Deque<K> waitlist = new ArrayDeque<>();
+    waitlist.push(pRoot);
+    while (!waitlist.isEmpty()) {
+      K key = waitlist.peek();
+      if (pMemo.containsKey(key)) {
+        waitlist.pop();
+        continue;
+      }
+      Step<K> step = pending.get(key);
+      if (step == null) {
+        // first visit: the operands are transformed before the key itself
+        step = pDecomposition.apply(key);
+        pending.put(key, step);
+        for (K operand : step.operands) {
+          if (!pMemo.containsKey(operand)) {
+            waitlist.push(operand);
+          }
+        }
+        continue;
+      }
+      waitlist.pop();
+      pending.remove(key);
+      List<BooleanFormula> results = new ArrayList<>(step.operands.size());
+      for (K operand : step.operands) {
+        results.add(checkNotNull(pMemo.get(operand)));
+      }
+      pMemo.put(key, step.combination.apply(results));
+    }
+    return checkNotNull(pMemo.get(pRoot));
+  }
+}
@@ -0,0 +1,213 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import static org.sosy_lab.java_smt.basicimpl.tactics.IterativeTransformation.leaf;
+import static org.sosy_lab.java_smt.basicimpl.tactics.IterativeTransformation.step;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.IterativeTransformation.Step;
+
+/**
+ * Transformation of Boolean formulas into negation normal form (NNF) that is aware of shared
+ * subformulas.
+ *
+ * <p>Each subformula is transformed at most once per polarity, and the results are shared. Thus
+ * the result is a DAG whose size is linear in the size of the input DAG, even if equivalences,
+ * XORs and if-then-else terms require their operands in both polarities. In contrast to {@link
+ * NNFVisitor}, negations are pushed down during a single traversal, and quantifiers are flipped
+ * when they are negated. The traversal uses an explicit stack, such that deeply nested formulas
+ * do not overflow the Java stack.
+ *
+ * <p>The memo table is kept in the instance, such that formulas that share subformulas can be
+ * transformed by the same instance for reusing the results.
+ */
+public class NNFTransformer {
+
+  /** A subformula together with the polarity of its occurrence. */
+  private static final class Occurrence {
+
+    private final BooleanFormula formula;
+    private final boolean positive;
+
+    private Occurrence(BooleanFormula pFormula, boolean pPositive) {
+      formula = pFormula;
+      positive = pPositive;
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof Occurrence)) {
+        return false;
+      }
+      Occurrence other = (Occurrence) pOther;
+      return positive == other.positive && formula.equals(other.formula);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * formula.hashCode() + Boolean.hashCode(positive);
+    }
+  }
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+
+  /** The transformed formula for each occurrence, i.e., for each formula and polarity. */
+  private final Map<Occurrence, BooleanFormula> memo = new HashMap<>();
+
+  private final PolarityVisitor positiveVisitor = new PolarityVisitor(true);
+  private final PolarityVisitor negativeVisitor = new PolarityVisitor(false);
+
+  public NNFTransformer(FormulaManager pFmgr) {
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+  }
+
+  /** Return a formula in NNF that is equivalent to the given formula. */
+  public BooleanFormula apply(BooleanFormula pFormula) {
+    return IterativeTransformation.apply(
+        new Occurrence(pFormula, true),
+        memo,
+        occurrence ->
+            bfmgr.visit(
+                occurrence.formula, occurrence.positive ? positiveVisitor : negativeVisitor));
+  }
+
+  /**
+   * Decomposes an occurrence of a formula into the occurrences of its operands. The combination of
+   * their results is the NNF of the formula or, if the polarity is negative, of its negation.
+   */
+  private class PolarityVisitor implements BooleanFormulaVisitor<Step<Occurrence>> {
+
+    private final boolean positive;
+
+    private PolarityVisitor(boolean pPositive) {
+      positive = pPositive;
+    }
+
+    private Step<Occurrence> literal(BooleanFormula pAtom) {
+      return leaf(positive ? pAtom : bfmgr.not(pAtom));
+    }
+
+    /** A conjunction or disjunction, which is dualized for negative polarity. */
+    private Step<Occurrence> junction(List<BooleanFormula> pOperands, boolean pConjunction) {
+      List<Occurrence> operands = new ArrayList<>(pOperands.size());
+      for (BooleanFormula operand : pOperands) {
+        operands.add(new Occurrence(operand, positive));
+      }
+      return step(operands, pConjunction == positive ? bfmgr::and : bfmgr::or);
+    }
+
+    /** Both operands are equal for positive polarity, and distinct for negative polarity. */
+    private Step<Occurrence> equivalence(
+        BooleanFormula pOperand1, BooleanFormula pOperand2, boolean pPositive) {
+      return step(
+          ImmutableList.of(
+              new Occurrence(pOperand1, true),
+              new Occurrence(pOperand2, pPositive),
+              new Occurrence(pOperand1, false),
+              new Occurrence(pOperand2, !pPositive)),
+          r -> bfmgr.or(bfmgr.and(r.get(0), r.get(1)), bfmgr.and(r.get(2), r.get(3))));
+    }
+
+    @Override
+    public Step<Occurrence> visitConstant(boolean pValue) {
+      return leaf(bfmgr.makeBoolean(pValue == positive));
+    }
+
+    @Override
+    public Step<Occurrence> visitBoundVar(BooleanFormula pVar, int pDeBruijnIdx) {
+      return literal(pVar);
+    }
+
+    @Override
+    public Step<Occurrence> visitAtom(
+        BooleanFormula pAtom, FunctionDeclaration<BooleanFormula> pFuncDecl) {
+      return literal(pAtom);
+    }
+
+    @Override
+    public Step<Occurrence> visitNot(BooleanFormula pOperand) {
+      return step(ImmutableList.of(new Occurrence(pOperand, !positive)), r -> r.get(0));
+    }
+
+    @Override
+    public Step<Occurrence> visitAnd(List<BooleanFormula> pOperands) {
+      return junction(pOperands, true);
+    }
+
+    @Override
+    public Step<Occurrence> visitOr(List<BooleanFormula> pOperands) {
+      return junction(pOperands, false);
+    }
+
+    @Override
+    public Step<Occurrence> visitXor(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return equivalence(pOperand1, pOperand2, !positive);
+    }
+
+    @Override
+    public Step<Occurrence> visitEquivalence(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return equivalence(pOperand1, pOperand2, positive);
+    }
+
+    @Override
+    public Step<Occurrence> visitImplication(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return step(
+          ImmutableList.of(
+              new Occurrence(pOperand1, !positive), new Occurrence(pOperand2, positive)),
+          r -> positive ? bfmgr.or(r.get(0), r.get(1)) : bfmgr.and(r.get(0), r.get(1)));
+    }
+
+    @Override
+    public Step<Occurrence> visitIfThenElse(
+        BooleanFormula pCondition, BooleanFormula pThenFormula, BooleanFormula pElseFormula) {
+      return step(
+          ImmutableList.of(
+              new Occurrence(pCondition, true),
+              new Occurrence(pThenFormula, positive),
+              new Occurrence(pCondition, false),
+              new Occurrence(pElseFormula, positive)),
+          r -> bfmgr.or(bfmgr.and(r.get(0), r.get(1)), bfmgr.and(r.get(2), r.get(3))));
+    }
+
+    @Override
+    public Step<Occurrence> visitQuantifier(
+        Quantifier pQuantifier,
+        BooleanFormula pQuantifiedAST,
+        List<Formula> pBoundVars,
+        BooleanFormula pBody) {
+      Quantifier quantifier = pQuantifier;
+      if (!positive) {
+        quantifier = pQuantifier == Quantifier.FORALL ? Quantifier.EXISTS : Quantifier.FORALL;
+      }
+      QuantifiedFormulaManager qfmgr = fmgr.getQuantifiedFormulaManager();
+      Quantifier newQuantifier = quantifier;
+      return step(
+          ImmutableList.of(new Occurrence(pBody, positive)),
+          r -> qfmgr.mkQuantifier(newQuantifier, pBoundVars, r.get(0)));
+    }
+  }
+}
@@ -0,0 +1,250 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.Tactic;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Solver-independent preprocessing of formulas before they are passed to the solver.
+ *
+ * <p>The following passes are available as {@link Tactic}s and can be combined freely:
+ *
+ * <ul>
+ *   <li>{@link Tactic#CONSTANT_FOLDING} evaluates operations on constants and simplifies Boolean
+ *       connectives with constant operands,
+ *   <li>{@link Tactic#SOLVE_EQUALITIES} substitutes variables that are defined by a top-level
+ *       equality,
+ *   <li>{@link Tactic#ELIMINATE_UNCONSTRAINED} replaces terms over unconstrained variables by
+ *       fresh variables,
+ *   <li>{@link Tactic#LIFT_ITE} lifts if-then-else terms out of their enclosing terms,
+ *   <li>{@link Tactic#BOUNDED_VARIABLE_ELIMINATION} eliminates Boolean variables in top-level
+ *       clauses by resolution, if this does not increase the number of clauses,
+ *   <li>{@link Tactic#PREPROCESSING} applies all passes in sequence.
+ * </ul>
+ *
+ * <p>The results of each pass are memoized per input formula, and the simplified subterms of
+ * constant folding are shared by all passes of an instance. Each memo is cleared when it reaches
+ * {@link #MAX_MEMO_SIZE} entries, such that a long-living instance does not keep all formulas
+ * alive. The statistics contain the number of applications, memo hits and memo resets, together
+ * with the number of reductions of each pass. The accumulated size of the formula DAG before and
+ * after each pass is only collected on request, because it needs two additional traversals of the
+ * formula for each application. The statistics of the instance that is used by {@link
+ * FormulaManager#applyTactic} are available via {@link FormulaManager#getTacticStatistics()}.
+ */
+public class Preprocessor {
+
+  /** The passes of the {@link Tactic#PREPROCESSING} pipeline in their order. */
+  private static final ImmutableList<Tactic> PIPELINE =
+      ImmutableList.of(
+          Tactic.CONSTANT_FOLDING,
+          Tactic.SOLVE_EQUALITIES,
+          Tactic.LIFT_ITE,
+          Tactic.CONSTANT_FOLDING,
+          Tactic.ELIMINATE_UNCONSTRAINED,
+          Tactic.BOUNDED_VARIABLE_ELIMINATION);
+
+  /** The maximal number of entries of each memo before it is cleared. */
+  static final int MAX_MEMO_SIZE = 10_000;
+
+  private final FormulaManager fmgr;
+
+  private final ConstantFolder constantFolder;
+  private final EqualitySolver equalitySolver;
+  private final UnconstrainedEliminator unconstrainedEliminator;
+  private final IteLifter iteLifter;
+  private final BoundedVariableEliminator variableEliminator;
+
+  /** The result of each pass for each input formula. */
+  private final Map<Tactic, Map<BooleanFormula, BooleanFormula>> results =
+      new EnumMap<>(Tactic.class);
+
+  private final Map<String, Integer> statistics = new HashMap<>();
+
+  /** Whether the sizes of the input and output formula of each pass are counted. */
+  private final boolean collectSizes;
+
+  public Preprocessor(FormulaManager pFmgr) {
+    this(pFmgr, false);
+  }
+
+  /**
+   * Create a preprocessor, which optionally counts the sizes of the formulas before and after each
+   * pass in its statistics.
+   */
+  public Preprocessor(FormulaManager pFmgr, boolean pCollectSizes) {
+    fmgr = pFmgr;
+    collectSizes = pCollectSizes;
+    constantFolder = new ConstantFolder(pFmgr, this);
+    equalitySolver = new EqualitySolver(pFmgr, this);
+    unconstrainedEliminator = new UnconstrainedEliminator(pFmgr, this);
+    iteLifter = new IteLifter(pFmgr, this);
+    variableEliminator = new BoundedVariableEliminator(pFmgr, this);
+  }
+
+  /**
+   * Apply the given preprocessing pass to the formula.
+   *
+   * @throws IllegalArgumentException if the tactic is not a preprocessing pass.
+   */
+  public BooleanFormula apply(BooleanFormula pFormula, Tactic pTactic) {
+    if (pTactic == Tactic.PREPROCESSING) {
+      BooleanFormula result = pFormula;
+      for (Tactic pass : PIPELINE) {
+        result = apply(result, pass);
+      }
+      return result;
+    }
+
+    Map<BooleanFormula, BooleanFormula> memo =
+        results.computeIfAbsent(pTactic, k -> new HashMap<>());
+    BooleanFormula result = memo.get(pFormula);
+    if (result != null) {
+      count(pTactic + " memo hits", 1);
+      return result;
+    }
+    switch (pTactic) {
+      case CONSTANT_FOLDING:
+        result = constantFolder.apply(pFormula);
+        break;
+      case SOLVE_EQUALITIES:
+        result = equalitySolver.apply(pFormula);
+        break;
+      case ELIMINATE_UNCONSTRAINED:
+        result = unconstrainedEliminator.apply(pFormula);
+        break;
+      case LIFT_ITE:
+        result = iteLifter.apply(pFormula);
+        break;
+      case BOUNDED_VARIABLE_ELIMINATION:
+        result = variableEliminator.apply(pFormula);
+        break;
+      default:
+        throw new IllegalArgumentException("Tactic " + pTactic + " is no preprocessing pass");
+    }
+    if (memo.size() >= MAX_MEMO_SIZE) {
+      memo.clear();
+      count(pTactic + " memo resets", 1);
+    }
+    memo.put(pFormula, result);
+    count(pTactic + " applications", 1);
+    if (collectSizes) {
+      count(pTactic + " input size", size(pFormula));
+      count(pTactic + " output size", size(result));
+    }
+    return result;
+  }
+
+  /** Returns the statistics of all passes that were applied by this instance. */
+  public ImmutableMap<String, Number> getStatistics() {
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  /** Add the given number to a counter of the statistics. */
+  void count(String pKey, int pNumber) {
+    statistics.merge(pKey, pNumber, Integer::sum);
+  }
+
+  /** The number of nodes of the formula DAG. */
+  private int size(Formula pFormula) {
+    int[] size = new int[1];
+    fmgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            size[0]++;
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return size[0];
+  }
+
+  /** A function application, i.e., a function declaration with its arguments. */
+  static final class Application {
+    final FunctionDeclaration<?> declaration;
+    final List<Formula> arguments;
+
+    private Application(FunctionDeclaration<?> pDeclaration, List<Formula> pArguments) {
+      declaration = pDeclaration;
+      arguments = pArguments;
+    }
+
+    FunctionDeclarationKind getKind() {
+      return declaration.getKind();
+    }
+  }
+
+  private static final DefaultFormulaVisitor<@Nullable Application> APPLICATION_VISITOR =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected @Nullable Application visitDefault(Formula pF) {
+          return null;
+        }
+
+        @Override
+        public Application visitFunction(
+            Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+          return new Application(pFunctionDeclaration, pArgs);
+        }
+      };
+
+  private static final DefaultFormulaVisitor<Boolean> VARIABLE_VISITOR =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected Boolean visitDefault(Formula pF) {
+          return false;
+        }
+
+        @Override
+        public Boolean visitFreeVariable(Formula pF, String pName) {
+          return true;
+        }
+      };
+
+  private static final DefaultFormulaVisitor<Boolean> CONSTANT_VISITOR =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected Boolean visitDefault(Formula pF) {
+          return false;
+        }
+
+        @Override
+        public Boolean visitConstant(Formula pF, Object pValue) {
+          return true;
+        }
+      };
+
+  /** Returns the function application, or null for variables, constants and quantifiers. */
+  static @Nullable Application getApplication(FormulaManager pFmgr, Formula pFormula) {
+    return pFmgr.visit(pFormula, APPLICATION_VISITOR);
+  }
+
+  /** Returns whether the formula is a free variable (not an uninterpreted function). */
+  static boolean isFreeVariable(FormulaManager pFmgr, Formula pFormula) {
+    return pFmgr.visit(pFormula, VARIABLE_VISITOR);
+  }
+
+  static boolean isConstant(FormulaManager pFmgr, Formula pFormula) {
+    return pFmgr.visit(pFormula, CONSTANT_VISITOR);
+  }
+}
@@ -0,0 +1,424 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import static org.sosy_lab.java_smt.basicimpl.tactics.IterativeTransformation.leaf;
+import static org.sosy_lab.java_smt.basicimpl.tactics.IterativeTransformation.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.DefaultBooleanFormulaVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.IterativeTransformation.Step;
+
+/**
+ * Solver-independent transformation of Boolean formulas into an equisatisfiable CNF, based on the
+ * Tseitin encoding with the polarity optimization of Plaisted and Greenbaum.
+ *
+ * <p>Each Boolean connective is replaced by a gate, i.e., a fresh variable that is defined by
+ * clauses. Only the clauses for the polarities in which a gate occurs are added. Gates are
+ * hash-consed over their kind and their (unordered, if possible) input literals, such that
+ * structurally equal subformulas share a single gate.
+ *
+ * <p>An instance keeps its gates over several transformations. Thus the results of transforming
+ * overlapping formulas with the same instance use the same variables for shared subformulas, and
+ * can be conjoined without duplicating their definitions in the solver. Each result contains the
+ * definitions of all gates it uses. Quantified formulas are treated as atoms.
+ *
+ * <p>The gates and literals are dropped before a transformation once they reach {@link
+ * Preprocessor#MAX_MEMO_SIZE} entries, such that a long-living instance does not keep all
+ * transformed formulas alive. Later results then use fresh gates, which is sound because each
+ * result contains its own definitions.
+ */
+public class TseitinCNFTransformer {
+
+  private static final String PREFIX = "__TSEITIN_CNF_";
+  private static final UniqueIdGenerator ID_GENERATOR = new UniqueIdGenerator();
+
+  private enum GateKind {
+    AND,
+    OR,
+    EQUIVALENCE,
+    IF_THEN_ELSE
+  }
+
+  /** A fresh variable together with its definition. */
+  private static final class Gate {
+    private final GateKind kind;
+    private final BooleanFormula variable;
+    private final ImmutableList<BooleanFormula> inputs;
+
+    /** Clauses for positive and negative occurrences of the gate, computed on demand. */
+    private @Nullable List<BooleanFormula> positiveClauses;
+
+    private @Nullable List<BooleanFormula> negativeClauses;
+
+    private Gate(GateKind pKind, BooleanFormula pVariable, ImmutableList<BooleanFormula> pInputs) {
+      kind = pKind;
+      variable = pVariable;
+      inputs = pInputs;
+    }
+  }
+
+  private final BooleanFormulaManager bfmgr;
+
+  /** The literal that represents each transformed formula. */
+  private final Map<BooleanFormula, BooleanFormula> literals = new HashMap<>();
+
+  /** The gates by their structure, i.e., kind and inputs. */
+  private final Map<List<Object>, Gate> gates = new HashMap<>();
+
+  /** The gates by their variable. */
+  private final Map<BooleanFormula, Gate> gatesByVariable = new HashMap<>();
+
+  private final LiteralVisitor literalVisitor = new LiteralVisitor();
+
+  private final DefaultBooleanFormulaVisitor<BooleanFormula> negationVisitor =
+      new DefaultBooleanFormulaVisitor<>() {
+        @Override
+        protected @Nullable BooleanFormula visitDefault() {
+          return null;
+        }
+
+        @Override
+        public BooleanFormula visitNot(BooleanFormula pOperand) {
+          return pOperand;
+        }
+      };
+
+  public TseitinCNFTransformer(FormulaManager pFmgr) {
+    bfmgr = pFmgr.getBooleanFormulaManager();
+  }
+
+  /** Return a formula in CNF that is equisatisfiable to the given formula. */
+  public BooleanFormula apply(BooleanFormula pFormula) {
+    if (literals.size() >= Preprocessor.MAX_MEMO_SIZE
+        || gates.size() >= Preprocessor.MAX_MEMO_SIZE) {
+      literals.clear();
+      gates.clear();
+      gatesByVariable.clear();
+    }
+    Set<BooleanFormula> clauses = new LinkedHashSet<>();
+    Deque<BooleanFormula> positiveWaitlist = new ArrayDeque<>();
+    for (BooleanFormula conjunct : bfmgr.toConjunctionArgs(pFormula, true)) {
+      // top-level clauses do not need a gate
+      List<BooleanFormula> clause = new ArrayList<>();
+      boolean satisfied = false;
+      for (BooleanFormula disjunct : bfmgr.toDisjunctionArgs(conjunct, true)) {
+        BooleanFormula literal = toLiteral(disjunct);
+        if (bfmgr.isTrue(literal)) {
+          satisfied = true;
+          break;
+        } else if (!bfmgr.isFalse(literal)) {
+          clause.add(literal);
+        }
+      }
+      if (satisfied) {
+        continue;
+      } else if (clause.isEmpty()) {
+        return bfmgr.makeFalse();
+      }
+      positiveWaitlist.addAll(clause);
+      clauses.add(bfmgr.or(clause));
+    }
+    addDefinitions(positiveWaitlist, clauses);
+    return bfmgr.and(clauses);
+  }
+
+  /**
+   * Add the clauses of all gates that are reachable from the given literals, which occur
+   * positively.
+   */
+  private void addDefinitions(Deque<BooleanFormula> pLiterals, Set<BooleanFormula> pClauses) {
+    Set<Gate> positiveDone = new HashSet<>();
+    Set<Gate> negativeDone = new HashSet<>();
+    Deque<BooleanFormula> positiveWaitlist = pLiterals;
+    Deque<BooleanFormula> negativeWaitlist = new ArrayDeque<>();
+
+    while (!positiveWaitlist.isEmpty() || !negativeWaitlist.isEmpty()) {
+      boolean positive = !positiveWaitlist.isEmpty();
+      BooleanFormula literal = positive ? positiveWaitlist.pop() : negativeWaitlist.pop();
+      BooleanFormula variable = bfmgr.visit(literal, negationVisitor);
+      if (variable == null) {
+        variable = literal;
+      } else {
+        positive = !positive;
+      }
+      Gate gate = gatesByVariable.get(variable);
+      if (gate == null || !(positive ? positiveDone : negativeDone).add(gate)) {
+        continue;
+      }
+      pClauses.addAll(getClauses(gate, positive));
+
+      Deque<BooleanFormula> sameWaitlist = positive ? positiveWaitlist : negativeWaitlist;
+      Deque<BooleanFormula> otherWaitlist = positive ? negativeWaitlist : positiveWaitlist;
+      switch (gate.kind) {
+        case AND:
+        case OR:
+          sameWaitlist.addAll(gate.inputs);
+          break;
+        case EQUIVALENCE:
+          sameWaitlist.addAll(gate.inputs);
+          otherWaitlist.addAll(gate.inputs);
+          break;
+        case IF_THEN_ELSE:
+          sameWaitlist.addAll(gate.inputs);
+          otherWaitlist.add(gate.inputs.get(0));
+          break;
+        default:
+          throw new AssertionError("unexpected gate " + gate.kind);
+      }
+    }
+  }
+
+  private List<BooleanFormula> getClauses(Gate pGate, boolean pPositive) {
+    List<BooleanFormula> clauses = pPositive ? pGate.positiveClauses : pGate.negativeClauses;
+    if (clauses == null) {
+      clauses = computeClauses(pGate, pPositive);
+      if (pPositive) {
+        pGate.positiveClauses = clauses;
+      } else {
+        pGate.negativeClauses = clauses;
+      }
+    }
+    return clauses;
+  }
+
+  /**
+   * Compute the clauses for "gate implies definition" for positive polarity, and for "definition
+   * implies gate" for negative polarity.
+   */
+  private List<BooleanFormula> computeClauses(Gate pGate, boolean pPositive) {
+    BooleanFormula g = pPositive ? negate(pGate.variable) : pGate.variable;
+    List<BooleanFormula> in = pGate.inputs;
+    List<BooleanFormula> clauses = new ArrayList<>();
+    switch (pGate.kind) {
+      case AND:
+      case OR:
+        if (pPositive == (pGate.kind == GateKind.AND)) {
+          // one binary clause per input
+          for (BooleanFormula input : in) {
+            clauses.add(bfmgr.or(g, pPositive ? input : negate(input)));
+          }
+        } else {
+          // one clause with all inputs
+          List<BooleanFormula> clause = new ArrayList<>();
+          clause.add(g);
+          for (BooleanFormula input : in) {
+            clause.add(pPositive ? input : negate(input));
+          }
+          clauses.add(bfmgr.or(clause));
+        }
+        break;
+      case EQUIVALENCE:
+        BooleanFormula a = in.get(0);
+        BooleanFormula b = in.get(1);
+        if (pPositive) {
+          clauses.add(bfmgr.or(ImmutableList.of(g, negate(a), b)));
+          clauses.add(bfmgr.or(ImmutableList.of(g, a, negate(b))));
+        } else {
+          clauses.add(bfmgr.or(ImmutableList.of(g, a, b)));
+          clauses.add(bfmgr.or(ImmutableList.of(g, negate(a), negate(b))));
+        }
+        break;
+      case IF_THEN_ELSE:
+        BooleanFormula c = in.get(0);
+        BooleanFormula t = pPositive ? in.get(1) : negate(in.get(1));
+        BooleanFormula e = pPositive ? in.get(2) : negate(in.get(2));
+        clauses.add(bfmgr.or(ImmutableList.of(g, negate(c), t)));
+        clauses.add(bfmgr.or(ImmutableList.of(g, c, e)));
+        break;
+      default:
+        throw new AssertionError("unexpected gate " + pGate.kind);
+    }
+    return clauses;
+  }
+
+  private BooleanFormula negate(BooleanFormula pLiteral) {
+    if (bfmgr.isTrue(pLiteral)) {
+      return bfmgr.makeFalse();
+    } else if (bfmgr.isFalse(pLiteral)) {
+      return bfmgr.makeTrue();
+    }
+    BooleanFormula operand = bfmgr.visit(pLiteral, negationVisitor);
+    return operand == null ? bfmgr.not(pLiteral) : operand;
+  }
+
+  /**
+   * Return a literal, i.e., a constant, an atom, or a gate variable, or the negation of those. The
+   * subformulas are traversed with an explicit stack, such that deeply nested formulas do not
+   * overflow the Java stack.
+   */
+  private BooleanFormula toLiteral(BooleanFormula pFormula) {
+    return IterativeTransformation.apply(
+        pFormula, literals, formula -> bfmgr.visit(formula, literalVisitor));
+  }
+
+  /** Return the gate variable for the given structure, and create a new gate if necessary. */
+  private BooleanFormula getGate(
+      GateKind pKind, ImmutableList<BooleanFormula> pInputs, Object pStructure) {
+    List<Object> key = ImmutableList.of(pKind, pStructure);
+    Gate gate = gates.get(key);
+    if (gate == null) {
+      BooleanFormula variable = bfmgr.makeVariable(PREFIX + ID_GENERATOR.getFreshId());
+      gate = new Gate(pKind, variable, pInputs);
+      gates.put(key, gate);
+      gatesByVariable.put(variable, gate);
+    }
+    return gate.variable;
+  }
+
+  private BooleanFormula makeJunction(List<BooleanFormula> pLiterals, boolean pConjunction) {
+    // the neutral element is skipped, the absorbing element is returned
+    BooleanFormula neutral = bfmgr.makeBoolean(pConjunction);
+    Set<BooleanFormula> inputs = new LinkedHashSet<>();
+    for (BooleanFormula literal : pLiterals) {
+      if (bfmgr.isTrue(literal) || bfmgr.isFalse(literal)) {
+        if (!literal.equals(neutral)) {
+          return literal;
+        }
+      } else {
+        inputs.add(literal);
+      }
+    }
+    if (inputs.isEmpty()) {
+      return neutral;
+    } else if (inputs.size() == 1) {
+      return inputs.iterator().next();
+    }
+    ImmutableList<BooleanFormula> inputList = ImmutableList.copyOf(inputs);
+    return getGate(
+        pConjunction ? GateKind.AND : GateKind.OR, inputList, ImmutableMultiset.copyOf(inputList));
+  }
+
+  private BooleanFormula makeEquivalence(BooleanFormula pLiteral1, BooleanFormula pLiteral2) {
+    ImmutableList<BooleanFormula> inputs = ImmutableList.of(pLiteral1, pLiteral2);
+    return getGate(GateKind.EQUIVALENCE, inputs, ImmutableMultiset.copyOf(inputs));
+  }
+
+  private BooleanFormula makeEquivalenceLiteral(
+      BooleanFormula pLiteral1, BooleanFormula pLiteral2) {
+    if (pLiteral1.equals(pLiteral2)) {
+      return bfmgr.makeTrue();
+    } else if (bfmgr.isTrue(pLiteral1)) {
+      return pLiteral2;
+    } else if (bfmgr.isTrue(pLiteral2)) {
+      return pLiteral1;
+    } else if (bfmgr.isFalse(pLiteral1)) {
+      return negate(pLiteral2);
+    } else if (bfmgr.isFalse(pLiteral2)) {
+      return negate(pLiteral1);
+    }
+    return makeEquivalence(pLiteral1, pLiteral2);
+  }
+
+  private BooleanFormula makeIfThenElse(BooleanFormula c, BooleanFormula t, BooleanFormula e) {
+    if (bfmgr.isTrue(c) || t.equals(e)) {
+      return t;
+    } else if (bfmgr.isFalse(c)) {
+      return e;
+    }
+    ImmutableList<BooleanFormula> inputs = ImmutableList.of(c, t, e);
+    return getGate(GateKind.IF_THEN_ELSE, inputs, inputs);
+  }
+
+  /**
+   * Decomposes a formula into its operands. The combination of their literals is the literal of
+   * the formula.
+   */
+  private class LiteralVisitor implements BooleanFormulaVisitor<Step<BooleanFormula>> {
+
+    @Override
+    public Step<BooleanFormula> visitConstant(boolean pValue) {
+      return leaf(bfmgr.makeBoolean(pValue));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitBoundVar(BooleanFormula pVar, int pDeBruijnIdx) {
+      return leaf(pVar);
+    }
+
+    @Override
+    public Step<BooleanFormula> visitAtom(
+        BooleanFormula pAtom, FunctionDeclaration<BooleanFormula> pFuncDecl) {
+      return leaf(pAtom);
+    }
+
+    @Override
+    public Step<BooleanFormula> visitNot(BooleanFormula pOperand) {
+      return step(ImmutableList.of(pOperand), l -> negate(l.get(0)));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitAnd(List<BooleanFormula> pOperands) {
+      return step(pOperands, l -> makeJunction(l, true));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitOr(List<BooleanFormula> pOperands) {
+      return step(pOperands, l -> makeJunction(l, false));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitXor(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return step(
+          ImmutableList.of(pOperand1, pOperand2),
+          l -> negate(makeEquivalenceLiteral(l.get(0), l.get(1))));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitEquivalence(
+        BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return step(
+          ImmutableList.of(pOperand1, pOperand2), l -> makeEquivalenceLiteral(l.get(0), l.get(1)));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitImplication(
+        BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return step(
+          ImmutableList.of(pOperand1, pOperand2),
+          l -> makeJunction(ImmutableList.of(negate(l.get(0)), l.get(1)), false));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitIfThenElse(
+        BooleanFormula pCondition, BooleanFormula pThenFormula, BooleanFormula pElseFormula) {
+      return step(
+          ImmutableList.of(pCondition, pThenFormula, pElseFormula),
+          l -> makeIfThenElse(l.get(0), l.get(1), l.get(2)));
+    }
+
+    @Override
+    public Step<BooleanFormula> visitQuantifier(
+        Quantifier pQuantifier,
+        BooleanFormula pQuantifiedAST,
+        List<Formula> pBoundVars,
+        BooleanFormula pBody) {
+      return leaf(pQuantifiedAST);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Elimination of unconstrained terms: a variable is unconstrained if it occurs only once in the
+ * formula DAG. An application of an invertible function to an unconstrained variable, e.g., {@code
+ * x + t} or {@code x = t}, can take any value of its type, and is replaced by a fresh variable,
+ * which is again unconstrained if the replaced term occurred only once. Unconstrained Boolean
+ * variables as top-level conjuncts are removed.
+ *
+ * <p>The result is equisatisfiable to the input. Variables below quantifiers are never eliminated.
+ */
+final class UnconstrainedEliminator {
+
+  private static final String PREFIX = "__UNCONSTRAINED_";
+  private static final UniqueIdGenerator ID_GENERATOR = new UniqueIdGenerator();
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+  private final Preprocessor preprocessor;
+
+  UnconstrainedEliminator(FormulaManager pFmgr, Preprocessor pPreprocessor) {
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    preprocessor = pPreprocessor;
+  }
+
+  BooleanFormula apply(BooleanFormula pFormula) {
+    Map<Formula, Integer> occurrences = countOccurrences(pFormula);
+    Set<Formula> unconstrained = new HashSet<>();
+    occurrences.forEach(
+        (formula, count) -> {
+          if (count == 1 && Preprocessor.isFreeVariable(fmgr, formula)) {
+            unconstrained.add(formula);
+          }
+        });
+    if (unconstrained.isEmpty()) {
+      return pFormula;
+    }
+
+    BooleanFormula transformed =
+        fmgr.transformRecursively(
+            pFormula,
+            new FormulaTransformationVisitor(fmgr) {
+              @Override
+              public Formula visitFunction(
+                  Formula pF, List<Formula> pNewArgs, FunctionDeclaration<?> pDeclaration) {
+                if (!isInvertible(pF, pNewArgs, pDeclaration, unconstrained)) {
+                  return super.visitFunction(pF, pNewArgs, pDeclaration);
+                }
+                Formula fresh =
+                    fmgr.makeVariable(fmgr.getFormulaType(pF), PREFIX + ID_GENERATOR.getFreshId());
+                if (occurrences.getOrDefault(pF, 0) == 1) {
+                  unconstrained.add(fresh);
+                }
+                preprocessor.count("eliminated unconstrained terms", 1);
+                return fresh;
+              }
+            });
+
+    List<BooleanFormula> conjuncts = new ArrayList<>();
+    boolean changed = false;
+    for (BooleanFormula conjunct : bfmgr.toConjunctionArgs(transformed, false)) {
+      if (unconstrained.contains(conjunct)) {
+        changed = true;
+        preprocessor.count("eliminated unconstrained terms", 1);
+      } else {
+        conjuncts.add(conjunct);
+      }
+    }
+    return changed ? bfmgr.and(conjuncts) : transformed;
+  }
+
+  /**
+   * Returns whether the application has an unconstrained argument, and can take any value of its
+   * type for each value of the other arguments.
+   */
+  private boolean isInvertible(
+      Formula pF,
+      List<Formula> pArgs,
+      FunctionDeclaration<?> pDeclaration,
+      Set<Formula> pUnconstrained) {
+    // an unconstrained variable occurs only once, thus not twice in the same application
+    Formula variable = null;
+    for (Formula arg : pArgs) {
+      if (pUnconstrained.contains(arg)) {
+        variable = arg;
+        break;
+      }
+    }
+    if (variable == null) {
+      return false;
+    }
+    FormulaType<?> variableType = fmgr.getFormulaType(variable);
+    for (Formula arg : pArgs) {
+      if (!fmgr.getFormulaType(arg).equals(variableType)) {
+        return false;
+      }
+    }
+
+    switch (pDeclaration.getKind()) {
+      case NOT:
+      case XOR:
+      case IFF:
+      case UMINUS:
+      case ADD:
+      case SUB:
+      case BV_NOT:
+      case BV_NEG:
+      case BV_ADD:
+      case BV_SUB:
+      case BV_XOR:
+        // the result has the type of the variable, and each result is reached by some value
+        return fmgr.getFormulaType(pF).equals(variableType);
+      case EQ:
+      case BV_EQ:
+        // each type has at least two values
+        return pArgs.size() == 2;
+      case LT:
+      case LTE:
+      case GT:
+      case GTE:
+        // integers and rationals are unbounded
+        return pArgs.size() == 2 && (variableType.isIntegerType() || variableType.isRationalType());
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Count the occurrences of each formula as argument in the formula DAG. The formula itself counts
+   * as one occurrence. Free variables below quantifiers are excluded by counting them twice.
+   */
+  private Map<Formula, Integer> countOccurrences(BooleanFormula pFormula) {
+    Map<Formula, Integer> occurrences = new HashMap<>();
+    occurrences.put(pFormula, 1);
+    fmgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitFunction(
+              Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+            for (Formula arg : pArgs) {
+              occurrences.merge(arg, 1, Integer::sum);
+            }
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitQuantifier(
+              BooleanFormula pF,
+              Quantifier pQuantifier,
+              List<Formula> pBoundVariables,
+              BooleanFormula pBody) {
+            for (Formula variable : fmgr.extractVariables(pBody).values()) {
+              occurrences.merge(variable, 2, Integer::sum);
+            }
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return occurrences;
+  }
+}
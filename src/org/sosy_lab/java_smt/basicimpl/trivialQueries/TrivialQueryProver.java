@@ -0,0 +1,373 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.trivialQueries;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultBooleanFormulaVisitor;
+
+/**
+ * A {@link ProverEnvironment} that answers trivial satisfiability checks without calling the
+ * wrapped prover.
+ *
+ * <p>The conjuncts of all asserted constraints are tracked as literals. A check is trivially
+ * unsatisfiable if a conjunct is {@code false} or if a literal and its negation are asserted, and
+ * it is trivially satisfiable if all conjuncts are {@code true}. If unsat cores are requested, only
+ * satisfiable checks are answered directly. The solver is called lazily if a model is requested
+ * after a trivially answered check. For solvers without formula visitor, each constraint is kept
+ * as an opaque atom, thus only checks without constraints are answered directly.
+ */
+public class TrivialQueryProver implements ProverEnvironment {
+
+  private final ProverEnvironment delegate;
+  private final BooleanFormulaManager bmgr;
+
+  /** Whether unsatisfiable checks must be answered by the solver to provide unsat cores. */
+  private final boolean generateUnsatCores;
+
+  /** The literals of each level, i.e., atoms with their polarity. */
+  private final List<List<Literal>> levels = new ArrayList<>();
+
+  /** For each atom, the number of negative and positive occurrences. */
+  private final Map<BooleanFormula, int[]> occurrences = new HashMap<>();
+
+  /** Whether the solver supports visiting formulas, which is needed to split constraints. */
+  private boolean visitorSupported = true;
+
+  private int contradictions = 0;
+  private int falseConstraints = 0;
+  private int nonTrivialConstraints = 0;
+
+  /** Assumptions of a trivially answered check, which must be repeated by the solver if needed. */
+  private @Nullable Collection<BooleanFormula> pendingCheck = null;
+
+  private int checks = 0;
+  private int triviallySat = 0;
+  private int triviallyUnsat = 0;
+  private boolean closed = false;
+
+  public TrivialQueryProver(
+      ProverEnvironment pDelegate, BooleanFormulaManager pBmgr, boolean pGenerateUnsatCores) {
+    delegate = checkNotNull(pDelegate);
+    bmgr = checkNotNull(pBmgr);
+    generateUnsatCores = pGenerateUnsatCores;
+    levels.add(new ArrayList<>());
+  }
+
+  /** An atom with its polarity. The constants {@code true} and {@code false} have no atom. */
+  private static final class Literal {
+    private final @Nullable BooleanFormula atom;
+    private final boolean positive;
+
+    private Literal(@Nullable BooleanFormula pAtom, boolean pPositive) {
+      atom = pAtom;
+      positive = pPositive;
+    }
+  }
+
+  private final DefaultBooleanFormulaVisitor<BooleanFormula> negationVisitor =
+      new DefaultBooleanFormulaVisitor<>() {
+        @Override
+        protected @Nullable BooleanFormula visitDefault() {
+          return null;
+        }
+
+        @Override
+        public BooleanFormula visitNot(BooleanFormula pOperand) {
+          return pOperand;
+        }
+      };
+
+  private List<Literal> toLiterals(BooleanFormula pFormula) {
+    if (visitorSupported) {
+      try {
+        List<Literal> literals = new ArrayList<>();
+        for (BooleanFormula conjunct : bmgr.toConjunctionArgs(pFormula, true)) {
+          if (bmgr.isTrue(conjunct)) {
+            literals.add(new Literal(null, true));
+          } else if (bmgr.isFalse(conjunct)) {
+            literals.add(new Literal(null, false));
+          } else {
+            BooleanFormula negated = bmgr.visit(conjunct, negationVisitor);
+            literals.add(
+                negated == null ? new Literal(conjunct, true) : new Literal(negated, false));
+          }
+        }
+        return literals;
+      } catch (UnsupportedOperationException e) {
+        // e.g., Boolector can not visit formulas
+        visitorSupported = false;
+      }
+    }
+    // an opaque atom is never part of a contradiction, but prevents trivially satisfiable answers
+    return ImmutableList.of(new Literal(pFormula, true));
+  }
+
+  private int[] getOccurrences(BooleanFormula pAtom) {
+    return occurrences.computeIfAbsent(pAtom, k -> new int[2]);
+  }
+
+  private void addLiteral(Literal pLiteral) {
+    if (pLiteral.atom == null) {
+      if (!pLiteral.positive) {
+        falseConstraints++;
+      }
+      return;
+    }
+    nonTrivialConstraints++;
+    int[] counts = getOccurrences(pLiteral.atom);
+    int polarity = pLiteral.positive ? 1 : 0;
+    if (counts[polarity] == 0 && counts[1 - polarity] > 0) {
+      contradictions++;
+    }
+    counts[polarity]++;
+  }
+
+  private void removeLiteral(Literal pLiteral) {
+    if (pLiteral.atom == null) {
+      if (!pLiteral.positive) {
+        falseConstraints--;
+      }
+      return;
+    }
+    nonTrivialConstraints--;
+    int[] counts = occurrences.get(pLiteral.atom);
+    int polarity = pLiteral.positive ? 1 : 0;
+    counts[polarity]--;
+    if (counts[polarity] == 0 && counts[1 - polarity] > 0) {
+      contradictions--;
+    }
+    if (counts[0] == 0 && counts[1] == 0) {
+      occurrences.remove(pLiteral.atom);
+    }
+  }
+
+  /** Returns whether the stack together with the assumptions is trivially unsatisfiable. */
+  private boolean isTriviallyUnsat(Collection<BooleanFormula> pAssumptions) {
+    if (generateUnsatCores) {
+      return false;
+    }
+    if (falseConstraints > 0 || contradictions > 0) {
+      return true;
+    }
+    Map<BooleanFormula, Boolean> assumed = new HashMap<>();
+    for (BooleanFormula assumption : pAssumptions) {
+      for (Literal literal : toLiterals(assumption)) {
+        if (literal.atom == null) {
+          if (!literal.positive) {
+            return true;
+          }
+          continue;
+        }
+        int[] counts = occurrences.get(literal.atom);
+        if (counts != null && counts[literal.positive ? 0 : 1] > 0) {
+          return true;
+        }
+        Boolean previous = assumed.put(literal.atom, literal.positive);
+        if (previous != null && previous != literal.positive) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean isTriviallySat(Collection<BooleanFormula> pAssumptions) {
+    if (nonTrivialConstraints > 0 || falseConstraints > 0) {
+      return false;
+    }
+    for (BooleanFormula assumption : pAssumptions) {
+      if (!bmgr.isTrue(assumption)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Answer the check directly if it is trivial, and return null otherwise. After a trivial answer,
+   * the check is repeated by the solver if the solver state is needed.
+   */
+  private @Nullable Boolean checkTrivially(Collection<BooleanFormula> pAssumptions) {
+    checkState(!closed);
+    checks++;
+    pendingCheck = null;
+    if (isTriviallyUnsat(pAssumptions)) {
+      triviallyUnsat++;
+      pendingCheck = ImmutableList.copyOf(pAssumptions);
+      return true;
+    } else if (isTriviallySat(pAssumptions)) {
+      triviallySat++;
+      pendingCheck = ImmutableList.copyOf(pAssumptions);
+      return false;
+    }
+    return null;
+  }
+
+  /** Repeat a trivially answered check with the solver. */
+  private void checkPending() throws SolverException {
+    Collection<BooleanFormula> assumptions = pendingCheck;
+    if (assumptions == null) {
+      return;
+    }
+    pendingCheck = null;
+    try {
+      delegate.isUnsatWithAssumptions(assumptions);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SolverException("Interrupted while repeating a trivial check", e);
+    }
+  }
+
+  @Override
+  public void push() {
+    checkState(!closed);
+    pendingCheck = null;
+    delegate.push();
+    levels.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    checkState(!closed);
+    checkState(levels.size() > 1);
+    pendingCheck = null;
+    delegate.pop();
+    for (Literal literal : levels.remove(levels.size() - 1)) {
+      removeLiteral(literal);
+    }
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    checkState(!closed);
+    pendingCheck = null;
+    delegate.addConstraint(pConstraint);
+    List<Literal> literals = toLiterals(pConstraint);
+    for (Literal literal : literals) {
+      addLiteral(literal);
+    }
+    levels.get(levels.size() - 1).addAll(literals);
+    return null;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    Boolean result = checkTrivially(ImmutableList.of());
+    return result != null ? result : delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    Boolean result = checkTrivially(pAssumptions);
+    return result != null ? result : delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    Boolean result = checkTrivially(ImmutableList.of());
+    return result != null ? Optional.of(result) : delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    Boolean result = checkTrivially(pAssumptions);
+    return result != null
+        ? Optional.of(result)
+        : delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    checkState(!closed);
+    pendingCheck = null;
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkState(!closed);
+    checkPending();
+    return delegate.getModel();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    checkState(!closed);
+    checkPending();
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkState(!closed);
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    checkState(!closed);
+    pendingCheck = null;
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Map<String, Number> statistics = new HashMap<>(delegate.getStatistics());
+    statistics.put("checks for trivial queries", checks);
+    statistics.put("trivially satisfiable checks", triviallySat);
+    statistics.put("trivially unsatisfiable checks", triviallyUnsat);
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    checkState(!closed);
+    pendingCheck = null;
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      levels.clear();
+      occurrences.clear();
+      delegate.close();
+    }
+  }
+}
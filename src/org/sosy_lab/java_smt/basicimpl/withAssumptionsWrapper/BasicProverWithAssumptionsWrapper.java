@@ -9,6 +9,8 @@
 package org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -70,6 +72,36 @@ public class BasicProverWithAssumptionsWrapper<T, P extends BasicProverEnvironme
     return delegate.isUnsat();
   }
 
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    clearAssumptions();
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> assumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    clearAssumptions();
+    solverAssumptionsAsFormula.addAll(assumptions);
+    for (BooleanFormula formula : assumptions) {
+      registerPushedFormula(delegate.push(formula));
+    }
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    clearAssumptions();
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
   /** overridden in sub-class. */
   protected void registerPushedFormula(@SuppressWarnings("unused") T pPushResult) {}
 
@@ -101,6 +133,11 @@ public class BasicProverWithAssumptionsWrapper<T, P extends BasicProverEnvironme
     //    }
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    return delegate.getStatistics();
+  }
+
   @Override
   public void close() {
     delegate.close();
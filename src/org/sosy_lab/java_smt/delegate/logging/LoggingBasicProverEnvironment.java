@@ -11,6 +11,8 @@ package org.sosy_lab.java_smt.delegate.logging;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -75,6 +77,39 @@ class LoggingBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
     return result;
   }
 
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    logger.log(Level.FINE, "timeout:", pTimeout);
+    Optional<Boolean> result = wrapped.isUnsat(pTimeout);
+    logger.log(Level.FINE, "unsat-check returned:", result);
+    return result;
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    logger.log(Level.FINE, "assumptions:", pAssumptions, "timeout:", pTimeout);
+    Optional<Boolean> result = wrapped.isUnsatWithAssumptions(pAssumptions, pTimeout);
+    logger.log(Level.FINE, "unsat-check returned:", result);
+    return result;
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    logger.log(Level.FINE, "resource limit:", pResourceLimit);
+    Optional<Boolean> result = wrapped.isUnsatWithResourceLimit(pResourceLimit);
+    logger.log(Level.FINE, "unsat-check returned:", result);
+    logger.log(Level.FINER, "consumed resources:", wrapped.getConsumedResources());
+    return result;
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return wrapped.getConsumedResources();
+  }
+
   @Override
   public Model getModel() throws SolverException {
     Model m = wrapped.getModel();
@@ -104,6 +139,13 @@ class LoggingBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
     return result;
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    ImmutableMap<String, Number> statistics = wrapped.getStatistics();
+    logger.log(Level.FINER, "statistics:", statistics);
+    return statistics;
+  }
+
   @Override
   public void close() {
     wrapped.close();
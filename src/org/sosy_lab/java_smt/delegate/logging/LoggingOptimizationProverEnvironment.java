@@ -10,8 +10,10 @@ package org.sosy_lab.java_smt.delegate.logging;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import java.util.Optional;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.Formula;
@@ -48,6 +50,21 @@ class LoggingOptimizationProverEnvironment extends LoggingBasicProverEnvironment
     return result;
   }
 
+  @Override
+  public OptStatus check(ObjectivePriority priority)
+      throws InterruptedException, SolverException {
+    OptStatus result = wrapped.check(priority);
+    logger.log(Level.FINE, "optimization with priority", priority, "returned", result);
+    return result;
+  }
+
+  @Override
+  public Stream<ImmutableList<Rational>> paretoFront() {
+    logger.log(Level.FINE, "enumerating Pareto front");
+    return wrapped.paretoFront()
+        .peek(point -> logger.log(Level.FINE, "Pareto front contains", point));
+  }
+
   @Override
   public Optional<Rational> upper(int handle, Rational epsilon) {
     return wrapped.upper(handle, epsilon);
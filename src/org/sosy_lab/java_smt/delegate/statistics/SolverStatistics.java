@@ -8,6 +8,9 @@
 
 package org.sosy_lab.java_smt.delegate.statistics;
 
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.sosy_lab.common.time.TimeSpan;
 
@@ -41,8 +44,37 @@ public class SolverStatistics {
   final AtomicInteger modelEvaluations = new AtomicInteger();
   final AtomicInteger modelListings = new AtomicInteger();
 
+  // native solver statistics, summed up over the most recent values of each prover
+  private final Map<String, Number> nativeStatistics = new LinkedHashMap<>();
+
   SolverStatistics() {}
 
+  /** Replace the previous native statistics of a prover with its current ones. */
+  synchronized void updateNativeStatistics(
+      Map<String, Number> previous, Map<String, Number> current) {
+    previous.forEach(
+        (key, value) -> nativeStatistics.merge(key, negate(value), SolverStatistics::add));
+    current.forEach((key, value) -> nativeStatistics.merge(key, value, SolverStatistics::add));
+  }
+
+  private static Number add(Number a, Number b) {
+    if (isIntegral(a) && isIntegral(b)) {
+      return a.longValue() + b.longValue();
+    }
+    return a.doubleValue() + b.doubleValue();
+  }
+
+  private static Number negate(Number n) {
+    if (isIntegral(n)) {
+      return -n.longValue();
+    }
+    return -n.doubleValue();
+  }
+
+  private static boolean isIntegral(Number n) {
+    return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+  }
+
   // visible access methods
   public int getNumberOfProverEnvironments() {
     return provers.get();
@@ -147,4 +179,13 @@ public class SolverStatistics {
   public int getNumberOfModelListings() {
     return modelListings.get();
   }
+
+  /**
+   * Returns the statistics reported by the native solvers, see {@link
+   * org.sosy_lab.java_smt.api.BasicProverEnvironment#getStatistics()}. Each value is the sum over
+   * the most recent values of all prover environments.
+   */
+  public synchronized ImmutableMap<String, Number> getNativeStatistics() {
+    return ImmutableMap.copyOf(nativeStatistics);
+  }
 }
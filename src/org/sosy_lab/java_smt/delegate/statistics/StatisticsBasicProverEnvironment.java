@@ -10,6 +10,8 @@ package org.sosy_lab.java_smt.delegate.statistics;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +28,7 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
   final SolverStatistics stats;
   final TimerWrapper unsatTimer;
   private final TimerWrapper allSatTimer;
+  private ImmutableMap<String, Number> nativeStatistics = ImmutableMap.of();
 
   StatisticsBasicProverEnvironment(BasicProverEnvironment<T> pDelegate, SolverStatistics pStats) {
     delegate = checkNotNull(pDelegate);
@@ -55,23 +58,88 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
 
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
+    boolean result;
     unsatTimer.start();
     try {
-      return delegate.isUnsat();
+      result = delegate.isUnsat();
     } finally {
       unsatTimer.stop();
     }
+    updateNativeStatistics();
+    return result;
   }
 
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
+    boolean result;
     unsatTimer.start();
     try {
-      return delegate.isUnsatWithAssumptions(pAssumptions);
+      result = delegate.isUnsatWithAssumptions(pAssumptions);
     } finally {
       unsatTimer.stop();
     }
+    updateNativeStatistics();
+    return result;
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    Optional<Boolean> result;
+    unsatTimer.start();
+    try {
+      result = delegate.isUnsat(pTimeout);
+    } finally {
+      unsatTimer.stop();
+    }
+    updateNativeStatistics();
+    return result;
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    Optional<Boolean> result;
+    unsatTimer.start();
+    try {
+      result = delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+    } finally {
+      unsatTimer.stop();
+    }
+    updateNativeStatistics();
+    return result;
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    Optional<Boolean> result;
+    unsatTimer.start();
+    try {
+      result = delegate.isUnsatWithResourceLimit(pResourceLimit);
+    } finally {
+      unsatTimer.stop();
+    }
+    updateNativeStatistics();
+    return result;
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
+  /** collect the native statistics of the delegate after a satisfiability check. */
+  void updateNativeStatistics() {
+    ImmutableMap<String, Number> current = delegate.getStatistics();
+    stats.updateNativeStatistics(nativeStatistics, current);
+    nativeStatistics = current;
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    return delegate.getStatistics();
   }
 
   @SuppressWarnings("resource")
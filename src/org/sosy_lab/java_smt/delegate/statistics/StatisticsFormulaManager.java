@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.delegate.statistics;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +136,11 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.applyTactic(pInput, pTactic);
   }
 
+  @Override
+  public ImmutableMap<String, Number> getTacticStatistics() {
+    return delegate.getTacticStatistics();
+  }
+
   @Override
   public <T extends Formula> T simplify(T pInput) throws InterruptedException {
     return delegate.simplify(pInput);
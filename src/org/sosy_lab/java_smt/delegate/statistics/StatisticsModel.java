@@ -12,6 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -67,12 +71,54 @@ class StatisticsModel implements Model {
     return delegate.evaluate(pF);
   }
 
+  @Override
+  public long evaluateAsLong(IntegerFormula pF) {
+    stats.modelEvaluations.getAndIncrement();
+    return delegate.evaluateAsLong(pF);
+  }
+
+  @Override
+  public long evaluateAsLong(BitvectorFormula pF) {
+    stats.modelEvaluations.getAndIncrement();
+    return delegate.evaluateAsLong(pF);
+  }
+
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    stats.modelEvaluations.getAndAdd(pFormulas.size());
+    return delegate.evaluateAll(pFormulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     stats.modelListings.getAndIncrement();
     return delegate.asList();
   }
 
+  @Override
+  public Stream<ValueAssignment> stream() {
+    stats.modelListings.getAndIncrement();
+    return delegate.stream();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    stats.modelEvaluations.getAndIncrement();
+    return delegate.getAssignments(pName);
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(Set<String> pNames) {
+    stats.modelEvaluations.getAndIncrement();
+    return delegate.getAssignments(pNames);
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignmentsForKeys(Collection<? extends Formula> pKeys) {
+    stats.modelEvaluations.getAndIncrement();
+    return delegate.getAssignmentsForKeys(pKeys);
+  }
+
   @Override
   public void close() {
     delegate.close();
@@ -8,7 +8,9 @@
 
 package org.sosy_lab.java_smt.delegate.statistics;
 
+import com.google.common.collect.ImmutableList;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
@@ -37,12 +39,34 @@ class StatisticsOptimizationProverEnvironment extends StatisticsBasicProverEnvir
 
   @Override
   public OptStatus check() throws InterruptedException, SolverException {
+    OptStatus result;
     unsatTimer.start();
     try {
-      return delegate.check();
+      result = delegate.check();
     } finally {
       unsatTimer.stop();
     }
+    updateNativeStatistics();
+    return result;
+  }
+
+  @Override
+  public OptStatus check(ObjectivePriority pPriority)
+      throws InterruptedException, SolverException {
+    OptStatus result;
+    unsatTimer.start();
+    try {
+      result = delegate.check(pPriority);
+    } finally {
+      unsatTimer.stop();
+    }
+    updateNativeStatistics();
+    return result;
+  }
+
+  @Override
+  public Stream<ImmutableList<Rational>> paretoFront() {
+    return delegate.paretoFront();
   }
 
   @Override
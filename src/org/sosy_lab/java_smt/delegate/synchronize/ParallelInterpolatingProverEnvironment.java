@@ -0,0 +1,447 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * An interpolating prover that replicates all constraints into several interpolating provers from
+ * separate contexts and computes the interpolants of a sequence concurrently.
+ *
+ * <p>All queries except sequence interpolation are answered by the first replica. For sequence
+ * interpolation, the cut points are split into contiguous chunks, and each chunk is computed from
+ * the proof of its own replica. Interpolants from different proofs need not form an inductive
+ * sequence, thus we check inductiveness at the chunk boundaries afterwards and recompute the
+ * interpolants that violate it. Constraints that are not part of any partition belong to the
+ * B-part of every cut point, as for {@link #getInterpolant}.
+ *
+ * <p>The replicas need a proof of their own, thus each replica is checked at most once per state of
+ * the assertion stack. The primary replica reuses the result of the last check.
+ */
+class ParallelInterpolatingProverEnvironment implements InterpolatingProverEnvironment<Integer> {
+
+  private final List<InterpolatingProverEnvironment<?>> replicas;
+  private final List<SolverContext> replicaContexts;
+  private final SolverContext sync;
+  private final BooleanFormulaManager bmgr;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ExecutorService executor;
+
+  /** For each constraint, the asserted formula. The index is the handle of the constraint. */
+  private final List<BooleanFormula> constraints = new ArrayList<>();
+
+  /** For each constraint, the handles in all replicas. */
+  private final List<List<Object>> replicaHandles = new ArrayList<>();
+
+  /** For each level of the stack, the first handle on this level. */
+  private final Deque<Integer> levels = new ArrayDeque<>();
+
+  /**
+   * Whether each replica was found unsatisfiable since the last change of the assertion stack. The
+   * entry of the primary replica is the result of the last check. Each entry is only accessed by
+   * the task of its replica, or while no task is running.
+   */
+  private final boolean[] replicaChecked;
+
+  ParallelInterpolatingProverEnvironment(
+      List<InterpolatingProverEnvironment<?>> pReplicas,
+      List<SolverContext> pReplicaContexts,
+      SolverContext pSync,
+      FormulaManager pManager,
+      ShutdownNotifier pShutdownNotifier) {
+    checkArgument(!pReplicas.isEmpty(), "at least one replica is required");
+    replicas = ImmutableList.copyOf(pReplicas);
+    replicaContexts = ImmutableList.copyOf(pReplicaContexts);
+    sync = checkNotNull(pSync);
+    bmgr = pManager.getBooleanFormulaManager();
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    replicaChecked = new boolean[replicas.size()];
+    executor =
+        Executors.newFixedThreadPool(
+            replicas.size(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("JavaSMT parallel interpolation %d")
+                .build());
+  }
+
+  private InterpolatingProverEnvironment<?> primary() {
+    return replicas.get(0);
+  }
+
+  private void resetChecks() {
+    Arrays.fill(replicaChecked, false);
+  }
+
+  @Override
+  public void push() {
+    resetChecks();
+    for (InterpolatingProverEnvironment<?> replica : replicas) {
+      replica.push();
+    }
+    levels.push(constraints.size());
+  }
+
+  @Override
+  public void pop() {
+    checkState(!levels.isEmpty(), "cannot pop from empty stack");
+    resetChecks();
+    for (InterpolatingProverEnvironment<?> replica : replicas) {
+      replica.pop();
+    }
+    // constraints of the popped level are always the most recent ones
+    int firstHandle = levels.pop();
+    constraints.subList(firstHandle, constraints.size()).clear();
+    replicaHandles.subList(firstHandle, replicaHandles.size()).clear();
+  }
+
+  @Override
+  public Integer addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    resetChecks();
+    List<Object> handles = new ArrayList<>(replicas.size());
+    for (InterpolatingProverEnvironment<?> replica : replicas) {
+      handles.add(replica.addConstraint(pConstraint));
+    }
+    constraints.add(pConstraint);
+    replicaHandles.add(handles);
+    return constraints.size() - 1;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    resetChecks();
+    boolean unsat = primary().isUnsat();
+    replicaChecked[0] = unsat;
+    return unsat;
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    resetChecks();
+    return primary().isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    resetChecks();
+    return primary().isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    resetChecks();
+    return primary().isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    resetChecks();
+    return primary().isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return primary().getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return primary().getModel();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return primary().getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    resetChecks();
+    return primary().unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    return primary().getStatistics();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    resetChecks();
+    return primary().allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public BooleanFormula getInterpolant(Collection<Integer> pFormulasOfA)
+      throws SolverException, InterruptedException {
+    return getInterpolant(primary(), getHandles(0, pFormulasOfA));
+  }
+
+  @Override
+  public List<BooleanFormula> getTreeInterpolants(
+      List<? extends Collection<Integer>> pPartitionedFormulas, int[] pStartOfSubTree)
+      throws SolverException, InterruptedException {
+    return getTreeInterpolants(primary(), getHandles(0, pPartitionedFormulas), pStartOfSubTree);
+  }
+
+  @Override
+  public List<BooleanFormula> getSeqInterpolants(
+      List<? extends Collection<Integer>> pPartitionedFormulas)
+      throws SolverException, InterruptedException {
+    checkArgument(!pPartitionedFormulas.isEmpty(), "at least one partition should be available.");
+    shutdownNotifier.shutdownIfNecessary();
+    final int numOfCuts = pPartitionedFormulas.size() - 1;
+    final int numOfChunks = Math.min(replicas.size(), numOfCuts);
+    if (numOfChunks <= 1) {
+      return getSeqInterpolants(primary(), getHandles(0, pPartitionedFormulas));
+    }
+
+    // compute the chunks of cut points concurrently, one replica per chunk
+    final int[] chunkStarts = new int[numOfChunks + 1];
+    for (int chunk = 0; chunk <= numOfChunks; chunk++) {
+      chunkStarts[chunk] = chunk * numOfCuts / numOfChunks;
+    }
+    List<Future<List<BooleanFormula>>> futures = new ArrayList<>(numOfChunks);
+    List<BooleanFormula> itps = new ArrayList<>(numOfCuts);
+    try {
+      for (int chunk = 0; chunk < numOfChunks; chunk++) {
+        final int replica = chunk;
+        futures.add(
+            executor.submit(
+                () ->
+                    computeChunk(
+                        replica,
+                        pPartitionedFormulas,
+                        chunkStarts[replica],
+                        chunkStarts[replica + 1])));
+      }
+      for (Future<List<BooleanFormula>> future : futures) {
+        itps.addAll(getResult(future));
+      }
+    } finally {
+      // The replicas must not be used concurrently after returning, thus we wait for all tasks.
+      // A shutdown request stops them at the next cut point.
+      for (Future<List<BooleanFormula>> future : futures) {
+        try {
+          Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+          // already reported by getResult, or irrelevant after another failure
+        }
+      }
+    }
+
+    restoreInductiveness(pPartitionedFormulas, itps, chunkStarts);
+    return itps;
+  }
+
+  /** Compute the interpolants for the cut points {@code [from, to)} with the given replica. */
+  private List<BooleanFormula> computeChunk(
+      int pReplica, List<? extends Collection<Integer>> pPartitions, int pFrom, int pTo)
+      throws SolverException, InterruptedException {
+    InterpolatingProverEnvironment<?> replica = replicas.get(pReplica);
+    if (!replicaChecked[pReplica]) {
+      if (!replica.isUnsat()) {
+        throw new SolverException("replicated interpolation problem is satisfiable");
+      }
+      replicaChecked[pReplica] = true;
+    }
+    List<Object> handlesOfA = new ArrayList<>();
+    for (int i = 0; i < pFrom; i++) {
+      handlesOfA.addAll(getHandles(pReplica, pPartitions.get(i)));
+    }
+    List<BooleanFormula> itps = new ArrayList<>(pTo - pFrom);
+    for (int i = pFrom; i < pTo; i++) {
+      shutdownNotifier.shutdownIfNecessary();
+      handlesOfA.addAll(getHandles(pReplica, pPartitions.get(i)));
+      itps.add(getInterpolant(replica, handlesOfA));
+    }
+    return itps;
+  }
+
+  /**
+   * Check the implication {@code AND(I_(i-1), P_i) => I_i} at the start of each chunk, and replace
+   * violating interpolants by an interpolant of {@code AND(I_(i-1), P_i)} and the remaining
+   * partitions together with the background constraints. A replaced interpolant requires checking
+   * the next cut point, too.
+   *
+   * <p>The background constraints belong to the B-part of each cut point and must not be used as
+   * premise of the implication, otherwise the result is no valid interpolation sequence.
+   */
+  private void restoreInductiveness(
+      List<? extends Collection<Integer>> pPartitions, List<BooleanFormula> itps, int[] chunkStarts)
+      throws SolverException, InterruptedException {
+    Set<Integer> partitioned = new HashSet<>();
+    pPartitions.forEach(partitioned::addAll);
+    List<BooleanFormula> background = new ArrayList<>();
+    for (int handle = 0; handle < constraints.size(); handle++) {
+      if (!partitioned.contains(handle)) {
+        background.add(constraints.get(handle));
+      }
+    }
+    Set<Integer> chunkBoundaries = new HashSet<>();
+    for (int i = 1; i < chunkStarts.length - 1; i++) {
+      chunkBoundaries.add(chunkStarts[i]);
+    }
+
+    synchronized (sync) {
+      boolean previousReplaced = false;
+      for (int i = 1; i < itps.size(); i++) {
+        if (!previousReplaced && !chunkBoundaries.contains(i)) {
+          continue;
+        }
+        shutdownNotifier.shutdownIfNecessary();
+        BooleanFormula a = bmgr.and(itps.get(i - 1), conjunction(pPartitions.get(i)));
+        previousReplaced = !implies(a, itps.get(i));
+        if (previousReplaced) {
+          List<BooleanFormula> b = new ArrayList<>(background);
+          for (int j = i + 1; j < pPartitions.size(); j++) {
+            b.add(conjunction(pPartitions.get(j)));
+          }
+          itps.set(i, computeInterpolant(a, bmgr.and(b)));
+        }
+      }
+    }
+  }
+
+  private BooleanFormula conjunction(Collection<Integer> pHandles) {
+    List<BooleanFormula> formulas = new ArrayList<>(pHandles.size());
+    for (int handle : pHandles) {
+      formulas.add(constraints.get(handle));
+    }
+    return bmgr.and(formulas);
+  }
+
+  private boolean implies(BooleanFormula pPremise, BooleanFormula pConclusion)
+      throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = sync.newProverEnvironment()) {
+      prover.push(bmgr.and(pPremise, bmgr.not(pConclusion)));
+      return prover.isUnsat();
+    }
+  }
+
+  private BooleanFormula computeInterpolant(BooleanFormula pA, BooleanFormula pB)
+      throws SolverException, InterruptedException {
+    try (InterpolatingProverEnvironment<?> prover = sync.newProverEnvironmentWithInterpolation()) {
+      return computeInterpolant(prover, pA, pB);
+    }
+  }
+
+  private static <T> BooleanFormula computeInterpolant(
+      InterpolatingProverEnvironment<T> pProver, BooleanFormula pA, BooleanFormula pB)
+      throws SolverException, InterruptedException {
+    T handleOfA = pProver.push(pA);
+    pProver.push(pB);
+    if (!pProver.isUnsat()) {
+      throw new SolverException("interpolants of the replicas are not valid");
+    }
+    return pProver.getInterpolant(ImmutableList.of(handleOfA));
+  }
+
+  private List<Object> getHandles(int pReplica, Collection<Integer> pHandles) {
+    List<Object> handles = new ArrayList<>(pHandles.size());
+    for (int handle : pHandles) {
+      handles.add(replicaHandles.get(handle).get(pReplica));
+    }
+    return handles;
+  }
+
+  private List<List<Object>> getHandles(
+      int pReplica, List<? extends Collection<Integer>> pPartitions) {
+    List<List<Object>> partitions = new ArrayList<>(pPartitions.size());
+    for (Collection<Integer> partition : pPartitions) {
+      partitions.add(getHandles(pReplica, partition));
+    }
+    return partitions;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> BooleanFormula getInterpolant(
+      InterpolatingProverEnvironment<T> pProver, List<Object> pHandles)
+      throws SolverException, InterruptedException {
+    return pProver.getInterpolant((List<T>) pHandles);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<BooleanFormula> getSeqInterpolants(
+      InterpolatingProverEnvironment<T> pProver, List<List<Object>> pPartitions)
+      throws SolverException, InterruptedException {
+    return pProver.getSeqInterpolants((List<List<T>>) (List<?>) pPartitions);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<BooleanFormula> getTreeInterpolants(
+      InterpolatingProverEnvironment<T> pProver,
+      List<List<Object>> pPartitions,
+      int[] pStartOfSubTree)
+      throws SolverException, InterruptedException {
+    return pProver.getTreeInterpolants((List<List<T>>) (List<?>) pPartitions, pStartOfSubTree);
+  }
+
+  private static <R> R getResult(Future<R> pFuture) throws SolverException, InterruptedException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, SolverException.class);
+      Throwables.throwIfInstanceOf(cause, InterruptedException.class);
+      Throwables.throwIfUnchecked(cause);
+      throw new SolverException("parallel interpolation failed", cause);
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    for (InterpolatingProverEnvironment<?> replica : replicas) {
+      replica.close();
+    }
+    synchronized (sync) {
+      for (SolverContext context : replicaContexts) {
+        context.close();
+      }
+    }
+  }
+}
@@ -10,6 +10,8 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -66,6 +68,37 @@ class SynchronizedBasicProverEnvironment<T> implements BasicProverEnvironment<T>
     }
   }
 
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    synchronized (sync) {
+      return delegate.isUnsat(pTimeout);
+    }
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    synchronized (sync) {
+      return delegate.isUnsatWithAssumptions(pAssumptions, pTimeout);
+    }
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    synchronized (sync) {
+      return delegate.isUnsatWithResourceLimit(pResourceLimit);
+    }
+  }
+
+  @Override
+  public long getConsumedResources() {
+    synchronized (sync) {
+      return delegate.getConsumedResources();
+    }
+  }
+
   @SuppressWarnings("resource")
   @Override
   public Model getModel() throws SolverException {
@@ -89,6 +122,13 @@ class SynchronizedBasicProverEnvironment<T> implements BasicProverEnvironment<T>
     }
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    synchronized (sync) {
+      return delegate.getStatistics();
+    }
+  }
+
   @Override
   public void close() {
     synchronized (sync) {
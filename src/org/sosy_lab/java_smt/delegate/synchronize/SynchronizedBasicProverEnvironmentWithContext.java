@@ -11,6 +11,8 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -81,6 +83,30 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
     return delegate.isUnsatWithAssumptions(translate(pAssumptions, manager, otherManager));
   }
 
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    return delegate.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithAssumptions(
+        translate(pAssumptions, manager, otherManager), pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return delegate.getConsumedResources();
+  }
+
   @SuppressWarnings("resource")
   @Override
   public Model getModel() throws SolverException {
@@ -106,6 +132,13 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
     }
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    synchronized (sync) {
+      return delegate.getStatistics();
+    }
+  }
+
   @Override
   public void close() {
     synchronized (sync) {
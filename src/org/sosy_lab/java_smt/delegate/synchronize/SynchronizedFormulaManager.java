@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -168,6 +169,13 @@ class SynchronizedFormulaManager implements FormulaManager {
     }
   }
 
+  @Override
+  public ImmutableMap<String, Number> getTacticStatistics() {
+    synchronized (sync) {
+      return delegate.getTacticStatistics();
+    }
+  }
+
   @Override
   public <T extends Formula> T simplify(T pInput) throws InterruptedException {
     synchronized (sync) {
@@ -36,7 +36,10 @@ class SynchronizedInterpolatingProverEnvironmentWithContext<T>
   @Override
   public BooleanFormula getInterpolant(Collection<T> pFormulasOfA)
       throws SolverException, InterruptedException {
-    return manager.translateFrom(delegate.getInterpolant(pFormulasOfA), otherManager);
+    BooleanFormula itp = delegate.getInterpolant(pFormulasOfA);
+    synchronized (sync) {
+      return manager.translateFrom(itp, otherManager);
+    }
   }
 
   @Override
@@ -12,6 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -74,6 +78,27 @@ class SynchronizedModel implements Model {
     }
   }
 
+  @Override
+  public long evaluateAsLong(IntegerFormula pF) {
+    synchronized (sync) {
+      return delegate.evaluateAsLong(pF);
+    }
+  }
+
+  @Override
+  public long evaluateAsLong(BitvectorFormula pF) {
+    synchronized (sync) {
+      return delegate.evaluateAsLong(pF);
+    }
+  }
+
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    synchronized (sync) {
+      return delegate.evaluateAll(pFormulas);
+    }
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     synchronized (sync) {
@@ -81,6 +106,33 @@ class SynchronizedModel implements Model {
     }
   }
 
+  @Override
+  public Stream<ValueAssignment> stream() {
+    // the stream is consumed outside of the synchronized block, thus we cannot stream lazily
+    return asList().stream();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    synchronized (sync) {
+      return delegate.getAssignments(pName);
+    }
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(Set<String> pNames) {
+    synchronized (sync) {
+      return delegate.getAssignments(pNames);
+    }
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignmentsForKeys(Collection<? extends Formula> pKeys) {
+    synchronized (sync) {
+      return delegate.getAssignmentsForKeys(pKeys);
+    }
+  }
+
   @Override
   public void close() {
     synchronized (sync) {
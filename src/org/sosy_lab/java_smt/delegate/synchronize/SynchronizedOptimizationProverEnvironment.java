@@ -8,7 +8,11 @@
 
 package org.sosy_lab.java_smt.delegate.synchronize;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
@@ -47,6 +51,47 @@ class SynchronizedOptimizationProverEnvironment extends SynchronizedBasicProverE
     }
   }
 
+  @Override
+  public OptStatus check(ObjectivePriority pPriority)
+      throws InterruptedException, SolverException {
+    synchronized (sync) {
+      return delegate.check(pPriority);
+    }
+  }
+
+  @Override
+  public Stream<ImmutableList<Rational>> paretoFront() {
+    final Stream<ImmutableList<Rational>> points;
+    synchronized (sync) {
+      points = delegate.paretoFront();
+    }
+    // the points are computed lazily when the stream is consumed
+    final Iterator<ImmutableList<Rational>> it = points.iterator();
+    Iterator<ImmutableList<Rational>> synchronizedIt =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            synchronized (sync) {
+              return it.hasNext();
+            }
+          }
+
+          @Override
+          public ImmutableList<Rational> next() {
+            synchronized (sync) {
+              return it.next();
+            }
+          }
+        };
+    return Streams.stream(synchronizedIt)
+        .onClose(
+            () -> {
+              synchronized (sync) {
+                points.close();
+              }
+            });
+  }
+
   @Override
   public Optional<Rational> upper(int pHandle, Rational pEpsilon) {
     synchronized (sync) {
@@ -11,6 +11,8 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -35,6 +37,13 @@ public class SynchronizedSolverContext implements SolverContext {
               + "This allows more parallelity when solving larger queries.")
   private boolean useSeperateProvers = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of interpolating provers from separate contexts that compute the interpolants "
+              + "of a sequence in parallel. Values below 2 disable parallel interpolation.")
+  private int parallelInterpolationProvers = 1;
+
   private final SolverContext delegate;
   private final SolverContext sync;
   private final Configuration config;
@@ -98,7 +107,9 @@ public class SynchronizedSolverContext implements SolverContext {
   public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
       ProverOptions... pOptions) {
     synchronized (sync) {
-      if (useSeperateProvers) {
+      if (parallelInterpolationProvers > 1) {
+        return newParallelInterpolatingProverEnvironment(pOptions);
+      } else if (useSeperateProvers) {
         SolverContext otherContext = createOtherContext();
         return new SynchronizedInterpolatingProverEnvironmentWithContext<>(
             otherContext.newProverEnvironmentWithInterpolation(pOptions),
@@ -112,6 +123,25 @@ public class SynchronizedSolverContext implements SolverContext {
     }
   }
 
+  @SuppressWarnings("resource")
+  private InterpolatingProverEnvironment<?> newParallelInterpolatingProverEnvironment(
+      ProverOptions... pOptions) {
+    List<InterpolatingProverEnvironment<?>> replicas = new ArrayList<>();
+    List<SolverContext> replicaContexts = new ArrayList<>();
+    for (int i = 0; i < parallelInterpolationProvers; i++) {
+      SolverContext otherContext = createOtherContext();
+      replicaContexts.add(otherContext);
+      replicas.add(
+          new SynchronizedInterpolatingProverEnvironmentWithContext<>(
+              otherContext.newProverEnvironmentWithInterpolation(pOptions),
+              sync,
+              delegate.getFormulaManager(),
+              otherContext.getFormulaManager()));
+    }
+    return new ParallelInterpolatingProverEnvironment(
+        replicas, replicaContexts, sync, delegate.getFormulaManager(), shutdownNotifier);
+  }
+
   @SuppressWarnings("resource")
   @Override
   public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
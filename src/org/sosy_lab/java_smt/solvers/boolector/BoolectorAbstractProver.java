@@ -48,7 +48,11 @@ abstract class BoolectorAbstractProver<T> extends AbstractProverWithAllSat<T> {
     this.manager = manager;
     this.creator = creator;
     this.btor = btor;
-    terminationCallback = shutdownNotifier::shouldShutdown;
+    terminationCallback =
+        () ->
+            shutdownNotifier.shouldShutdown()
+                || shouldInterruptBoundedCheck()
+                || consumeResourceStep();
     terminationCallbackHelper = addTerminationCallback();
   }
 
@@ -165,6 +169,11 @@ abstract class BoolectorAbstractProver<T> extends AbstractProverWithAllSat<T> {
     return closed;
   }
 
+  @Override
+  protected boolean supportsResourceLimits() {
+    return true;
+  }
+
   private long addTerminationCallback() {
     Preconditions.checkState(!closed, "solver context is already closed");
     return BtorJNI.boolector_set_termination(btor, terminationCallback);
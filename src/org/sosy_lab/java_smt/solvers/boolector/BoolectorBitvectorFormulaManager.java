@@ -49,6 +49,20 @@ class BoolectorBitvectorFormulaManager
     this.btor = creator.getEnv();
   }
 
+  @Override
+  public Long makeBitvectorImpl(int pLength, long pI) {
+    if (pLength > Long.SIZE) {
+      return makeBitvectorImpl(pLength, BigInteger.valueOf(pI));
+    }
+    long value = transformValueToRange(pLength, pI);
+    long sort = BtorJNI.boolector_bitvec_sort(btor, pLength);
+    if (pI == (int) pI) {
+      // Boolector truncates the sign-extended value
+      return BtorJNI.boolector_int(btor, pI, sort);
+    }
+    return BtorJNI.boolector_consth(btor, sort, Long.toHexString(value));
+  }
+
   @Override
   public Long makeBitvectorImpl(int pLength, BigInteger pI) {
     pI = transformValueToRange(pLength, pI);
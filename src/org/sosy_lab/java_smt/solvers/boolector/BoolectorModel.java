@@ -44,6 +44,7 @@ class BoolectorModel extends CachingAbstractModel<Long, Long, Long> {
       // but you could release all bindings.
       closed = true;
     }
+    super.close();
   }
 
   @Override
@@ -141,6 +141,16 @@ public final class BoolectorSolverContext extends AbstractSolverContext {
   protected boolean supportsAssumptionSolving() {
     return true;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return false;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return false;
+  }
+
+
 
   /** set basic options for running Boolector. */
   private static void setOptions(
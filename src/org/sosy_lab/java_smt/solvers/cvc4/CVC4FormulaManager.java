@@ -13,6 +13,7 @@ import de.uni_freiburg.informatik.ultimate.logic.PrintTerm;
 import edu.stanford.CVC4.Expr;
 import edu.stanford.CVC4.ExprManager;
 import edu.stanford.CVC4.Type;
+import edu.stanford.CVC4.vectorExpr;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -58,6 +59,19 @@ class CVC4FormulaManager extends AbstractFormulaManager<Expr, Type, ExprManager,
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public <T extends Formula> T substitute(
+      final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
+    vectorExpr changeFrom = new vectorExpr();
+    vectorExpr changeTo = new vectorExpr();
+    for (Map.Entry<? extends Formula, ? extends Formula> e : fromToMapping.entrySet()) {
+      changeFrom.add(extractInfo(e.getKey()));
+      changeTo.add(extractInfo(e.getValue()));
+    }
+    FormulaType<T> type = getFormulaType(f);
+    return getFormulaCreator().encapsulate(type, extractInfo(f).substitute(changeFrom, changeTo));
+  }
+
   @Override
   public Appender dumpFormula(Expr f) {
     assert getFormulaCreator().getFormulaType(f) == FormulaType.BooleanType
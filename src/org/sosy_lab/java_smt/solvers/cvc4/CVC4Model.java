@@ -90,6 +90,7 @@ public class CVC4Model extends CachingAbstractModel<Expr, Type, ExprManager> {
   public void close() {
     prover.unregisterModel(this);
     closed = true;
+    super.close();
   }
 
   @Override
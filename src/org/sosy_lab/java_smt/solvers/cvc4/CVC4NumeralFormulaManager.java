@@ -146,6 +146,16 @@ abstract class CVC4NumeralFormulaManager<
     return exprManager.mkExpr(Kind.PLUS, pParam1, pParam2);
   }
 
+  @Override
+  protected Expr sumImpl(List<Expr> pParams) {
+    if (pParams.size() < 2) {
+      return super.sumImpl(pParams);
+    }
+    vectorExpr param = new vectorExpr();
+    pParams.forEach(param::add);
+    return exprManager.mkExpr(Kind.PLUS, param);
+  }
+
   @Override
   protected Expr subtract(Expr pParam1, Expr pParam2) {
     return exprManager.mkExpr(Kind.MINUS, pParam1, pParam2);
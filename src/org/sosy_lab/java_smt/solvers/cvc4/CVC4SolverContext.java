@@ -132,6 +132,16 @@ public final class CVC4SolverContext extends AbstractSolverContext {
   protected boolean supportsAssumptionSolving() {
     return false;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return true;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return false;
+  }
+
+
 
   @Override
   protected InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation0(
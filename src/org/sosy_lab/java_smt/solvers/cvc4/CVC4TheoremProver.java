@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.solvers.cvc4;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import edu.stanford.CVC4.Expr;
 import edu.stanford.CVC4.ExprManager;
 import edu.stanford.CVC4.ExprManagerMapCollection;
@@ -20,8 +21,10 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -61,6 +64,8 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
   private SmtEngine smtEngine; // final except for SL theory
   private ShutdownHook hook; // final except for SL theory
   private boolean changedSinceLastSatQuery = false;
+  private long resourceLimit = 0;
+  private long resourceUsageBefore = 0;
 
   /** Tracks formulas on the stack, needed for model generation. */
   protected final Deque<List<Expr>> assertedFormulas = new ArrayDeque<>();
@@ -134,6 +139,35 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     return listener;
   }
 
+  @Override
+  protected void interruptBoundedCheck() {
+    smtEngine.interrupt();
+  }
+
+  @Override
+  protected boolean supportsResourceLimits() {
+    return true;
+  }
+
+  @Override
+  protected void startResourceLimit(long pResourceLimit) {
+    resourceLimit = pResourceLimit;
+    resourceUsageBefore = smtEngine.getResourceUsage();
+    smtEngine.setResourceLimit(pResourceLimit, false);
+  }
+
+  @Override
+  protected long stopResourceLimit() {
+    smtEngine.setResourceLimit(0, false); // no limit
+    resourceLimit = 0;
+    return smtEngine.getResourceUsage() - resourceUsageBefore;
+  }
+
+  @Override
+  protected boolean isResourceLimitExceeded() {
+    return resourceLimit > 0 && smtEngine.getResourceUsage() - resourceUsageBefore >= resourceLimit;
+  }
+
   /** import an expression from global context into this prover's context. */
   protected Expr importExpr(Expr expr) {
     return expr.exportTo(exprManager, exportMapping);
@@ -292,6 +326,21 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Preconditions.checkState(!closed);
+    Map<String, Number> result = new LinkedHashMap<>();
+    // CVC4 iterates over pairs of name and value (as SExpr).
+    for (Object entry : smtEngine.getStatistics()) {
+      Object[] pair = (Object[]) entry;
+      Number value = parseStatisticsValue(pair[1].toString());
+      if (value != null) {
+        result.put(pair[0].toString(), value);
+      }
+    }
+    return ImmutableMap.copyOf(result);
+  }
+
   protected Collection<Expr> getAssertedExpressions() {
     List<Expr> result = new ArrayList<>();
     assertedFormulas.forEach(result::addAll);
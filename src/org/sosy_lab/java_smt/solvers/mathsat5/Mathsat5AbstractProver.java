@@ -16,6 +16,7 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_crea
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_destroy_config;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_destroy_env;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_free_termination_callback;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_get_search_stats;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_get_unsat_assumptions;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_get_unsat_core;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_last_error_message;
@@ -26,6 +27,7 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_is_not;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -57,12 +59,12 @@ abstract class Mathsat5AbstractProver<T2> extends AbstractProver<T2> {
       Set<ProverOptions> pOptions,
       Mathsat5FormulaCreator pCreator,
       ShutdownNotifier pShutdownNotifier) {
-    super(pOptions);
+    super(pOptions, pShutdownNotifier);
     context = pContext;
     creator = pCreator;
     curConfig = buildConfig(pOptions);
     curEnv = context.createEnvironment(curConfig);
-    terminationTest = context.addTerminationTest(curEnv);
+    terminationTest = context.addTerminationTest(curEnv, this::checkBoundedCheckLimits);
     shutdownNotifier = pShutdownNotifier;
   }
 
@@ -85,6 +87,19 @@ abstract class Mathsat5AbstractProver<T2> extends AbstractProver<T2> {
     return cfg;
   }
 
+  /** termination test for bounded checks, the solver is stopped via an exception. */
+  private boolean checkBoundedCheckLimits() throws InterruptedException {
+    if (shouldInterruptBoundedCheck() || consumeResourceStep()) {
+      throw new InterruptedException("Limit of bounded satisfiability check exceeded");
+    }
+    return false;
+  }
+
+  @Override
+  protected boolean supportsResourceLimits() {
+    return true;
+  }
+
   /** add needed options into the given map. */
   protected abstract void createConfig(Map<String, String> pConfig);
 
@@ -164,6 +179,12 @@ abstract class Mathsat5AbstractProver<T2> extends AbstractProver<T2> {
     return result;
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Preconditions.checkState(!closed);
+    return parseStatistics(msat_get_search_stats(curEnv));
+  }
+
   @Override
   public void close() {
     if (!closed) {
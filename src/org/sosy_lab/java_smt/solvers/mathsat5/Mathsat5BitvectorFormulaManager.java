@@ -76,11 +76,14 @@ class Mathsat5BitvectorFormulaManager
 
   @Override
   public Long makeBitvectorImpl(int pLength, long pI) {
-    int i = (int) pI;
-    if (i == pI && i > 0) { // fits into an int
-      return Mathsat5NativeApi.msat_make_bv_int_number(mathsatEnv, i, pLength);
+    if (pLength > Long.SIZE) {
+      return makeBitvectorImpl(pLength, BigInteger.valueOf(pI));
     }
-    return makeBitvectorImpl(pLength, BigInteger.valueOf(pI));
+    long value = transformValueToRange(pLength, pI);
+    if (value > 0 && value <= Integer.MAX_VALUE) { // fits into an int
+      return Mathsat5NativeApi.msat_make_bv_int_number(mathsatEnv, (int) value, pLength);
+    }
+    return msat_make_bv_number(mathsatEnv, Long.toUnsignedString(value), pLength, 10);
   }
 
   @Override
@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel.CachingAbstractModel;
 
 class Mathsat5Model extends CachingAbstractModel<Long, Long, Long> {
@@ -50,6 +51,15 @@ class Mathsat5Model extends CachingAbstractModel<Long, Long, Long> {
 
   @Override
   protected ImmutableList<ValueAssignment> toList() {
+    return toList(null);
+  }
+
+  /**
+   * Build the list of assignments from the model, or only the assignments with the given name. The
+   * name is checked before any value is converted.
+   */
+  @Override
+  protected ImmutableList<ValueAssignment> toList(@Nullable String pName) {
     Preconditions.checkState(!closed);
     Preconditions.checkState(!prover.closed, "cannot use model after prover is closed");
     ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
@@ -61,6 +71,9 @@ class Mathsat5Model extends CachingAbstractModel<Long, Long, Long> {
       if (msat_model_iterator_next(modelIterator, key, value)) {
         throw new NoSuchElementException();
       }
+      if (pName != null && !pName.equals(formulaCreator.getName(key[0]))) {
+        continue;
+      }
 
       if (msat_is_array_type(creator.getEnv(), msat_term_get_type(value[0]))) {
         assignments.addAll(getArrayAssignments(key[0], key[0], value[0], ImmutableList.of()));
@@ -132,6 +145,7 @@ class Mathsat5Model extends CachingAbstractModel<Long, Long, Long> {
       msat_destroy_model(model);
       closed = true;
     }
+    super.close();
   }
 
   @Override
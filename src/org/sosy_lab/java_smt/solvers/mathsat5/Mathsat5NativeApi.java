@@ -785,6 +785,14 @@ class Mathsat5NativeApi {
 
   public static native String msat_get_version();
 
+  /**
+   * Returns search statistics of the last satisfiability check.
+   *
+   * @param e msat_env The environment in which to operate.
+   * @return A string which provides some search statistics information, one statistic per line.
+   */
+  public static native String msat_get_search_stats(long e);
+
   public static native String msat_last_error_message(long e);
 
   /* Optimization **/
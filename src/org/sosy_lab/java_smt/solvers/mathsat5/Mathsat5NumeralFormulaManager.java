@@ -21,6 +21,7 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_make
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_is_number;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import org.sosy_lab.java_smt.api.NumeralFormula;
 import org.sosy_lab.java_smt.basicimpl.AbstractNumeralFormulaManager;
@@ -98,13 +99,16 @@ abstract class Mathsat5NumeralFormulaManager<
   @Override
   protected Long distinctImpl(List<Long> pNumbers) {
     // MathSat does not directly support this method, we need to build the whole term.
-    long r = msat_make_true(mathsatEnv);
+    List<Long> inequalities = new ArrayList<>();
     for (int i = 0; i < pNumbers.size(); i++) {
       for (int j = 0; j < i; j++) {
-        r = msat_make_and(mathsatEnv, r, makeNot(equal(pNumbers.get(i), pNumbers.get(j))));
+        inequalities.add(makeNot(equal(pNumbers.get(i), pNumbers.get(j))));
       }
     }
-    return r;
+    if (inequalities.isEmpty()) {
+      return msat_make_true(mathsatEnv);
+    }
+    return balancedTree(inequalities, (a, b) -> msat_make_and(mathsatEnv, a, b));
   }
 
   @Override
@@ -23,11 +23,13 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_pop_
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_push_backtrack_point;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_repr;
 
+import com.google.common.collect.ImmutableList;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.UniqueIdGenerator;
@@ -103,10 +105,34 @@ class Mathsat5OptimizationProver extends Mathsat5AbstractProver<Void>
     }
   }
 
+  /**
+   * OptiMathSAT fixes the priority of objectives when creating the environment, and uses the
+   * lexicographic priority by default. Other priorities are computed by a wrapper of the solver
+   * context.
+   */
+  @Override
+  public OptStatus check(ObjectivePriority pPriority)
+      throws InterruptedException, SolverException {
+    if (pPriority == ObjectivePriority.LEXICOGRAPHIC) {
+      return check();
+    }
+    throw new UnsupportedOperationException(
+        "OptiMathSAT fixes the priority of objectives when creating the environment");
+  }
+
+  /**
+   * OptiMathSAT does not enumerate the Pareto front natively, it is computed by a wrapper of the
+   * solver context.
+   */
+  @Override
+  public Stream<ImmutableList<Rational>> paretoFront() {
+    throw new UnsupportedOperationException("OptiMathSAT does not enumerate the Pareto front");
+  }
+
   @Override
   public void push() {
     msat_push_backtrack_point(curEnv);
-    stack.add(objectiveMap);
+    stack.push(objectiveMap);
   }
 
   @Override
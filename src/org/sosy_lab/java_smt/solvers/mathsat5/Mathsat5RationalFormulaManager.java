@@ -31,6 +31,9 @@ class Mathsat5RationalFormulaManager
 
   @Override
   protected Long makeNumberImpl(double pNumber) {
+    if (isLongValue(pNumber)) {
+      return makeNumberImpl((long) pNumber);
+    }
     return makeNumberImpl(Double.toString(pNumber));
   }
 
@@ -315,13 +315,25 @@ public final class Mathsat5SolverContext extends AbstractSolverContext {
     }
   }
 
-  long addTerminationTest(long env) {
+  long addTerminationTest(long env, TerminationCallback pProverTerminationTest) {
     Preconditions.checkState(!closed, "solver context is already closed");
-    return msat_set_termination_callback(env, terminationTest);
+    return msat_set_termination_callback(
+        env,
+        () -> terminationTest.shouldTerminate() || pProverTerminationTest.shouldTerminate());
   }
 
   @Override
   protected boolean supportsAssumptionSolving() {
     return true;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return false;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return false;
+  }
+
+
 }
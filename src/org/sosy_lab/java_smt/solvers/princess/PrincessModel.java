@@ -170,9 +170,6 @@ class PrincessModel extends CachingAbstractModel<IExpression, Sort, PrincessEnvi
     return model.toString();
   }
 
-  @Override
-  public void close() {}
-
   @Override
   protected IExpression evalImpl(IExpression formula) {
     if (formula instanceof ITerm) {
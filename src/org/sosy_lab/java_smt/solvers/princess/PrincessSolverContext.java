@@ -112,4 +112,14 @@ public final class PrincessSolverContext extends AbstractSolverContext {
   protected boolean supportsAssumptionSolving() {
     return false;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return false;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return false;
+  }
+
+
 }
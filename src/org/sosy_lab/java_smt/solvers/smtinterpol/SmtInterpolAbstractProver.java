@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.solvers.smtinterpol;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.collect.ImmutableMap;
 import de.uni_freiburg.informatik.ultimate.logic.Annotation;
 import de.uni_freiburg.informatik.ultimate.logic.FunctionSymbol;
 import de.uni_freiburg.informatik.ultimate.logic.Sort;
@@ -19,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,7 +48,7 @@ abstract class SmtInterpolAbstractProver<T, AF> extends AbstractProver<T> {
       new UniqueIdGenerator(); // for different termnames
 
   SmtInterpolAbstractProver(SmtInterpolFormulaManager pMgr, Set<ProverOptions> options) {
-    super(options);
+    super(options, pMgr.getEnvironment().getShutdownNotifier());
     checkState(
         pMgr.getEnvironment().getStackDepth() == 0,
         "Not allowed to create a new prover environment while solver stack is still non-empty, "
@@ -77,7 +79,12 @@ abstract class SmtInterpolAbstractProver<T, AF> extends AbstractProver<T> {
   @Override
   public boolean isUnsat() throws InterruptedException {
     checkState(!closed);
-    return !env.checkSat();
+    return !env.checkSat(() -> shouldInterruptBoundedCheck() || consumeResourceStep());
+  }
+
+  @Override
+  protected boolean supportsResourceLimits() {
+    return true;
   }
 
   @Override
@@ -132,6 +139,33 @@ abstract class SmtInterpolAbstractProver<T, AF> extends AbstractProver<T> {
     return result;
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    checkState(!closed);
+    Map<String, Number> result = new LinkedHashMap<>();
+    flattenStatistics("", env.getInfo(":all-statistics"), result);
+    return ImmutableMap.copyOf(result);
+  }
+
+  /**
+   * SMTInterpol provides its statistics as an array of alternating keys and values, where values
+   * can again be such arrays.
+   */
+  private static void flattenStatistics(String prefix, Object stats, Map<String, Number> result) {
+    if (stats instanceof Object[]) {
+      Object[] entries = (Object[]) stats;
+      for (int i = 0; i + 1 < entries.length; i += 2) {
+        String key = entries[i].toString();
+        if (key.startsWith(":")) {
+          key = key.substring(1);
+        }
+        flattenStatistics(prefix.isEmpty() ? key : prefix + "." + key, entries[i + 1], result);
+      }
+    } else if (stats instanceof Number) {
+      result.put(prefix, (Number) stats);
+    }
+  }
+
   @Override
   public void close() {
     checkState(!closed);
@@ -44,6 +44,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -97,6 +98,9 @@ public class SmtInterpolEnvironment {
   /** The current depth of the stack in the solver. */
   private int stackDepth = 0;
 
+  /** Additional termination request of the currently running satisfiability check. */
+  private volatile BooleanSupplier checkTerminationRequest = () -> false;
+
   /** The Constructor creates the wrapped Element, sets some options and initializes the logger. */
   SmtInterpolEnvironment(
       Configuration config,
@@ -112,7 +116,9 @@ public class SmtInterpolEnvironment {
     smtInterpolLogProxy = new LogProxyForwarder(logger.withComponentName("SMTInterpol"));
 
     final SMTInterpol smtInterpol =
-        new SMTInterpol(smtInterpolLogProxy, pShutdownNotifier::shouldShutdown);
+        new SMTInterpol(
+            smtInterpolLogProxy,
+            () -> pShutdownNotifier.shouldShutdown() || checkTerminationRequest.getAsBoolean());
 
     if (smtLogfile != null) {
       script = createLoggingWrapper(smtInterpol);
@@ -202,6 +208,10 @@ public class SmtInterpolEnvironment {
     return new SmtInterpolInterpolatingProver(mgr, pOptions);
   }
 
+  ShutdownNotifier getShutdownNotifier() {
+    return shutdownNotifier;
+  }
+
   int getStackDepth() {
     return stackDepth;
   }
@@ -287,15 +297,23 @@ public class SmtInterpolEnvironment {
   /**
    * This function causes the SatSolver to check all the terms on the stack, if their conjunction is
    * SAT or UNSAT.
+   *
+   * @param pTerminationRequest additional termination request that is only used for this check.
    */
-  public boolean checkSat() throws InterruptedException {
+  public boolean checkSat(BooleanSupplier pTerminationRequest) throws InterruptedException {
     // We actually terminate SmtInterpol during the analysis
     // by using a shutdown listener. However, SmtInterpol resets the
     // mStopEngine flag in DPLLEngine before starting to solve,
     // so we check here, too.
     shutdownNotifier.shutdownIfNecessary();
 
-    LBool result = script.checkSat();
+    LBool result;
+    checkTerminationRequest = pTerminationRequest;
+    try {
+      result = script.checkSat();
+    } finally {
+      checkTerminationRequest = () -> false;
+    }
     switch (result) {
       case SAT:
         return true;
@@ -312,6 +330,9 @@ public class SmtInterpolEnvironment {
             throw new OutOfMemoryError("Out of memory during SMTInterpol operation");
           case CANCELLED:
             shutdownNotifier.shutdownIfNecessary(); // expected if we requested termination
+            if (pTerminationRequest.getAsBoolean()) {
+              throw new InterruptedException("Time limit of bounded satisfiability check exceeded");
+            }
             throw new SMTLIBException("checkSat returned UNKNOWN with unexpected reason " + reason);
           default:
             throw new SMTLIBException("checkSat returned UNKNOWN with unexpected reason " + reason);
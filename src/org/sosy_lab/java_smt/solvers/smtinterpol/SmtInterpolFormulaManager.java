@@ -18,15 +18,19 @@ import de.uni_freiburg.informatik.ultimate.logic.FunctionSymbol;
 import de.uni_freiburg.informatik.ultimate.logic.PrintTerm;
 import de.uni_freiburg.informatik.ultimate.logic.Sort;
 import de.uni_freiburg.informatik.ultimate.logic.Term;
+import de.uni_freiburg.informatik.ultimate.logic.TermTransformer;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
 import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.basicimpl.AbstractFormulaManager;
 
@@ -134,6 +138,50 @@ public class SmtInterpolFormulaManager
     };
   }
 
+  @Override
+  public <T extends Formula> T substitute(
+      final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
+    if (fromToMapping.isEmpty()) {
+      return f;
+    }
+    final Map<Term, Term> changes = new HashMap<>();
+    for (Map.Entry<? extends Formula, ? extends Formula> e : fromToMapping.entrySet()) {
+      changes.put(extractInfo(e.getKey()), extractInfo(e.getValue()));
+    }
+    // SMTInterpol's transformer works directly on the terms, but converts each occurrence of a
+    // shared subterm again. Thus we cache the converted application terms, which keeps the
+    // substitution linear in the size of the DAG.
+    final Map<Term, Term> cache = new HashMap<>();
+    Term result =
+        new TermTransformer() {
+          @Override
+          protected void convert(Term pTerm) {
+            Term replacement = changes.get(pTerm);
+            if (replacement == null) {
+              replacement = cache.get(pTerm);
+            }
+            if (replacement == null) {
+              super.convert(pTerm);
+            } else {
+              setResult(replacement);
+            }
+          }
+
+          @Override
+          public void convertApplicationTerm(ApplicationTerm pAppTerm, Term[] pNewArgs) {
+            Term newTerm = pAppTerm;
+            if (pNewArgs != pAppTerm.getParameters()) {
+              FunctionSymbol function = pAppTerm.getFunction();
+              newTerm = function.getTheory().term(function, pNewArgs);
+            }
+            cache.put(pAppTerm, newTerm);
+            setResult(newTerm);
+          }
+        }.transform(extractInfo(f));
+    FormulaType<T> type = getFormulaType(f);
+    return getFormulaCreator().encapsulate(type, result);
+  }
+
   /** This method returns a 'shared' environment or a complete new environment. */
   SmtInterpolEnvironment createEnvironment() {
     return getEnvironment();
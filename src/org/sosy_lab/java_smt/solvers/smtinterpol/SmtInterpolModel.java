@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel.CachingAbstractModel;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
 
@@ -38,22 +39,45 @@ class SmtInterpolModel extends CachingAbstractModel<Term, Sort, SmtInterpolEnvir
     ImmutableSet.Builder<ValueAssignment> assignments = ImmutableSet.builder();
 
     for (FunctionSymbol symbol : model.getDefinedFunctions()) {
-      final String name = unescape(symbol.getApplicationString());
-      if (symbol.getParameterSorts().length == 0) { // simple variable or array
-        Term variable = creator.getEnv().term(name);
-        if (symbol.getReturnSort().isArraySort()) {
-          assignments.addAll(getArrayAssignment(name, variable, variable, ImmutableList.of()));
-        } else {
-          assignments.add(getAssignment(name, (ApplicationTerm) variable));
-        }
-      } else { // uninterpreted function
-        assignments.addAll(getUFAssignments(symbol));
-      }
+      assignments.addAll(getAssignments(symbol));
     }
 
     return assignments.build().asList();
   }
 
+  @Override
+  protected Stream<ValueAssignment> toStream() {
+    return model.getDefinedFunctions().stream()
+        .flatMap(symbol -> getAssignments(symbol).stream())
+        .distinct();
+  }
+
+  @Override
+  protected ImmutableList<ValueAssignment> toList(String pName) {
+    ImmutableSet.Builder<ValueAssignment> assignments = ImmutableSet.builder();
+    for (FunctionSymbol symbol : model.getDefinedFunctions()) {
+      if (pName.equals(unescape(symbol.getApplicationString()))) {
+        assignments.addAll(getAssignments(symbol));
+      }
+    }
+    return assignments.build().asList();
+  }
+
+  /** Get all modeled assignments for the variable, array or UF. */
+  private Collection<ValueAssignment> getAssignments(FunctionSymbol symbol) {
+    final String name = unescape(symbol.getApplicationString());
+    if (symbol.getParameterSorts().length == 0) { // simple variable or array
+      Term variable = creator.getEnv().term(name);
+      if (symbol.getReturnSort().isArraySort()) {
+        return getArrayAssignment(name, variable, variable, ImmutableList.of());
+      } else {
+        return ImmutableList.of(getAssignment(name, (ApplicationTerm) variable));
+      }
+    } else { // uninterpreted function
+      return getUFAssignments(symbol);
+    }
+  }
+
   private static String unescape(String s) {
     return s.startsWith("|") ? s.substring(1, s.length() - 1) : s;
   }
@@ -150,9 +174,6 @@ class SmtInterpolModel extends CachingAbstractModel<Term, Sort, SmtInterpolEnvir
     return model.toString();
   }
 
-  @Override
-  public void close() {}
-
   @Override
   protected Term evalImpl(Term formula) {
     return model.evaluate(formula);
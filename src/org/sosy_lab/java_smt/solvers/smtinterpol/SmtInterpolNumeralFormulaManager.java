@@ -126,6 +126,14 @@ abstract class SmtInterpolNumeralFormulaManager<
     return env.term("+", pNumber1, pNumber2);
   }
 
+  @Override
+  protected Term sumImpl(List<Term> pOperands) {
+    if (pOperands.size() < 2) {
+      return super.sumImpl(pOperands);
+    }
+    return env.term("+", pOperands.toArray(new Term[0]));
+  }
+
   @Override
   public Term subtract(Term pNumber1, Term pNumber2) {
     return env.term("-", pNumber1, pNumber2);
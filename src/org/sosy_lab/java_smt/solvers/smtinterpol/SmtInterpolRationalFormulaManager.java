@@ -53,6 +53,9 @@ class SmtInterpolRationalFormulaManager
 
   @Override
   protected Term makeNumberImpl(double pNumber) {
+    if (isLongValue(pNumber)) {
+      return makeNumberImpl((long) pNumber);
+    }
     return getFormulaCreator().getEnv().decimal(BigDecimal.valueOf(pNumber));
   }
 
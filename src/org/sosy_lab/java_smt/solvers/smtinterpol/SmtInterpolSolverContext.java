@@ -97,4 +97,14 @@ public final class SmtInterpolSolverContext extends AbstractSolverContext {
   protected boolean supportsAssumptionSolving() {
     return false;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return true;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return false;
+  }
+
+
 }
@@ -12,6 +12,7 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvadd;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvand2;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvashr;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvconcat2;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvconst_int64;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvdiv;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bveq_atom;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_bvextract;
@@ -50,6 +51,15 @@ public class Yices2BitvectorFormulaManager
     super(pCreator);
   }
 
+  @Override
+  protected Integer makeBitvectorImpl(int pLength, long pI) {
+    if (pLength <= Long.SIZE) {
+      // only for the range check, Yices truncates the sign-extended value
+      transformValueToRange(pLength, pI);
+    }
+    return yices_bvconst_int64(pLength, pI);
+  }
+
   @Override
   protected Integer makeBitvectorImpl(int pLength, BigInteger pI) {
     pI = transformValueToRange(pLength, pI);
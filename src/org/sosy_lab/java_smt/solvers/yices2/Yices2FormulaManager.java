@@ -10,10 +10,13 @@ package org.sosy_lab.java_smt.solvers.yices2;
 
 import static com.google.common.base.CharMatcher.inRange;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.YICES_APP_TERM;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.YICES_UNINTERPRETED_TERM;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_parse_term;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_subst_term;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_child;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_constructor;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_to_string;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_test_subtype;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_children;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_num_children;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_of_term;
@@ -69,6 +72,30 @@ public class Yices2FormulaManager extends AbstractFormulaManager<Integer, Intege
     return getFormulaCreator().encapsulateBoolean(yices_parse_term(pS));
   }
 
+  @Override
+  public <T extends Formula> T substitute(
+      final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
+    int[] changeFrom = new int[fromToMapping.size()];
+    int[] changeTo = new int[fromToMapping.size()];
+    int idx = 0;
+    for (Map.Entry<? extends Formula, ? extends Formula> e : fromToMapping.entrySet()) {
+      changeFrom[idx] = extractInfo(e.getKey());
+      changeTo[idx] = extractInfo(e.getValue());
+      if (yices_term_constructor(changeFrom[idx]) != YICES_UNINTERPRETED_TERM
+          || !yices_test_subtype(
+              yices_type_of_term(changeTo[idx]), yices_type_of_term(changeFrom[idx]))) {
+        // Yices can only substitute variables by terms of a subtype, e.g., no integer variable
+        // by a rational term. Other replacements are done by the visitor.
+        return super.substitute(f, fromToMapping);
+      }
+      idx++;
+    }
+    FormulaType<T> type = getFormulaType(f);
+    return getFormulaCreator()
+        .encapsulate(
+            type, yices_subst_term(fromToMapping.size(), changeFrom, changeTo, extractInfo(f)));
+  }
+
   @Override
   public Appender dumpFormula(final Integer formula) {
     assert getFormulaCreator().getFormulaType(formula) == FormulaType.BooleanType
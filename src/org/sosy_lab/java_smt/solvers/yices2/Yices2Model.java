@@ -54,13 +54,18 @@ import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel.CachingAbstractModel;
 
 public class Yices2Model extends CachingAbstractModel<Integer, Integer, Long> {
 
+  private static final ImmutableList<Integer> COMPLEX_TAGS =
+      ImmutableList.of(YVAL_SCALAR, YVAL_FUNCTION, YVAL_MAPPING, YVAL_UNKNOWN, YVAL_TUPLE);
+
   private final long model;
   private final Yices2TheoremProver prover;
   private final Yices2FormulaCreator formulaCreator;
@@ -79,30 +84,57 @@ public class Yices2Model extends CachingAbstractModel<Integer, Integer, Long> {
       yices_free_model(model);
       closed = true;
     }
+    super.close();
   }
 
   @Override
   protected ImmutableList<ValueAssignment> toList() {
-    Preconditions.checkState(!closed);
-    Preconditions.checkState(!prover.isClosed(), "cannot use model after prover is closed");
-    List<Integer> complex =
-        ImmutableList.of(YVAL_SCALAR, YVAL_FUNCTION, YVAL_MAPPING, YVAL_UNKNOWN, YVAL_TUPLE);
+    checkModel();
     ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
-    int[] termsInModel = yices_def_terms(model);
-    for (int i = 0; i < termsInModel.length; i++) {
-      int[] yvalTag = yices_get_value(model, termsInModel[i]);
-      if (!complex.contains(yvalTag[1])) { // TODO Switch with other if for less complex check?
-        assignments.add(getSimpleAssignment(termsInModel[i]));
-      } else if (yvalTag[1] == YVAL_FUNCTION) {
-        assignments.addAll(getFunctionAssignment(termsInModel[i], yvalTag));
-      } else {
-        throw new UnsupportedOperationException("YVAL with unexpected tag: " + yvalTag[1]);
-      }
+    for (int term : yices_def_terms(model)) {
+      assignments.addAll(getAssignments(term));
     }
+    return assignments.build();
+  }
 
+  @Override
+  protected Stream<ValueAssignment> toStream() {
+    checkModel();
+    return Arrays.stream(yices_def_terms(model))
+        .mapToObj(this::getAssignments)
+        .flatMap(ImmutableList::stream);
+  }
+
+  @Override
+  protected ImmutableList<ValueAssignment> toList(String pName) {
+    checkModel();
+    ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
+    for (int term : yices_def_terms(model)) {
+      if (pName.equals(yices_get_term_name(term))) {
+        assignments.addAll(getAssignments(term));
+      }
+    }
     return assignments.build();
   }
 
+  private void checkModel() {
+    Preconditions.checkState(!closed);
+    Preconditions.checkState(!prover.isClosed(), "cannot use model after prover is closed");
+  }
+
+  /** Get all assignments for the given term that is defined in the model. */
+  private ImmutableList<ValueAssignment> getAssignments(int term) {
+    checkModel();
+    int[] yvalTag = yices_get_value(model, term);
+    if (!COMPLEX_TAGS.contains(yvalTag[1])) { // TODO Switch with other if for less complex check?
+      return ImmutableList.of(getSimpleAssignment(term));
+    } else if (yvalTag[1] == YVAL_FUNCTION) {
+      return getFunctionAssignment(term, yvalTag);
+    } else {
+      throw new UnsupportedOperationException("YVAL with unexpected tag: " + yvalTag[1]);
+    }
+  }
+
   private ImmutableList<ValueAssignment> getFunctionAssignment(int t, int[] yval) {
     ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
     int arity = yices_val_function_arity(model, yval[0], yval[1]);
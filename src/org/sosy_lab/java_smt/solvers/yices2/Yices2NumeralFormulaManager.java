@@ -23,6 +23,7 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_neg;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_parse_float;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_parse_rational;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_sub;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_sum;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_constructor;
 
 import com.google.common.primitives.Ints;
@@ -83,6 +84,12 @@ abstract class Yices2NumeralFormulaManager<
     return yices_add(pParam1, pParam2);
   }
 
+  @Override
+  protected Integer sumImpl(List<Integer> pOperands) {
+    int[] operandTerms = Ints.toArray(pOperands);
+    return yices_sum(operandTerms.length, operandTerms);
+  }
+
   @Override
   public Integer subtract(Integer pParam1, Integer pParam2) {
     return yices_sub(pParam1, pParam2);
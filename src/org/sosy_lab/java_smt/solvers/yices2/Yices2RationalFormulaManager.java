@@ -31,6 +31,9 @@ public class Yices2RationalFormulaManager
 
   @Override
   protected Integer makeNumberImpl(double pNumber) {
+    if (isLongValue(pNumber)) {
+      return makeNumberImpl((long) pNumber);
+    }
     return makeNumberImpl(Double.toString(pNumber));
   }
 
@@ -120,4 +120,14 @@ public class Yices2SolverContext extends AbstractSolverContext {
   protected boolean supportsAssumptionSolving() {
     return true;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return true;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return false;
+  }
+
+
 }
@@ -22,6 +22,7 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_new_con
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_pop;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_push;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_set_config;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_stop_search;
 
 import com.google.common.base.Preconditions;
 import com.google.common.primitives.Ints;
@@ -128,6 +129,14 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
     Preconditions.checkState(!closed);
+    try {
+      return isUnsat0();
+    } catch (IllegalStateException e) {
+      throw convertInterruption(e);
+    }
+  }
+
+  private boolean isUnsat0() {
     boolean unsat = false;
     if (generateUnsatCores) { // unsat core does not work with incremental mode
       int[] allConstraints = getAllConstraints();
@@ -157,8 +166,26 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
       throws SolverException, InterruptedException {
     Preconditions.checkState(!closed);
     // TODO handle BooleanFormulaCollection / check for literals
-    return !yices_check_sat_with_assumptions(
-        curEnv, 0, pAssumptions.size(), uncapsulate(pAssumptions));
+    try {
+      return !yices_check_sat_with_assumptions(
+          curEnv, 0, pAssumptions.size(), uncapsulate(pAssumptions));
+    } catch (IllegalStateException e) {
+      throw convertInterruption(e);
+    }
+  }
+
+  /** Yices reports an interrupted search as error, which we convert for time-bounded checks. */
+  private RuntimeException convertInterruption(IllegalStateException e)
+      throws InterruptedException {
+    if (shouldInterruptBoundedCheck()) {
+      throw new InterruptedException("Time limit of bounded satisfiability check exceeded");
+    }
+    throw e;
+  }
+
+  @Override
+  protected void interruptBoundedCheck() {
+    yices_stop_search(curEnv);
   }
 
   @Override
@@ -9,6 +9,7 @@
 package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Z3Exception;
@@ -16,6 +17,7 @@ import com.microsoft.z3.enumerations.Z3_lbool;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -40,6 +42,9 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
   private final UniqueIdGenerator trackId = new UniqueIdGenerator();
   private final @Nullable Map<String, BooleanFormula> storedConstraints;
 
+  private long resourceLimit = 0;
+  private long resourceCountBefore = 0;
+
   Z3AbstractProver(
       Z3FormulaCreator pCreator,
       long z3params,
@@ -99,6 +104,56 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
     }
   }
 
+  @Override
+  protected void interruptBoundedCheck() {
+    Native.interrupt(z3context);
+  }
+
+  @Override
+  protected boolean supportsResourceLimits() {
+    return true;
+  }
+
+  @Override
+  protected void startResourceLimit(long pResourceLimit) {
+    resourceLimit = pResourceLimit;
+    resourceCountBefore = getResourceCount();
+    // Z3 interprets the limit relative to the resource count at the start of the check.
+    setResourceLimitParam((int) Math.min(pResourceLimit, 0xFFFFFFFFL));
+  }
+
+  @Override
+  protected long stopResourceLimit() {
+    setResourceLimitParam(0); // no limit
+    resourceLimit = 0;
+    return getResourceCount() - resourceCountBefore;
+  }
+
+  @Override
+  protected boolean isResourceLimitExceeded() {
+    return resourceLimit > 0 && getResourceCount() - resourceCountBefore >= resourceLimit;
+  }
+
+  private long getResourceCount() {
+    Number count = getStatistics().get("rlimit count");
+    return count == null ? 0 : count.longValue();
+  }
+
+  private void setResourceLimitParam(int pValue) {
+    long params = Native.mkParams(z3context);
+    Native.paramsIncRef(z3context, params);
+    try {
+      Native.paramsSetUint(z3context, params, Native.mkStringSymbol(z3context, "rlimit"), pValue);
+      setSolverParams(params);
+    } finally {
+      Native.paramsDecRef(z3context, params);
+    }
+  }
+
+  protected void setSolverParams(long params) {
+    Native.solverSetParams(z3context, z3solver, params);
+  }
+
   @Override
   public Z3Model getModel() {
     Preconditions.checkState(!closed);
@@ -199,6 +254,31 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
     return Optional.of(core);
   }
 
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Preconditions.checkState(!closed);
+    return collectStatistics(Native.solverGetStatistics(z3context, z3solver));
+  }
+
+  /** Copy the numeric entries of the given Z3 statistics object into a map. */
+  protected ImmutableMap<String, Number> collectStatistics(long z3stats) {
+    Native.statsIncRef(z3context, z3stats);
+    try {
+      Map<String, Number> result = new LinkedHashMap<>();
+      for (int i = 0; i < Native.statsSize(z3context, z3stats); i++) {
+        String key = Native.statsGetKey(z3context, z3stats, i);
+        if (Native.statsIsUint(z3context, z3stats, i)) {
+          result.put(key, Native.statsGetUintValue(z3context, z3stats, i));
+        } else if (Native.statsIsDouble(z3context, z3stats, i)) {
+          result.put(key, Native.statsGetDoubleValue(z3context, z3stats, i));
+        }
+      }
+      return ImmutableMap.copyOf(result);
+    } finally {
+      Native.statsDecRef(z3context, z3stats);
+    }
+  }
+
   @Override
   public void close() {
     if (!closed) {
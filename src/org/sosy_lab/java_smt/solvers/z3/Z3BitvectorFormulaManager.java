@@ -40,6 +40,17 @@ class Z3BitvectorFormulaManager extends AbstractBitvectorFormulaManager<Long, Lo
     }
   }
 
+  @Override
+  protected Long makeBitvectorImpl(int pLength, long pI) {
+    long sort = Native.mkBvSort(z3context, pLength);
+    if (pLength <= Long.SIZE) {
+      return Native.mkUnsignedInt64(z3context, transformValueToRange(pLength, pI), sort);
+    } else if (pI >= 0) {
+      return Native.mkInt64(z3context, pI, sort);
+    }
+    return makeBitvectorImpl(pLength, BigInteger.valueOf(pI));
+  }
+
   @Override
   protected Long makeBitvectorImpl(int pLength, BigInteger pI) {
     pI = transformValueToRange(pLength, pI);
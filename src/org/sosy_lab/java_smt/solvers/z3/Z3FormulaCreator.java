@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Table;
 import com.google.common.primitives.Longs;
 import com.microsoft.z3.Native;
+import com.microsoft.z3.Native.LongPtr;
 import com.microsoft.z3.Z3Exception;
 import com.microsoft.z3.enumerations.Z3_ast_kind;
 import com.microsoft.z3.enumerations.Z3_decl_kind;
@@ -658,12 +659,15 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
       FormulaType<?> type = getFormulaType(value);
       if (type.isBooleanType()) {
         return isOP(environment, value, Z3_decl_kind.Z3_OP_TRUE.toInt());
-      } else if (type.isIntegerType()) {
+      } else if (type.isIntegerType() || type.isBitvectorType()) {
+        // most values fit into a machine integer, then we avoid the conversion via String
+        LongPtr machineValue = new LongPtr();
+        if (Native.getNumeralInt64(environment, value, machineValue)) {
+          return BigInteger.valueOf(machineValue.value);
+        }
         return new BigInteger(Native.getNumeralString(environment, value));
       } else if (type.isRationalType()) {
         return Rational.ofString(Native.getNumeralString(environment, value));
-      } else if (type.isBitvectorType()) {
-        return new BigInteger(Native.getNumeralString(environment, value));
       } else if (type.isFloatingPointType()) {
 
         // Converting to Rational first.
@@ -15,12 +15,16 @@ import com.microsoft.z3.Native;
 import com.microsoft.z3.Native.LongPtr;
 import com.microsoft.z3.enumerations.Z3_decl_kind;
 import com.microsoft.z3.enumerations.Z3_sort_kind;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel.CachingAbstractModel;
 
 final class Z3Model extends CachingAbstractModel<Long, Long, Long> {
@@ -51,26 +55,85 @@ final class Z3Model extends CachingAbstractModel<Long, Long, Long> {
 
     // Iterate through constants.
     for (int constIdx = 0; constIdx < Native.modelGetNumConsts(z3context, model); constIdx++) {
-      long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
-      Native.incRef(z3context, keyDecl);
-      out.addAll(getConstAssignments(keyDecl));
-      Native.decRef(z3context, keyDecl);
+      out.addAll(getConstAssignments(constIdx, null));
     }
 
     // Iterate through function applications.
     for (int funcIdx = 0; funcIdx < Native.modelGetNumFuncs(z3context, model); funcIdx++) {
-      long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
-      Native.incRef(z3context, funcDecl);
-      if (!isInternalSymbol(funcDecl)) {
-        String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
-        out.addAll(getFunctionAssignments(funcDecl, funcDecl, functionName));
-      }
-      Native.decRef(z3context, funcDecl);
+      out.addAll(getFunctionAssignments(funcIdx, null));
     }
 
     return out.build();
   }
 
+  @Override
+  protected Stream<ValueAssignment> toStream() {
+    Preconditions.checkState(!closed);
+    Stream<ValueAssignment> constants =
+        IntStream.range(0, Native.modelGetNumConsts(z3context, model))
+            .mapToObj(constIdx -> getConstAssignments(constIdx, null))
+            .flatMap(Collection::stream);
+    Stream<ValueAssignment> functions =
+        IntStream.range(0, Native.modelGetNumFuncs(z3context, model))
+            .mapToObj(funcIdx -> getFunctionAssignments(funcIdx, null))
+            .flatMap(Collection::stream);
+    return Stream.concat(constants, functions);
+  }
+
+  @Override
+  protected ImmutableList<ValueAssignment> toList(String pName) {
+    Preconditions.checkState(!closed);
+    ImmutableList.Builder<ValueAssignment> out = ImmutableList.builder();
+    for (int constIdx = 0; constIdx < Native.modelGetNumConsts(z3context, model); constIdx++) {
+      out.addAll(getConstAssignments(constIdx, pName));
+    }
+    for (int funcIdx = 0; funcIdx < Native.modelGetNumFuncs(z3context, model); funcIdx++) {
+      out.addAll(getFunctionAssignments(funcIdx, pName));
+    }
+    return out.build();
+  }
+
+  /**
+   * @return ValueAssignments for the constant with the given index in the model, or nothing if a
+   *     name is given and does not match the name of the constant.
+   */
+  private Collection<ValueAssignment> getConstAssignments(int constIdx, @Nullable String pName) {
+    Preconditions.checkState(!closed);
+    long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
+    Native.incRef(z3context, keyDecl);
+    try {
+      if (pName != null
+          && !pName.equals(z3creator.symbolToString(Native.getDeclName(z3context, keyDecl)))) {
+        return ImmutableList.of();
+      }
+      return getConstAssignments(keyDecl);
+    } finally {
+      Native.decRef(z3context, keyDecl);
+    }
+  }
+
+  /**
+   * @return ValueAssignments for the function with the given index in the model, or nothing if a
+   *     name is given and does not match the name of the function.
+   */
+  private Collection<ValueAssignment> getFunctionAssignments(int funcIdx, @Nullable String pName) {
+    Preconditions.checkState(!closed);
+    long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
+    Native.incRef(z3context, funcDecl);
+    try {
+      if (isInternalSymbol(funcDecl)) {
+        return ImmutableList.of();
+      }
+      String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
+      if (pName != null && !pName.equals(functionName)) {
+        return ImmutableList.of();
+      }
+      return getFunctionAssignments(funcDecl, funcDecl, functionName);
+    } finally {
+      Native.decRef(z3context, funcDecl);
+    }
+  }
+
   /**
    * The symbol "!" is part of temporary symbols used for quantified formulas or aliases. This
    * method is only a heuristic, because the user can also create a symbol containing "!".
@@ -369,6 +432,7 @@ final class Z3Model extends CachingAbstractModel<Long, Long, Long> {
       Native.modelDecRef(z3context, model);
       closed = true;
     }
+    super.close();
   }
 
   @Override
@@ -384,4 +448,26 @@ final class Z3Model extends CachingAbstractModel<Long, Long, Long> {
       return resultPtr.value;
     }
   }
+
+  @Override
+  protected long evaluateAsLongImpl(Long formula) {
+    Long value = evalImpl(formula);
+    if (value == null) {
+      throw new IllegalArgumentException(
+          "model does not provide a value for " + Native.astToString(z3context, formula));
+    }
+    try {
+      LongPtr result = new LongPtr();
+      if (Native.isNumeralAst(z3context, value)
+          && Native.getNumeralInt64(z3context, value, result)) {
+        return result.value;
+      }
+      // the value does not fit into a long, the conversion reports the overflow
+      Object converted = z3creator.convertValue(value);
+      Preconditions.checkArgument(converted != null, "model provides no constant value");
+      return ((BigInteger) converted).longValueExact();
+    } finally {
+      Native.decRef(z3context, value);
+    }
+  }
 }
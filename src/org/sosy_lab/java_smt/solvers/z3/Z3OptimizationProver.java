@@ -9,15 +9,22 @@
 package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Streams;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Native.IntPtr;
 import com.microsoft.z3.Z3Exception;
 import com.microsoft.z3.enumerations.Z3_lbool;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.rationals.Rational;
@@ -29,8 +36,42 @@ import org.sosy_lab.java_smt.api.SolverException;
 
 class Z3OptimizationProver extends Z3AbstractProver<Void> implements OptimizationProverEnvironment {
 
+  private static final String PRIORITY_KEY = "priority";
+
   private final LogManager logger;
-  private final long z3optSolver;
+  private long z3optSolver;
+
+  /**
+   * The constraints and objectives of each level, from the bottom to the top of the stack. Z3 can
+   * not abort an enumeration of the Pareto front, thus the optimization context is rebuilt from
+   * these assertions afterwards. The terms are referenced until their level is popped.
+   */
+  private final List<List<Assertion>> levels = new ArrayList<>();
+
+  private enum AssertionKind {
+    CONSTRAINT,
+    MAXIMIZE,
+    MINIMIZE
+  }
+
+  private static final class Assertion {
+    private final AssertionKind kind;
+    private final long term;
+
+    private Assertion(AssertionKind pKind, long pTerm) {
+      kind = pKind;
+      term = pTerm;
+    }
+  }
+
+  /** The configured priority of objectives, restored after queries with another priority. */
+  private String objectivePriority = "box";
+
+  /** Whether the Pareto front is currently enumerated, i.e., the priority is set to Pareto. */
+  private boolean paretoActive = false;
+
+  /** Counts the enumerations of the Pareto front, to detect outdated enumerations. */
+  private int paretoGeneration = 0;
 
   Z3OptimizationProver(
       Z3FormulaCreator creator,
@@ -42,34 +83,64 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
     z3optSolver = Native.mkOptimize(z3context);
     Native.optimizeIncRef(z3context, z3optSolver);
     logger = pLogger;
+    levels.add(new ArrayList<>());
+  }
+
+  /** Assert the term in the optimization context and record it on the current level. */
+  private int assertAndRecord(AssertionKind pKind, long pTerm) {
+    int handle = assertOnSolver(pKind, pTerm);
+    Native.incRef(z3context, pTerm);
+    levels.get(levels.size() - 1).add(new Assertion(pKind, pTerm));
+    return handle;
+  }
+
+  private int assertOnSolver(AssertionKind pKind, long pTerm) {
+    switch (pKind) {
+      case CONSTRAINT:
+        Native.optimizeAssert(z3context, z3optSolver, pTerm);
+        return 0;
+      case MAXIMIZE:
+        return Native.optimizeMaximize(z3context, z3optSolver, pTerm);
+      case MINIMIZE:
+        return Native.optimizeMinimize(z3context, z3optSolver, pTerm);
+      default:
+        throw new AssertionError("unexpected assertion " + pKind);
+    }
   }
 
   @Override
   @Nullable
   public Void addConstraint(BooleanFormula constraint) {
     Preconditions.checkState(!closed);
-    long z3Constraint = creator.extractInfo(constraint);
-    Native.optimizeAssert(z3context, z3optSolver, z3Constraint);
+    endParetoFront();
+    assertAndRecord(AssertionKind.CONSTRAINT, creator.extractInfo(constraint));
     return null;
   }
 
   @Override
   public int maximize(Formula objective) {
     Preconditions.checkState(!closed);
+    endParetoFront();
     Z3Formula z3Objective = (Z3Formula) objective;
-    return Native.optimizeMaximize(z3context, z3optSolver, z3Objective.getFormulaInfo());
+    return assertAndRecord(AssertionKind.MAXIMIZE, z3Objective.getFormulaInfo());
   }
 
   @Override
   public int minimize(Formula objective) {
     Preconditions.checkState(!closed);
+    endParetoFront();
     Z3Formula z3Objective = (Z3Formula) objective;
-    return Native.optimizeMinimize(z3context, z3optSolver, z3Objective.getFormulaInfo());
+    return assertAndRecord(AssertionKind.MINIMIZE, z3Objective.getFormulaInfo());
   }
 
   @Override
   public OptStatus check() throws InterruptedException, Z3SolverException {
     Preconditions.checkState(!closed);
+    endParetoFront();
+    return optimize();
+  }
+
+  private OptStatus optimize() throws InterruptedException, Z3SolverException {
     int status;
     try {
       status =
@@ -96,22 +167,152 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
     }
   }
 
+  @Override
+  public OptStatus check(ObjectivePriority pPriority)
+      throws InterruptedException, Z3SolverException {
+    Preconditions.checkState(!closed);
+    endParetoFront();
+    switch (pPriority) {
+      case LEXICOGRAPHIC:
+        setParam(PRIORITY_KEY, "lex");
+        break;
+      case BOX:
+        setParam(PRIORITY_KEY, "box");
+        break;
+      default:
+        throw new AssertionError("unexpected priority " + pPriority);
+    }
+    try {
+      return optimize();
+    } finally {
+      setParam(PRIORITY_KEY, objectivePriority);
+    }
+  }
+
+  @Override
+  public Stream<ImmutableList<Rational>> paretoFront() {
+    Preconditions.checkState(!closed);
+    endParetoFront();
+    setParam(PRIORITY_KEY, "pareto");
+    paretoActive = true;
+    final int generation = ++paretoGeneration;
+
+    // Z3 returns the next point of the Pareto front for each query
+    Iterator<ImmutableList<Rational>> points =
+        new AbstractIterator<>() {
+          @Override
+          protected ImmutableList<Rational> computeNext() {
+            Preconditions.checkState(
+                paretoActive && generation == paretoGeneration,
+                "prover was modified during enumeration");
+            OptStatus status;
+            try {
+              status = optimize();
+            } catch (SolverException e) {
+              endParetoFront();
+              throw new IllegalStateException(e);
+            } catch (InterruptedException e) {
+              endParetoFront();
+              Thread.currentThread().interrupt();
+              throw new IllegalStateException(e);
+            }
+            switch (status) {
+              case OPT:
+                return getObjectiveValues();
+              case UNSAT:
+                endParetoFront();
+                return endOfData();
+              default:
+                endParetoFront();
+                throw new IllegalStateException("Pareto front could not be computed");
+            }
+          }
+        };
+    return Streams.stream(points)
+        .onClose(
+            () -> {
+              if (!closed && generation == paretoGeneration) {
+                endParetoFront();
+              }
+            });
+  }
+
+  /**
+   * Reset the optimization context after an enumeration of the Pareto front, also if the stream
+   * was abandoned without closing it. Z3 continues an unfinished enumeration with the next query
+   * independent of the priority, thus a fresh context with the configured priority replaces it,
+   * and all levels with their constraints and objectives are asserted again in their order.
+   */
+  private void endParetoFront() {
+    if (paretoActive) {
+      paretoActive = false;
+      Native.optimizeDecRef(z3context, z3optSolver);
+      z3optSolver = Native.mkOptimize(z3context);
+      Native.optimizeIncRef(z3context, z3optSolver);
+      setParam(PRIORITY_KEY, objectivePriority);
+      for (int i = 0; i < levels.size(); i++) {
+        if (i > 0) {
+          Native.optimizePush(z3context, z3optSolver);
+        }
+        for (Assertion assertion : levels.get(i)) {
+          assertOnSolver(assertion.kind, assertion.term);
+        }
+      }
+    }
+  }
+
+  private ImmutableList<Rational> getObjectiveValues() {
+    long objectives = Native.optimizeGetObjectives(z3context, z3optSolver);
+    Native.astVectorIncRef(z3context, objectives);
+    try {
+      ImmutableList.Builder<Rational> values = ImmutableList.builder();
+      for (int i = 0; i < Native.astVectorSize(z3context, objectives); i++) {
+        values.add(
+            upper(i, Rational.ZERO)
+                .orElseThrow(() -> new IllegalStateException("unbounded objective")));
+      }
+      return values.build();
+    } finally {
+      Native.astVectorDecRef(z3context, objectives);
+    }
+  }
+
   @Override
   public void push() {
     Preconditions.checkState(!closed);
+    endParetoFront();
     Native.optimizePush(z3context, z3optSolver);
+    levels.add(new ArrayList<>());
   }
 
   @Override
   public void pop() {
     Preconditions.checkState(!closed);
+    endParetoFront();
     Native.optimizePop(z3context, z3optSolver);
+    releaseLevel(levels.remove(levels.size() - 1));
+  }
+
+  private void releaseLevel(List<Assertion> pLevel) {
+    for (Assertion assertion : pLevel) {
+      Native.decRef(z3context, assertion.term);
+    }
   }
 
   @Override
   public boolean isUnsat() throws Z3SolverException, InterruptedException {
     Preconditions.checkState(!closed);
-    return check() == OptStatus.UNSAT;
+    OptStatus status = check();
+    if (status == OptStatus.UNDEF && (shouldInterruptBoundedCheck() || isResourceLimitExceeded())) {
+      throw new Z3SolverException("Limit of bounded satisfiability check exceeded");
+    }
+    return status == OptStatus.UNSAT;
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    Preconditions.checkState(!closed);
+    return collectStatistics(Native.optimizeGetStatistics(z3context, z3optSolver));
   }
 
   @Override
@@ -173,7 +374,17 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
 
   @Override
   protected void assertContraint(long negatedModel) {
-    Native.optimizeAssert(z3context, z3optSolver, negatedModel);
+    assertAndRecord(AssertionKind.CONSTRAINT, negatedModel);
+  }
+
+  @Override
+  protected void setSolverParams(long params) {
+    Native.optimizeSetParams(z3context, z3optSolver, params);
+  }
+
+  void setObjectivePriority(String pPriority) {
+    objectivePriority = pPriority;
+    setParam(PRIORITY_KEY, pPriority);
   }
 
   void setParam(String key, String value) {
@@ -200,6 +411,11 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
   @Override
   public void close() {
     Preconditions.checkState(!closed);
+    paretoActive = false;
+    for (List<Assertion> level : levels) {
+      releaseLevel(level);
+    }
+    levels.clear();
     Native.optimizeDecRef(z3context, z3optSolver);
     closed = true;
   }
@@ -28,6 +28,9 @@ class Z3RationalFormulaManager extends Z3NumeralFormulaManager<NumeralFormula, R
 
   @Override
   protected Long makeNumberImpl(double pNumber) {
+    if (isLongValue(pNumber)) {
+      return makeNumberImpl((long) pNumber);
+    }
     return makeNumberImpl(Double.toString(pNumber));
   }
 
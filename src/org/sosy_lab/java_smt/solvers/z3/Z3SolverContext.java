@@ -59,7 +59,6 @@ final class Z3SolverContext extends AbstractSolverContext {
   private boolean closed = false;
 
   private static final String OPT_ENGINE_CONFIG_KEY = "optsmt_engine";
-  private static final String OPT_PRIORITY_CONFIG_KEY = "priority";
 
   @Options(prefix = "solver.z3")
   private static class ExtraOptions {
@@ -242,7 +241,7 @@ final class Z3SolverContext extends AbstractSolverContext {
     Z3OptimizationProver out =
         new Z3OptimizationProver(creator, logger, z3params, manager, options);
     out.setParam(OPT_ENGINE_CONFIG_KEY, this.optimizationEngine);
-    out.setParam(OPT_PRIORITY_CONFIG_KEY, this.objectivePrioritizationMode);
+    out.setObjectivePriority(this.objectivePrioritizationMode);
     return out;
   }
 
@@ -277,4 +276,14 @@ final class Z3SolverContext extends AbstractSolverContext {
   protected boolean supportsAssumptionSolving() {
     return true;
   }
+  @Override
+  protected boolean supportsNaryConjunction() {
+    return true;
+  }
+  @Override
+  protected boolean supportsObjectivePriorities() {
+    return true;
+  }
+
+
 }
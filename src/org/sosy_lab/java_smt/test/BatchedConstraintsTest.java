@@ -0,0 +1,100 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+@RunWith(Parameterized.class)
+public class BatchedConstraintsTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+  }
+
+  @Test
+  public void testBatchedConstraints() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.BATCH_CONSTRAINTS)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      for (int i = 0; i < 100; i++) {
+        prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(i)));
+      }
+      assertThat(prover).isSatisfiable();
+
+      prover.push();
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(99)));
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+
+      // constraints that are popped before the next check are never asserted
+      prover.push();
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(0)));
+      prover.pop();
+      assertThat(prover).isSatisfiable();
+
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(50)));
+      prover.push();
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+      assertThat(prover).isUnsatisfiable();
+
+      // only solvers with native n-ary conjunctions batch the constraints
+      boolean batched =
+          ImmutableList.of(Solvers.Z3, Solvers.YICES2, Solvers.CVC4, Solvers.SMTINTERPOL)
+              .contains(solver);
+      assertThat(prover.getStatistics().containsKey("batched constraint flushes"))
+          .isEqualTo(batched);
+    }
+  }
+
+  @Test
+  public void testUnsatCoreOfBatchedConstraints() throws SolverException, InterruptedException {
+    requireUnsatCore();
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(
+            ProverOptions.BATCH_CONSTRAINTS, ProverOptions.GENERATE_UNSAT_CORE)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      BooleanFormula lower = imgr.greaterThan(x, imgr.makeNumber(10));
+      BooleanFormula upper = imgr.lessThan(x, imgr.makeNumber(5));
+      prover.addConstraint(imgr.greaterThan(x, imgr.makeNumber(0)));
+      prover.addConstraint(lower);
+      prover.addConstraint(upper);
+      assertThat(prover).isUnsatisfiable();
+      assertThat(prover.getUnsatCore()).containsAtLeast(lower, upper);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.ObjectivePriority;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SolverUtils;
+
+@RunWith(Parameterized.class)
+public class BinarySearchOptimizationTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+    requireModel();
+  }
+
+  @Test
+  public void testMaximize() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.addConstraint(imgr.lessOrEquals(x, imgr.makeNumber(37)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(-5)));
+      int handle = prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handle, Rational.ZERO)).hasValue(Rational.ofString("37"));
+      assertThat(prover.lower(handle, Rational.ZERO)).hasValue(Rational.ofString("37"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(37));
+      }
+    }
+  }
+
+  @Test
+  public void testMinimizeWithPushPop() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(3)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(4)));
+      int handle = prover.minimize(imgr.add(x, y));
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(handle, Rational.ZERO)).hasValue(Rational.ofString("7"));
+
+      prover.push();
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(100)));
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(handle, Rational.ZERO)).hasValue(Rational.ofString("104"));
+      prover.pop();
+
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handle, Rational.ZERO)).hasValue(Rational.ofString("7"));
+    }
+  }
+
+  @Test
+  public void testLexicographicObjectives() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context, Duration.ofSeconds(60))) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(10)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      int first = prover.maximize(x);
+      int second = prover.maximize(y);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(first, Rational.ZERO)).hasValue(Rational.ofString("10"));
+      assertThat(prover.upper(second, Rational.ZERO)).hasValue(Rational.ZERO);
+    }
+  }
+
+  @Test
+  public void testLexicographicObjectivesAfterUnsatProbe()
+      throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      // the first model is already optimal for x, thus its search ends with an unsatisfiable probe
+      prover.addConstraint(imgr.equal(x, imgr.makeNumber(3)));
+      prover.addConstraint(imgr.lessOrEquals(y, imgr.add(x, imgr.makeNumber(2))));
+      int first = prover.maximize(x);
+      int second = prover.maximize(y);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(first, Rational.ZERO)).hasValue(Rational.ofString("3"));
+      assertThat(prover.upper(second, Rational.ZERO)).hasValue(Rational.ofString("5"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(3));
+        assertThat(model.evaluate(y)).isEqualTo(BigInteger.valueOf(5));
+      }
+    }
+  }
+
+  @Test
+  public void testUnbounded() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(10)));
+      int handle = prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handle, Rational.ZERO)).isEmpty();
+    }
+  }
+
+  @Test
+  public void testUnsat() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(10)));
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(10)));
+      prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.UNSAT);
+    }
+  }
+
+  @Test
+  public void testBoxObjectives() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(10)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      int first = prover.maximize(x);
+      int second = prover.maximize(y);
+      assertThat(prover.check(ObjectivePriority.BOX)).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(first, Rational.ZERO)).hasValue(Rational.ofString("10"));
+      assertThat(prover.upper(second, Rational.ZERO)).hasValue(Rational.ofString("10"));
+    }
+  }
+
+  @Test
+  public void testParetoFront() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover =
+        SolverUtils.binarySearchOptimizationProver(context)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(2)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      prover.maximize(x);
+      prover.minimize(imgr.negate(y));
+
+      try (Stream<ImmutableList<Rational>> front = prover.paretoFront()) {
+        assertThat(front.collect(ImmutableList.toImmutableList()))
+            .containsExactly(
+                ImmutableList.of(Rational.ZERO, Rational.ofString("-2")),
+                ImmutableList.of(Rational.ONE, Rational.ofString("-1")),
+                ImmutableList.of(Rational.ofString("2"), Rational.ZERO));
+      }
+      assertThat(prover.isUnsat()).isFalse();
+    }
+  }
+}
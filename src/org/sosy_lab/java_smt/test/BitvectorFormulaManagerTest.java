@@ -130,6 +130,30 @@ public class BitvectorFormulaManagerTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void bvLongValues() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      assertThat(prover).isSatisfiable();
+      try (Model m = prover.getModel()) {
+        for (int size : new int[] {8, 31, 32, 63, 64, 65, 100}) {
+          long max = size >= 64 ? Long.MAX_VALUE : (1L << (size - 1)) - 1;
+          for (long value : new long[] {0, 1, 42, max, -1, -max - 1}) {
+            BigInteger expected = BigInteger.valueOf(value);
+            if (value < 0) {
+              expected = expected.add(BigInteger.ONE.shiftLeft(size));
+            }
+            assertWithMessage("value %s of size %s", value, size)
+                .that(m.evaluate(bvmgr.makeBitvector(size, value)))
+                .isEqualTo(expected);
+            assertWithMessage("value %s of size %s", value, size)
+                .that(m.evaluate(bvmgr.makeBitvector(size, BigInteger.valueOf(value))))
+                .isEqualTo(expected);
+          }
+        }
+      }
+    }
+  }
+
   @Test
   public void bvModelValue32bit() throws SolverException, InterruptedException {
     BitvectorFormula var = bvmgr.makeVariable(32, "var");
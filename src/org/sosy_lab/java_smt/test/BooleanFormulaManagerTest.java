@@ -11,6 +11,7 @@ package org.sosy_lab.java_smt.test;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.truth.Truth;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.AssumptionViolatedException;
 import org.junit.Test;
@@ -94,6 +95,26 @@ public class BooleanFormulaManagerTest extends SolverBasedTest0 {
     assertThatFormula(terms.stream().collect(bmgr.toDisjunction())).isEqualTo(bmgr.or(terms));
   }
 
+  @Test
+  public void testManyOperands() throws SolverException, InterruptedException {
+    List<BooleanFormula> variables = new ArrayList<>();
+    List<BooleanFormula> negations = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      BooleanFormula variable = bmgr.makeVariable("v" + i);
+      variables.add(variable);
+      negations.add(bmgr.not(variable));
+    }
+    BooleanFormula conjunction = bmgr.and(variables);
+    BooleanFormula disjunction = bmgr.or(variables);
+
+    assertThatFormula(conjunction).implies(disjunction);
+    for (int i : new int[] {0, 50, 99}) {
+      assertThatFormula(bmgr.and(conjunction, negations.get(i))).isUnsatisfiable();
+    }
+    assertThatFormula(bmgr.and(disjunction, bmgr.and(negations))).isUnsatisfiable();
+    assertThatFormula(bmgr.and(disjunction, bmgr.and(negations.subList(1, 100)))).isSatisfiable();
+  }
+
   @Test
   public void testConjunctionArgsExtractionEmpty() throws SolverException, InterruptedException {
     requireVisitor();
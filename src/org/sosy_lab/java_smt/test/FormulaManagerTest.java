@@ -32,6 +32,7 @@ import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.SolverException;
 
 @RunWith(Parameterized.class)
@@ -144,6 +145,42 @@ public class FormulaManagerTest extends SolverBasedTest0 {
     assertThatFormula(out2).isEquivalentTo(out);
   }
 
+  @Test
+  public void testSubstitutionOnSharedDag() throws SolverException, InterruptedException {
+    // Boolector does not support substitution
+    assume().that(solverToUse()).isNotEqualTo(Solvers.BOOLECTOR);
+    requireIntegers();
+
+    // each term occurs twice in its successor, thus the tree of the formula is exponential
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula term = x;
+    IntegerFormula expected = y;
+    for (int i = 0; i < 100; i++) {
+      term = imgr.add(term, imgr.multiply(imgr.makeNumber(2), term));
+      expected = imgr.add(expected, imgr.multiply(imgr.makeNumber(2), expected));
+    }
+    BooleanFormula input = imgr.equal(term, imgr.makeNumber(0));
+
+    BooleanFormula out = mgr.substitute(input, ImmutableMap.of(x, y));
+    assertThatFormula(out).isEquivalentTo(imgr.equal(expected, imgr.makeNumber(0)));
+    assertThat(mgr.extractVariables(out)).containsExactly("y", y);
+  }
+
+  @Test
+  public void testSubstitutionWithRationalTerm() throws SolverException, InterruptedException {
+    // Yices substitutes natively only replacements of a subtype, the solver rejects others
+    assume().that(solverToUse()).isEqualTo(Solvers.YICES2);
+    requireRationals();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    RationalFormula r = rmgr.makeVariable("r");
+    BooleanFormula input = imgr.greaterThan(x, imgr.makeNumber(0));
+
+    BooleanFormula out = mgr.substitute(input, ImmutableMap.of(x, r));
+    assertThatFormula(out).isEquivalentTo(rmgr.greaterThan(r, rmgr.makeNumber(0)));
+  }
+
   @Test
   public void formulaEqualsAndHashCode() {
     // Solvers without integers (Boolector) get their own test below
@@ -0,0 +1,225 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.ArrayFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FloatingPointFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.utils.GroundTermEvaluator;
+import org.sosy_lab.java_smt.utils.GroundTermEvaluator.Term;
+import org.sosy_lab.java_smt.utils.SolverUtils;
+
+@RunWith(Parameterized.class)
+public class GroundTermEvaluatorTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  private static final FloatingPointType DOUBLE =
+      FormulaType.getDoublePrecisionFloatingPointType();
+
+  private GroundTermEvaluator evaluator;
+
+  @Before
+  public void setUp() {
+    requireVisitor();
+    evaluator = SolverUtils.groundTermEvaluator(mgr);
+  }
+
+  @Test
+  public void testIntegerArithmetic() {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula f =
+        bmgr.and(
+            imgr.greaterThan(imgr.add(x, imgr.multiply(imgr.makeNumber(2), y)), imgr.makeNumber(5)),
+            bmgr.or(b, imgr.equal(imgr.subtract(x, y), imgr.makeNumber(1))));
+
+    Term term = evaluator.compile(f);
+    assertThat(term.isSatisfiedBy(ImmutableMap.of(x, 3, y, 2, b, false))).isTrue();
+    assertThat(term.isSatisfiedBy(ImmutableMap.of(x, 3, y, 1, b, false))).isFalse();
+    assertThat(term.isSatisfiedBy(ImmutableMap.of(x, 10, y, 0, b, false))).isFalse();
+    assertThat(term.isSatisfiedBy(ImmutableMap.of(x, 10, y, 0, b, true))).isTrue();
+
+    IntegerFormula sum = imgr.add(imgr.negate(x), imgr.multiply(y, imgr.makeNumber(3)));
+    assertThat(evaluator.evaluate(sum, ImmutableMap.of(x, 7, y, BigInteger.TEN)))
+        .isEqualTo(BigInteger.valueOf(23));
+  }
+
+  @Test
+  public void testRationalArithmetic() {
+    requireRationals();
+    RationalFormula r = rmgr.makeVariable("r");
+    RationalFormula s = rmgr.makeVariable("s");
+    ImmutableMap<RationalFormula, Rational> assignment =
+        ImmutableMap.of(r, Rational.ofLongs(1, 3), s, Rational.ofLongs(1, 2));
+
+    assertThat(evaluator.evaluate(rmgr.add(r, rmgr.multiply(s, rmgr.makeNumber(2))), assignment))
+        .isEqualTo(Rational.ofLongs(4, 3));
+    assertThat(evaluator.evaluate(rmgr.divide(r, s), assignment))
+        .isEqualTo(Rational.ofLongs(2, 3));
+    assertThat(evaluator.evaluate(rmgr.lessThan(r, s), assignment)).isEqualTo(true);
+    assertThat(evaluator.evaluate(rmgr.equal(rmgr.subtract(s, r), r), assignment))
+        .isEqualTo(false);
+  }
+
+  @Test
+  public void testFloatingPointArithmetic() {
+    requireFloats();
+    FloatingPointFormula x = fpmgr.makeVariable("x", DOUBLE);
+    FloatingPointFormula y = fpmgr.makeVariable("y", DOUBLE);
+    ImmutableMap<FloatingPointFormula, Double> assignment = ImmutableMap.of(x, 1.5, y, -2.25);
+
+    assertThat(evaluator.evaluate(fpmgr.add(x, y), assignment)).isEqualTo(-0.75);
+    assertThat(evaluator.evaluate(fpmgr.multiply(x, y), assignment)).isEqualTo(-3.375);
+    assertThat(evaluator.evaluate(fpmgr.abs(y), assignment)).isEqualTo(2.25);
+    assertThat(evaluator.evaluate(fpmgr.lessThan(y, x), assignment)).isEqualTo(true);
+    assertThat(evaluator.evaluate(fpmgr.max(x, y), assignment)).isEqualTo(1.5);
+    assertThat(evaluator.evaluate(fpmgr.min(x, y), assignment)).isEqualTo(-2.25);
+  }
+
+  @Test
+  public void testFloatingPointMaxAndMinWithNaN() {
+    requireFloats();
+    FloatingPointFormula x = fpmgr.makeVariable("x", DOUBLE);
+    FloatingPointFormula y = fpmgr.makeVariable("y", DOUBLE);
+    FloatingPointFormula max = fpmgr.max(x, y);
+    FloatingPointFormula min = fpmgr.min(x, y);
+
+    // unlike Math.max and Math.min, the result is the operand that is not NaN
+    ImmutableMap<FloatingPointFormula, Double> leftNaN = ImmutableMap.of(x, Double.NaN, y, 1.0);
+    assertThat(evaluator.evaluate(max, leftNaN)).isEqualTo(1.0);
+    assertThat(evaluator.evaluate(min, leftNaN)).isEqualTo(1.0);
+    ImmutableMap<FloatingPointFormula, Double> rightNaN = ImmutableMap.of(x, -1.0, y, Double.NaN);
+    assertThat(evaluator.evaluate(max, rightNaN)).isEqualTo(-1.0);
+    assertThat(evaluator.evaluate(min, rightNaN)).isEqualTo(-1.0);
+    ImmutableMap<FloatingPointFormula, Double> bothNaN =
+        ImmutableMap.of(x, Double.NaN, y, Double.NaN);
+    assertThat(evaluator.evaluate(max, bothNaN)).isEqualTo(Double.NaN);
+    assertThat(evaluator.evaluate(min, bothNaN)).isEqualTo(Double.NaN);
+  }
+
+  @Test
+  public void testSharedSubterms() {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula term = x;
+    for (int i = 0; i < 50; i++) {
+      // without sharing, the formula would have 2^50 nodes
+      term = imgr.add(term, term);
+    }
+    assertThat(evaluator.evaluate(term, ImmutableMap.of(x, 1)))
+        .isEqualTo(BigInteger.ONE.shiftLeft(50));
+  }
+
+  @Test
+  public void testBitvectors() {
+    requireBitvectors();
+    BitvectorFormula x = bvmgr.makeVariable(8, "x");
+    BitvectorFormula y = bvmgr.makeVariable(8, "y");
+    BitvectorFormula sum = bvmgr.add(x, y);
+
+    assertThat(evaluator.evaluate(sum, ImmutableMap.of(x, 200, y, 100)))
+        .isEqualTo(BigInteger.valueOf(44));
+    assertThat(evaluator.evaluate(bvmgr.lessThan(x, y, true), ImmutableMap.of(x, 200, y, 100)))
+        .isEqualTo(true);
+    assertThat(evaluator.evaluate(bvmgr.lessThan(x, y, false), ImmutableMap.of(x, 200, y, 100)))
+        .isEqualTo(false);
+    assertThat(evaluator.evaluate(bvmgr.divide(x, y, true), ImmutableMap.of(x, 250, y, 3)))
+        .isEqualTo(BigInteger.valueOf(254)); // -6 / 3 = -2
+    assertThat(evaluator.evaluate(bvmgr.concat(x, y), ImmutableMap.of(x, 1, y, 2)))
+        .isEqualTo(BigInteger.valueOf(258));
+  }
+
+  @Test
+  public void testBitvectorExtraction() {
+    requireBitvectors();
+    BitvectorFormula x = bvmgr.makeVariable(8, "x");
+    ImmutableMap<BitvectorFormula, Integer> assignment = ImmutableMap.of(x, 0b1011_0100);
+
+    assertThat(evaluator.evaluate(bvmgr.extract(x, 5, 2, false), assignment))
+        .isEqualTo(BigInteger.valueOf(0b1101));
+    assertThat(evaluator.evaluate(bvmgr.extract(x, 7, 4, false), assignment))
+        .isEqualTo(BigInteger.valueOf(0b1011));
+    assertThat(evaluator.evaluate(bvmgr.extract(x, 3, 0, false), assignment))
+        .isEqualTo(BigInteger.valueOf(0b0100));
+    assertThat(evaluator.evaluate(bvmgr.extract(x, 6, 6, false), assignment))
+        .isEqualTo(BigInteger.ZERO);
+  }
+
+  @Test
+  public void testArrays() {
+    requireIntegers();
+    requireArrays();
+    ArrayFormula<IntegerFormula, IntegerFormula> a =
+        amgr.makeArray("a", FormulaType.IntegerType, FormulaType.IntegerType);
+    IntegerFormula i = imgr.makeVariable("i");
+    IntegerFormula j = imgr.makeVariable("j");
+    IntegerFormula select = amgr.select(amgr.store(a, i, imgr.makeNumber(5)), j);
+
+    GroundTermEvaluator.ArrayValue array =
+        new GroundTermEvaluator.ArrayValue(
+            ImmutableMap.of(BigInteger.ONE, BigInteger.TEN), BigInteger.ZERO);
+    assertThat(evaluator.evaluate(select, ImmutableMap.of(a, array, i, 2, j, 1)))
+        .isEqualTo(BigInteger.TEN);
+    assertThat(evaluator.evaluate(select, ImmutableMap.of(a, array, i, 1, j, 1)))
+        .isEqualTo(BigInteger.valueOf(5));
+    assertThat(evaluator.evaluate(select, ImmutableMap.of(a, array, i, 1, j, 3)))
+        .isEqualTo(BigInteger.ZERO);
+  }
+
+  @Test
+  public void testArraysWithIntegralIndices() {
+    requireIntegers();
+    requireArrays();
+    ArrayFormula<IntegerFormula, IntegerFormula> a =
+        amgr.makeArray("a", FormulaType.IntegerType, FormulaType.IntegerType);
+    IntegerFormula j = imgr.makeVariable("j");
+    IntegerFormula select = amgr.select(a, j);
+
+    // indices and elements of type Integer are normalized to BigInteger, like the index j
+    GroundTermEvaluator.ArrayValue array =
+        new GroundTermEvaluator.ArrayValue(ImmutableMap.of(1, 10, 2, 20), 0);
+    assertThat(evaluator.evaluate(select, ImmutableMap.of(a, array, j, 1)))
+        .isEqualTo(BigInteger.TEN);
+    assertThat(evaluator.evaluate(select, ImmutableMap.of(a, array, j, 3)))
+        .isEqualTo(BigInteger.ZERO);
+    assertThat(evaluator.evaluate(select, ImmutableMap.of(a, ImmutableMap.of(2L, 20L), j, 2)))
+        .isEqualTo(BigInteger.valueOf(20));
+  }
+}
@@ -0,0 +1,123 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+@RunWith(Parameterized.class)
+public class GuardedStackTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+  }
+
+  @Test
+  public void testPushPop() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.EMULATE_ASSERTION_STACK)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.addConstraint(imgr.greaterThan(x, imgr.makeNumber(0)));
+      assertThat(prover).isSatisfiable();
+
+      prover.push(imgr.lessThan(x, imgr.makeNumber(0)));
+      assertThat(prover).isUnsatisfiable();
+      prover.push(imgr.equal(x, imgr.makeNumber(1)));
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+
+      assertThat(prover).isSatisfiable();
+      prover.push(imgr.equal(x, imgr.makeNumber(1)));
+      assertThat(prover).isSatisfiable();
+      prover.pop();
+      assertThat(prover).isSatisfiable();
+    }
+  }
+
+  @Test
+  public void testManyLevels() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.EMULATE_ASSERTION_STACK)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+      // enough retired levels to trigger the garbage collection several times
+      for (int i = 0; i < 300; i++) {
+        prover.push(imgr.equal(x, imgr.makeNumber(i)));
+        prover.push(imgr.lessThan(x, imgr.makeNumber(i)));
+        assertThat(prover).isUnsatisfiable();
+        prover.pop();
+        assertThat(prover).isSatisfiable();
+        prover.pop();
+      }
+      prover.push(imgr.lessThan(x, imgr.makeNumber(0)));
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+      assertThat(prover).isSatisfiable();
+    }
+  }
+
+  @Test
+  public void testModelAndAssumptions() throws SolverException, InterruptedException {
+    requireModel();
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(
+            ProverOptions.EMULATE_ASSERTION_STACK, ProverOptions.GENERATE_MODELS)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.push(imgr.equal(x, imgr.makeNumber(5)));
+      BooleanFormula b = bmgr.makeVariable("b");
+      prover.addConstraint(bmgr.implication(b, imgr.equal(x, imgr.makeNumber(4))));
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(b))).isTrue();
+      assertThat(prover).isSatisfiable();
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(5));
+        for (ValueAssignment assignment : model) {
+          assertThat(assignment.getName()).isAnyOf("x", "b");
+        }
+        assertThat(model.toString()).doesNotContain("__GUARDED_STACK_");
+      }
+      for (ValueAssignment assignment : prover.getModelAssignments()) {
+        assertThat(assignment.getName()).isAnyOf("x", "b");
+      }
+      prover.pop();
+    }
+  }
+}
@@ -0,0 +1,132 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.sosy_lab.java_smt.SolverContextFactory.Solvers.BOOLECTOR;
+import static org.sosy_lab.java_smt.SolverContextFactory.Solvers.CVC4;
+import static org.sosy_lab.java_smt.SolverContextFactory.Solvers.PRINCESS;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SolverUtils;
+
+@RunWith(Parameterized.class)
+public class MaxSatOptimizationTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  private BooleanFormula a;
+  private BooleanFormula b;
+  private BooleanFormula c;
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+    requireVisitor();
+    assume()
+        .withMessage(
+            "Solver %s does not support unsat core generation over assumptions", solverToUse())
+        .that(solverToUse())
+        .isNoneOf(PRINCESS, BOOLECTOR, CVC4);
+    a = bmgr.makeVariable("a");
+    b = bmgr.makeVariable("b");
+    c = bmgr.makeVariable("c");
+  }
+
+  /** Penalty for violating the soft constraint. */
+  private IntegerFormula soft(BooleanFormula constraint, long weight) {
+    return bmgr.ifThenElse(constraint, imgr.makeNumber(0), imgr.makeNumber(weight));
+  }
+
+  /** Reward for satisfying the soft constraint. */
+  private IntegerFormula reward(BooleanFormula constraint, long weight) {
+    return bmgr.ifThenElse(constraint, imgr.makeNumber(weight), imgr.makeNumber(0));
+  }
+
+  @Test
+  public void testMinimizeViolations() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover = SolverUtils.maxSatOptimizationProver(context)) {
+      prover.addConstraint(bmgr.not(bmgr.and(a, b)));
+      prover.addConstraint(bmgr.not(bmgr.and(b, c)));
+      int handle = prover.minimize(imgr.sum(soft(a, 2), soft(b, 3), soft(c, 2)));
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(handle, Rational.ZERO)).hasValue(Rational.ofString("3"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(a)).isTrue();
+        assertThat(model.evaluate(b)).isFalse();
+        assertThat(model.evaluate(c)).isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void testMaximizeRewards() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover = SolverUtils.maxSatOptimizationProver(context)) {
+      prover.addConstraint(bmgr.not(bmgr.and(a, b)));
+      prover.addConstraint(bmgr.not(bmgr.and(b, c)));
+      int handle = prover.maximize(imgr.sum(reward(a, 2), reward(b, 5), reward(c, 2)));
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handle, Rational.ZERO)).hasValue(Rational.ofString("5"));
+    }
+  }
+
+  @Test
+  public void testLexicographicObjectives() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover = SolverUtils.maxSatOptimizationProver(context)) {
+      prover.addConstraint(bmgr.or(bmgr.not(a), bmgr.not(b), bmgr.not(c)));
+      int first = prover.minimize(imgr.sum(soft(a, 1), soft(b, 1)));
+      int second = prover.minimize(imgr.sum(soft(c, 1), soft(bmgr.not(a), 4)));
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(first, Rational.ZERO)).hasValue(Rational.ZERO);
+      assertThat(prover.lower(second, Rational.ZERO)).hasValue(Rational.ofString("5"));
+
+      prover.push();
+      prover.addConstraint(bmgr.not(b));
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(first, Rational.ZERO)).hasValue(Rational.ONE);
+      assertThat(prover.lower(second, Rational.ZERO)).hasValue(Rational.ofString("4"));
+      prover.pop();
+    }
+  }
+
+  @Test
+  public void testUnsatHardConstraints() throws SolverException, InterruptedException {
+    try (OptimizationProverEnvironment prover = SolverUtils.maxSatOptimizationProver(context)) {
+      prover.addConstraint(bmgr.and(a, bmgr.not(a)));
+      prover.minimize(soft(b, 1));
+      assertThat(prover.check()).isEqualTo(OptStatus.UNSAT);
+    }
+  }
+}
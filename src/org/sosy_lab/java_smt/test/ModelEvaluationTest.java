@@ -9,12 +9,17 @@
 package org.sosy_lab.java_smt.test;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
 import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.math.BigInteger;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -25,6 +30,7 @@ import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -74,6 +80,74 @@ public class ModelEvaluationTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testEvaluateAll() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula z = imgr.makeVariable("z");
+    BigInteger large = BigInteger.ONE.shiftLeft(70);
+    BooleanFormula xIsTen = imgr.equal(x, imgr.makeNumber(10));
+    List<Formula> formulas = ImmutableList.of(x, imgr.add(x, imgr.makeNumber(1)), z, xIsTen, x);
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(xIsTen, imgr.equal(z, imgr.makeNumber(large))));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        assertThat(m.evaluateAll(formulas))
+            .containsExactly(BigInteger.TEN, BigInteger.valueOf(11), large, true, BigInteger.TEN)
+            .inOrder();
+
+        long[] values = new long[formulas.size()];
+        BitSet written = m.evaluateAllAsLong(formulas, values);
+        assertThat(written.stream().boxed().collect(Collectors.toList()))
+            .containsExactly(0, 1, 4)
+            .inOrder();
+        assertThat(values[0]).isEqualTo(10);
+        assertThat(values[1]).isEqualTo(11);
+        assertThat(values[4]).isEqualTo(10);
+      }
+
+      // without memoized values, each value is evaluated as long directly
+      Model m = prover.getModel();
+      long[] values = new long[formulas.size()];
+      BitSet written = m.evaluateAllAsLong(formulas, values);
+      assertThat(written.stream().boxed().collect(Collectors.toList()))
+          .containsExactly(0, 1, 4)
+          .inOrder();
+      assertThat(values[1]).isEqualTo(11);
+
+      m.close();
+      assertThrows(IllegalStateException.class, () -> m.evaluateAll(formulas));
+    }
+  }
+
+  @Test
+  public void testEvaluateAsLong() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    BooleanFormula constraint =
+        bmgr.and(
+            imgr.equal(x, imgr.makeNumber(-5)),
+            imgr.equal(y, imgr.makeNumber(1L << 40)),
+            imgr.equal(z, imgr.makeNumber(BigInteger.ONE.shiftLeft(70))));
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(constraint);
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        assertThat(m.evaluateAsLong(x)).isEqualTo(-5);
+        assertThat(m.evaluateAsInt(x)).isEqualTo(-5);
+        assertThat(m.evaluateAsLong(imgr.add(x, y))).isEqualTo((1L << 40) - 5);
+        assertThrows(ArithmeticException.class, () -> m.evaluateAsInt(y));
+        assertThrows(ArithmeticException.class, () -> m.evaluateAsLong(z));
+      }
+    }
+  }
+
   @Test
   public void testGetSmallIntegersEvaluation1() throws SolverException, InterruptedException {
     requireIntegers();
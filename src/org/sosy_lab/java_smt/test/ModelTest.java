@@ -16,6 +16,7 @@ import static org.sosy_lab.java_smt.api.FormulaType.IntegerType;
 import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -407,6 +408,47 @@ public class ModelTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testLazyModelAccess() throws SolverException, InterruptedException {
+    Formula x;
+    Formula y;
+    BooleanFormula f;
+    if (imgr != null) {
+      x = imgr.makeVariable("x");
+      y = imgr.makeVariable("y");
+      f =
+          bmgr.and(
+              imgr.equal(imgr.makeVariable("x"), imgr.makeNumber(1)),
+              imgr.equal(imgr.makeVariable("x"), imgr.makeVariable("y")));
+    } else {
+      x = bvmgr.makeVariable(8, "x");
+      y = bvmgr.makeVariable(8, "y");
+      f =
+          bmgr.and(
+              bvmgr.equal(bvmgr.makeVariable(8, "x"), bvmgr.makeBitvector(8, 1)),
+              bvmgr.equal(bvmgr.makeVariable(8, "x"), bvmgr.makeVariable(8, "y")));
+    }
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(f);
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        ImmutableList<ValueAssignment> assignmentsOfX = m.getAssignments("x");
+        assertThat(assignmentsOfX).hasSize(1);
+        assertThat(assignmentsOfX.get(0).getValue()).isEqualTo(BigInteger.ONE);
+        assertThat(m.getAssignments("z")).isEmpty();
+        assertThat(m.getAssignments(ImmutableSet.of("x", "y"))).hasSize(2);
+        assertThat(m.getAssignmentsForKeys(ImmutableList.of(y)))
+            .containsExactlyElementsIn(m.getAssignments("y"));
+        assertThat(m.getAssignmentsForKeys(ImmutableList.of(x))).isEqualTo(assignmentsOfX);
+        assertThat(m.stream().collect(Collectors.toList()))
+            .containsExactlyElementsIn(prover.getModelAssignments())
+            .inOrder();
+      }
+    }
+  }
+
   @Test
   public void testEmptyStackModel() throws SolverException, InterruptedException {
     if (imgr != null) {
@@ -0,0 +1,105 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SolverUtils;
+
+@RunWith(Parameterized.class)
+public class MusExtractorTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  private List<BooleanFormula> constraints;
+  private List<BooleanFormula> expectedMus;
+
+  private void createConstraints() {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula d = bmgr.makeVariable("d");
+    expectedMus = ImmutableList.of(a, bmgr.implication(a, b), bmgr.not(b));
+    constraints =
+        ImmutableList.of(
+            c,
+            a,
+            bmgr.or(c, d),
+            bmgr.implication(a, b),
+            bmgr.implication(c, d),
+            d,
+            bmgr.not(b),
+            bmgr.or(a, d));
+  }
+
+  @Test
+  public void testSequentialMus() throws SolverException, InterruptedException {
+    requireModel();
+    createConstraints();
+    assertThat(SolverUtils.musExtractor(context).computeMus(constraints))
+        .containsExactlyElementsIn(expectedMus)
+        .inOrder();
+  }
+
+  @Test
+  public void testMusWithBackground() throws SolverException, InterruptedException {
+    requireModel();
+    createConstraints();
+    List<BooleanFormula> background = ImmutableList.of(expectedMus.get(2));
+    assertThat(SolverUtils.musExtractor(context).computeMus(background, constraints))
+        .containsExactlyElementsIn(expectedMus.subList(0, 2))
+        .inOrder();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSatisfiableConstraints() throws SolverException, InterruptedException {
+    requireModel();
+    createConstraints();
+    SolverUtils.musExtractor(context).computeMus(constraints.subList(0, 3));
+  }
+
+  @Test
+  public void testParallelMus()
+      throws SolverException, InterruptedException, InvalidConfigurationException {
+    requireModel();
+    requireParser();
+    createConstraints();
+    try (SolverContext worker1 = factory.generateContext();
+        SolverContext worker2 = factory.generateContext()) {
+      assertThat(
+              SolverUtils.musExtractor(context, ImmutableList.of(worker1, worker2))
+                  .computeMus(constraints))
+          .containsExactlyElementsIn(expectedMus)
+          .inOrder();
+    }
+  }
+}
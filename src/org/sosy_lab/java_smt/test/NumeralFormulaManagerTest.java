@@ -88,6 +88,24 @@ public class NumeralFormulaManagerTest extends SolverBasedTest0 {
     assertThatFormula(bmgr.and(imgr.distinct(symbols), bmgr.and(constraints))).isUnsatisfiable();
   }
 
+  @Test
+  public void sumTest() throws SolverException, InterruptedException {
+    requireIntegers();
+    List<IntegerFormula> numbers = new ArrayList<>();
+    List<IntegerFormula> symbols = new ArrayList<>();
+    for (int i = 1; i <= 100; i++) {
+      numbers.add(imgr.makeNumber(i));
+      symbols.add(imgr.makeVariable("x" + i));
+    }
+    assertThatFormula(imgr.equal(imgr.sum(numbers), imgr.makeNumber(5050))).isTautological();
+
+    IntegerFormula leftDeepSum = imgr.makeNumber(0);
+    for (IntegerFormula symbol : symbols) {
+      leftDeepSum = imgr.add(leftDeepSum, symbol);
+    }
+    assertThatFormula(imgr.equal(imgr.sum(symbols), leftDeepSum)).isTautological();
+  }
+
   @SuppressWarnings("CheckReturnValue")
   @Test(expected = Exception.class)
   public void failOnInvalidString() {
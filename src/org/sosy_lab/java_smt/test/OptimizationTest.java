@@ -12,8 +12,10 @@ import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Range;
 import java.math.BigInteger;
+import java.util.stream.Stream;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -27,6 +29,7 @@ import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.ObjectivePriority;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -220,4 +223,75 @@ public class OptimizationTest extends SolverBasedTest0 {
       assertThat(prover.upper(handle, Rational.ZERO)).hasValue(Rational.of(1));
     }
   }
+
+  @Test
+  public void testObjectivePriorities() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    try (OptimizationProverEnvironment prover = context.newOptimizationProverEnvironment()) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(10)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      int handleX = prover.maximize(x);
+      int handleY = prover.maximize(y);
+
+      assertThat(prover.check(ObjectivePriority.LEXICOGRAPHIC)).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handleX, Rational.ZERO)).hasValue(Rational.of(10));
+      assertThat(prover.upper(handleY, Rational.ZERO)).hasValue(Rational.ZERO);
+
+      assertThat(prover.check(ObjectivePriority.BOX)).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handleX, Rational.ZERO)).hasValue(Rational.of(10));
+      assertThat(prover.upper(handleY, Rational.ZERO)).hasValue(Rational.of(10));
+    }
+  }
+
+  @Test
+  public void testParetoFront() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    try (OptimizationProverEnvironment prover = context.newOptimizationProverEnvironment()) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(2)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      prover.maximize(x);
+      prover.maximize(y);
+
+      try (Stream<ImmutableList<Rational>> front = prover.paretoFront()) {
+        assertThat(front.collect(ImmutableList.toImmutableList()))
+            .containsExactly(
+                ImmutableList.of(Rational.ZERO, Rational.of(2)),
+                ImmutableList.of(Rational.ONE, Rational.ONE),
+                ImmutableList.of(Rational.of(2), Rational.ZERO));
+      }
+    }
+  }
+
+  @Test
+  public void testAbandonedParetoFront() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    try (OptimizationProverEnvironment prover = context.newOptimizationProverEnvironment()) {
+      IntegerFormula x = imgr.makeVariable("x");
+      IntegerFormula y = imgr.makeVariable("y");
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(2)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      int handleX = prover.maximize(x);
+      int handleY = prover.maximize(y);
+
+      // the stream is neither consumed nor closed
+      @SuppressWarnings("StreamResourceLeak")
+      Stream<ImmutableList<Rational>> front = prover.paretoFront();
+      assertThat(front.iterator().next()).hasSize(2);
+
+      // a later query must not continue the enumeration
+      assertThat(prover.check(ObjectivePriority.BOX)).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handleX, Rational.ZERO)).hasValue(Rational.of(2));
+      assertThat(prover.upper(handleY, Rational.ZERO)).hasValue(Rational.of(2));
+    }
+  }
 }
@@ -0,0 +1,189 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getLast;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Check sequence interpolation of synchronized contexts, computed either sequentially by a single
+ * prover or concurrently by several replicated provers.
+ */
+@RunWith(Parameterized.class)
+public class ParallelInterpolationTest extends SolverBasedTest0 {
+
+  private static final int LENGTH = 8;
+
+  @Parameters(name = "{0} {1}")
+  public static Iterable<Object[]> getAllSolvers() {
+    return Lists.cartesianProduct(Arrays.asList(Solvers.values()), ImmutableList.of(1, 3))
+        .stream()
+        .map(List::toArray)
+        .collect(toImmutableList());
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  /** The number of replicated provers, where a single prover disables parallel interpolation. */
+  @Parameter(1)
+  public int provers;
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.synchronize", "true")
+        .setOption("solver.synchronized.parallelInterpolationProvers", Integer.toString(provers));
+  }
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+    requireInterpolation();
+  }
+
+  /** The chain {@code x_0 = 0, x_1 = x_0 + 1, ..., x_(n-1) = x_(n-2) + 1}. */
+  private List<BooleanFormula> makeChain() {
+    List<BooleanFormula> chain = new ArrayList<>();
+    IntegerFormula previous = imgr.makeVariable("x0");
+    chain.add(imgr.equal(previous, imgr.makeNumber(0)));
+    for (int i = 1; i < LENGTH; i++) {
+      IntegerFormula current = imgr.makeVariable("x" + i);
+      chain.add(imgr.equal(current, imgr.add(previous, imgr.makeNumber(1))));
+      previous = current;
+    }
+    return chain;
+  }
+
+  private IntegerFormula lastOfChain() {
+    return imgr.makeVariable("x" + (LENGTH - 1));
+  }
+
+  @Test
+  public <T> void testSequenceInterpolation() throws SolverException, InterruptedException {
+    List<BooleanFormula> formulas = new ArrayList<>(makeChain());
+    formulas.add(imgr.lessThan(lastOfChain(), imgr.makeNumber(0)));
+
+    try (InterpolatingProverEnvironment<T> prover = newInterpolatingProver()) {
+      List<List<T>> partitions = new ArrayList<>();
+      for (BooleanFormula formula : formulas) {
+        partitions.add(ImmutableList.of(prover.push(formula)));
+      }
+      assertThat(prover.isUnsat()).isTrue();
+
+      List<BooleanFormula> itps = prover.getSeqInterpolants(partitions);
+      checkItpSequence(formulas, ImmutableList.of(), itps);
+
+      // the same sequence computed from one proof, one cut point after the other
+      List<BooleanFormula> sequentialItps = new ArrayList<>();
+      List<T> prefix = new ArrayList<>();
+      for (List<T> partition : partitions.subList(0, partitions.size() - 1)) {
+        prefix.addAll(partition);
+        sequentialItps.add(prover.getInterpolant(prefix));
+      }
+      checkItpSequence(formulas, ImmutableList.of(), sequentialItps);
+      assertThat(itps).hasSize(sequentialItps.size());
+
+      // a second interpolation reuses the satisfiability checks of all provers
+      checkItpSequence(formulas, ImmutableList.of(), prover.getSeqInterpolants(partitions));
+    }
+  }
+
+  @Test
+  public <T> void testSequenceInterpolationWithBackground()
+      throws SolverException, InterruptedException {
+    assume()
+        .withMessage("constraints outside of the partitions are only specified for replicas")
+        .that(provers)
+        .isGreaterThan(1);
+    List<BooleanFormula> formulas = makeChain();
+    BooleanFormula background = imgr.lessThan(lastOfChain(), imgr.makeNumber(LENGTH / 2));
+
+    try (InterpolatingProverEnvironment<T> prover = newInterpolatingProver()) {
+      prover.push(background);
+      List<List<T>> partitions = new ArrayList<>();
+      for (BooleanFormula formula : formulas) {
+        partitions.add(ImmutableList.of(prover.push(formula)));
+      }
+      assertThat(prover.isUnsat()).isTrue();
+
+      List<BooleanFormula> itps = prover.getSeqInterpolants(partitions);
+      checkItpSequence(formulas, ImmutableList.of(background), itps);
+    }
+  }
+
+  @Test
+  public <T> void testCancellation() throws InterruptedException, SolverException {
+    assume()
+        .withMessage("only replicas check for shutdown requests")
+        .that(provers)
+        .isGreaterThan(1);
+    List<BooleanFormula> formulas = new ArrayList<>(makeChain());
+    formulas.add(imgr.lessThan(lastOfChain(), imgr.makeNumber(0)));
+
+    try (InterpolatingProverEnvironment<T> prover = newInterpolatingProver()) {
+      List<List<T>> partitions = new ArrayList<>();
+      for (BooleanFormula formula : formulas) {
+        partitions.add(ImmutableList.of(prover.push(formula)));
+      }
+      assertThat(prover.isUnsat()).isTrue();
+
+      shutdownManager.requestShutdown("Shutdown Request");
+      assertThrows(InterruptedException.class, () -> prover.getSeqInterpolants(partitions));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> InterpolatingProverEnvironment<T> newInterpolatingProver() {
+    return (InterpolatingProverEnvironment<T>) context.newProverEnvironmentWithInterpolation();
+  }
+
+  /**
+   * Check that the interpolants form an inductive sequence for the formulas, where the background
+   * constraints belong to the B-part of each cut point.
+   */
+  private void checkItpSequence(
+      List<BooleanFormula> formulas, List<BooleanFormula> background, List<BooleanFormula> itps)
+      throws SolverException, InterruptedException {
+    assertThat(itps).hasSize(formulas.size() - 1);
+    assertThatFormula(bmgr.implication(formulas.get(0), itps.get(0))).isTautological();
+    for (int i = 1; i < itps.size(); i++) {
+      assertThatFormula(bmgr.implication(bmgr.and(itps.get(i - 1), formulas.get(i)), itps.get(i)))
+          .isTautological();
+    }
+    assertThatFormula(bmgr.and(getLast(itps), getLast(formulas), bmgr.and(background)))
+        .isUnsatisfiable();
+  }
+}
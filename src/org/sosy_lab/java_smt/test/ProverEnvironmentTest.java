@@ -23,6 +23,7 @@ import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -169,4 +170,28 @@ public class ProverEnvironmentTest extends SolverBasedTest0 {
       assertThat(unsatCore).containsExactly(bmgr.not(selector));
     }
   }
+
+  @Test
+  public void statisticsTest() throws SolverException, InterruptedException {
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.push(bmgr.or(b, c));
+      pe.push(bmgr.not(b));
+      assertThat(pe).isSatisfiable();
+      Map<String, Number> statistics = pe.getStatistics();
+      assertThat(statistics).isNotNull();
+      switch (solverToUse()) {
+        case Z3:
+          assertThat(statistics).containsKey("rlimit count");
+          break;
+        case MATHSAT5:
+        case SMTINTERPOL:
+          assertThat(statistics).isNotEmpty();
+          break;
+        default:
+          // other solvers provide no or only few statistics
+      }
+    }
+  }
 }
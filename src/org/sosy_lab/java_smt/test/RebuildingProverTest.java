@@ -0,0 +1,89 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
+
+import java.math.BigInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.rebuilding.RebuildingProver;
+
+@RunWith(Parameterized.class)
+public class RebuildingProverTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+  }
+
+  @Test
+  public void testRebuildKeepsStack() throws SolverException, InterruptedException {
+    requireModel();
+    try (ProverEnvironment prover =
+        new RebuildingProver(
+            () -> context.newProverEnvironment(ProverOptions.GENERATE_MODELS), 10, 4.0)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(3)));
+      prover.push(imgr.lessOrEquals(x, imgr.makeNumber(3)));
+      for (int i = 0; i < 25; i++) {
+        prover.push(imgr.lessThan(x, imgr.makeNumber(i)));
+        prover.isUnsat();
+        prover.pop();
+      }
+      assertThat(prover).isSatisfiable();
+      assertThat(prover.getStatistics()).containsEntry("prover rebuilds", 2);
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(3));
+      }
+
+      prover.pop();
+      prover.push(imgr.lessThan(x, imgr.makeNumber(3)));
+      assertThat(prover).isUnsatisfiable();
+    }
+  }
+
+  @Test
+  public void testProverOption() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.REBUILD_DEGRADED_PROVER)) {
+      IntegerFormula x = imgr.makeVariable("x");
+      prover.push(imgr.greaterThan(x, imgr.makeNumber(0)));
+      assertThat(prover).isSatisfiable();
+      prover.push(imgr.lessThan(x, imgr.makeNumber(0)));
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+      assertThat(prover).isSatisfiable();
+    }
+  }
+}
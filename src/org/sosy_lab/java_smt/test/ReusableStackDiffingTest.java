@@ -0,0 +1,89 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.reusableStack.ReusableStackDiffingProver;
+
+@RunWith(Parameterized.class)
+public class ReusableStackDiffingTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+  }
+
+  @Test
+  public void testQueriesWithCommonPrefix() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula positive = imgr.greaterThan(x, imgr.makeNumber(0));
+    BooleanFormula small = imgr.lessThan(x, imgr.makeNumber(10));
+    BooleanFormula large = imgr.greaterThan(x, imgr.makeNumber(20));
+    BooleanFormula negative = imgr.lessThan(x, imgr.makeNumber(0));
+
+    try (ReusableStackDiffingProver prover =
+        new ReusableStackDiffingProver(context.newProverEnvironment())) {
+      assertThat(prover.isUnsat(ImmutableList.of(positive, small))).isFalse();
+      assertThat(prover.isUnsat(ImmutableList.of(positive, small, large))).isTrue();
+      assertThat(prover.isUnsat(ImmutableList.of(positive, large))).isFalse();
+      assertThat(prover.isUnsat(ImmutableList.of(negative))).isFalse();
+      assertThat(prover.isUnsat(ImmutableList.of(negative, positive))).isTrue();
+      assertThat(prover.isUnsat(ImmutableList.of())).isFalse();
+      assertThat(prover.getStatistics()).containsEntry("reused stack levels", 4);
+    }
+  }
+
+  @Test
+  public void testSharedAndModifiedLevels() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula positive = imgr.greaterThan(x, imgr.makeNumber(0));
+    BooleanFormula small = imgr.lessThan(x, imgr.makeNumber(10));
+
+    try (ReusableStackDiffingProver prover =
+        new ReusableStackDiffingProver(context.newProverEnvironment())) {
+      // constraints on the initial level are shared by all queries
+      prover.addConstraint(imgr.greaterThan(x, imgr.makeNumber(5)));
+      assertThat(prover.isUnsat(ImmutableList.of(positive, small))).isFalse();
+
+      // a modified level is not reused
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(3)));
+      assertThat(prover.isUnsat()).isTrue();
+      assertThat(prover.isUnsat(ImmutableList.of(positive, small))).isFalse();
+
+      prover.push(imgr.lessThan(x, imgr.makeNumber(3)));
+      assertThat(prover.isUnsat()).isTrue();
+      assertThat(prover.isUnsat(ImmutableList.of(positive))).isFalse();
+    }
+  }
+}
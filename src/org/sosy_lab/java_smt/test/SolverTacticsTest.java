@@ -34,6 +34,9 @@ import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+import org.sosy_lab.java_smt.basicimpl.tactics.Preprocessor;
 
 @RunWith(Parameterized.class)
 @SuppressWarnings("LocalVariableName")
@@ -82,9 +85,64 @@ public class SolverTacticsTest extends SolverBasedTest0 {
     assertThat(checker.isInNNF()).isTrue();
   }
 
+  @Test
+  public void nnfTacticSharedSubformulasTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    // Z3 uses its own tactic
+    TruthJUnit.assume().that(solver).isNotEqualTo(Solvers.Z3);
+
+    // each level uses the previous level in both polarities
+    BooleanFormula f = bmgr.makeVariable("x0");
+    for (int i = 1; i <= 30; i++) {
+      f = bmgr.equivalence(f, bmgr.makeVariable("x" + i));
+    }
+    BooleanFormula notF = bmgr.not(f);
+
+    BooleanFormula nnf = mgr.applyTactic(notF, Tactic.NNF);
+    assertThatFormula(nnf).isEquivalentTo(notF);
+    NNFChecker checker = new NNFChecker(mgr);
+    checker.visit(nnf);
+    assertThat(checker.isInNNF()).isTrue();
+    assertThat(countSubformulas(nnf)).isAtMost(10 * countSubformulas(notF));
+  }
+
+  @Test
+  public void deeplyNestedFormulaTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    // Z3 uses its own tactics, and Princess hashes formulas recursively
+    TruthJUnit.assume().that(solver).isNoneOf(Solvers.Z3, Solvers.PRINCESS);
+
+    // deep enough to overflow the Java stack with a recursive traversal
+    BooleanFormula f = bmgr.makeVariable("x");
+    for (int i = 0; i < 10000; i++) {
+      BooleanFormula v = bmgr.makeVariable("v" + (i % 8));
+      f = bmgr.not(i % 2 == 0 ? bmgr.and(f, v) : bmgr.or(f, v));
+    }
+
+    BooleanFormula nnf = mgr.applyTactic(f, Tactic.NNF);
+    BooleanFormula cnf = mgr.applyTactic(f, Tactic.TSEITIN_CNF);
+    // the CNFs are flat, thus the solver can check them without deep recursion
+    assertThatFormula(cnf).isSatisfiable();
+    assertThatFormula(mgr.applyTactic(nnf, Tactic.TSEITIN_CNF)).isSatisfiable();
+  }
+
+  private int countSubformulas(Formula pFormula) {
+    int[] count = new int[1];
+    mgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            count[0]++;
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return count[0];
+  }
+
   @Test
   public void cnfTacticDefaultTest1() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
     BooleanFormula a = bmgr.makeVariable("a");
     BooleanFormula b = bmgr.makeVariable("b");
     BooleanFormula equiv_a_b = bmgr.equivalence(a, b);
@@ -105,7 +163,7 @@ public class SolverTacticsTest extends SolverBasedTest0 {
 
   @Test
   public void cnfTacticDefaultTest2() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
     BooleanFormula a = bmgr.makeVariable("a");
     BooleanFormula b = bmgr.makeVariable("b");
     BooleanFormula c = bmgr.makeVariable("c");
@@ -128,7 +186,7 @@ public class SolverTacticsTest extends SolverBasedTest0 {
 
   @Test
   public void cnfTacticDefaultTest3() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
     BooleanFormula x = bmgr.makeVariable("x");
     BooleanFormula y = bmgr.makeVariable("y");
     BooleanFormula z = bmgr.makeVariable("z");
@@ -148,6 +206,33 @@ public class SolverTacticsTest extends SolverBasedTest0 {
     assertThat(checker.isInCNF()).isTrue();
   }
 
+  @Test
+  public void cnfTacticSharedDefinitionsTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    // Z3 uses its own tactic
+    TruthJUnit.assume().that(solver).isNotEqualTo(Solvers.Z3);
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula f = bmgr.or(bmgr.and(a, b), bmgr.equivalence(b, c));
+    BooleanFormula notF = bmgr.not(f);
+
+    BooleanFormula cnf = mgr.applyTactic(f, Tactic.TSEITIN_CNF);
+    BooleanFormula cnfOfNegation = mgr.applyTactic(notF, Tactic.TSEITIN_CNF);
+    assertThatFormula(cnf).isEquisatisfiableTo(f);
+    assertThatFormula(cnfOfNegation).isEquisatisfiableTo(notF);
+    for (BooleanFormula result : ImmutableList.of(cnf, cnfOfNegation)) {
+      CNFChecker checker = new CNFChecker(mgr);
+      checker.visit(result);
+      assertThat(checker.isInCNF()).isTrue();
+    }
+
+    // both results use the same definitions for the shared subformulas
+    assertThat(mgr.extractVariables(cnfOfNegation).keySet())
+        .containsAtLeastElementsIn(mgr.extractVariables(cnf).keySet());
+    assertThatFormula(bmgr.and(cnf, cnfOfNegation)).isUnsatisfiable();
+  }
+
   @Test
   public void ufEliminationSimpleTest() throws SolverException, InterruptedException {
     requireIntegers();
@@ -240,6 +325,117 @@ public class SolverTacticsTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void constantFoldingTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula f =
+        bmgr.and(
+            imgr.equal(x, imgr.add(imgr.makeNumber(2), imgr.makeNumber(3))),
+            bmgr.or(imgr.lessThan(imgr.makeNumber(1), imgr.makeNumber(0)), bmgr.makeTrue()));
+
+    BooleanFormula folded = mgr.applyTactic(f, Tactic.CONSTANT_FOLDING);
+    assertThatFormula(folded).isEquivalentTo(f);
+    assertThatFormula(folded).isEquivalentTo(imgr.equal(x, imgr.makeNumber(5)));
+  }
+
+  @Test
+  public void solveEqualitiesTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    BooleanFormula f =
+        bmgr.and(
+            imgr.greaterThan(x, imgr.makeNumber(5)),
+            imgr.equal(x, imgr.add(y, imgr.makeNumber(1))),
+            imgr.lessThan(y, imgr.makeNumber(3)));
+
+    BooleanFormula solved = mgr.applyTactic(f, Tactic.SOLVE_EQUALITIES);
+    assertThatFormula(solved).isUnsatisfiable();
+    assertThat(mgr.extractVariables(solved)).doesNotContainKey("x");
+  }
+
+  @Test
+  public void eliminateUnconstrainedTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    BooleanFormula f =
+        bmgr.and(
+            imgr.equal(imgr.add(x, y), z),
+            imgr.greaterThan(y, imgr.makeNumber(3)),
+            imgr.lessThan(z, imgr.makeNumber(0)));
+
+    BooleanFormula eliminated = mgr.applyTactic(f, Tactic.ELIMINATE_UNCONSTRAINED);
+    assertThatFormula(eliminated).isEquisatisfiableTo(f);
+    assertThat(mgr.extractVariables(eliminated)).doesNotContainKey("x");
+  }
+
+  @Test
+  public void liftIteTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    BooleanFormula c = bmgr.makeVariable("c");
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula ite = bmgr.ifThenElse(c, imgr.makeNumber(1), x);
+    BooleanFormula f = imgr.equal(imgr.add(ite, imgr.makeNumber(2)), imgr.makeNumber(3));
+
+    BooleanFormula lifted = mgr.applyTactic(f, Tactic.LIFT_ITE);
+    assertThatFormula(lifted).isEquivalentTo(f);
+    BooleanFormula folded = mgr.applyTactic(lifted, Tactic.CONSTANT_FOLDING);
+    assertThatFormula(folded).isEquivalentTo(f);
+  }
+
+  @Test
+  public void boundedVariableEliminationTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula p = imgr.greaterThan(imgr.makeVariable("x"), imgr.makeNumber(0));
+    BooleanFormula f =
+        bmgr.and(bmgr.or(a, b), bmgr.or(bmgr.not(a), c), bmgr.or(bmgr.not(b), p), bmgr.not(c));
+
+    BooleanFormula eliminated = mgr.applyTactic(f, Tactic.BOUNDED_VARIABLE_ELIMINATION);
+    assertThatFormula(eliminated).isEquisatisfiableTo(f);
+    assertThat(mgr.extractVariables(eliminated)).doesNotContainKey("a");
+    assertThatFormula(bmgr.and(eliminated, bmgr.not(p))).isUnsatisfiable();
+  }
+
+  @Test
+  public void preprocessingTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula f =
+        bmgr.and(
+            imgr.equal(y, imgr.makeNumber(4)),
+            imgr.lessThan(bmgr.ifThenElse(c, y, imgr.makeNumber(7)), imgr.makeNumber(5)),
+            imgr.greaterThan(imgr.add(x, z), y));
+
+    Preprocessor preprocessor = new Preprocessor(mgr, true);
+    BooleanFormula preprocessed = preprocessor.apply(f, Tactic.PREPROCESSING);
+    assertThatFormula(preprocessed).isEquisatisfiableTo(f);
+    assertThatFormula(bmgr.and(preprocessed, bmgr.not(c))).isUnsatisfiable();
+    assertThat(preprocessor.getStatistics()).containsKey("SOLVE_EQUALITIES applications");
+    assertThat(preprocessor.getStatistics()).containsKey("SOLVE_EQUALITIES input size");
+
+    // the results are memoized
+    assertThat(preprocessor.apply(f, Tactic.PREPROCESSING)).isEqualTo(preprocessed);
+    assertThat(preprocessor.getStatistics()).containsKey("CONSTANT_FOLDING memo hits");
+    assertThatFormula(mgr.applyTactic(f, Tactic.PREPROCESSING)).isEquisatisfiableTo(f);
+    assertThat(mgr.getTacticStatistics()).containsKey("SOLVE_EQUALITIES applications");
+    assertThat(mgr.getTacticStatistics()).doesNotContainKey("SOLVE_EQUALITIES input size");
+  }
+
   private static class CNFChecker implements BooleanFormulaVisitor<Void> {
 
     private final BooleanFormulaManager bfmgr;
@@ -8,9 +8,12 @@
 
 package org.sosy_lab.java_smt.test;
 
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
 import static org.junit.Assert.assertThrows;
 
 import com.google.common.truth.TruthJUnit;
+import java.time.Duration;
 import java.util.Random;
 import java.util.function.Supplier;
 import org.junit.Test;
@@ -21,6 +24,7 @@ import org.junit.runners.Parameterized.Parameters;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.Tactic;
 
 /** Check that timeout is handled gracefully. */
@@ -91,6 +95,48 @@ public class TimeoutTest extends SolverBasedTest0 {
     testBasicProverTimeoutInt(() -> context.newOptimizationProverEnvironment());
   }
 
+  @Test
+  public void testBoundedProverTimeoutInt() throws InterruptedException, SolverException {
+    requireIntegers();
+    TruthJUnit.assume()
+        .withMessage(solverToUse() + " does not support interruption")
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.PRINCESS);
+    HardIntegerFormulaGenerator gen = new HardIntegerFormulaGenerator(imgr, bmgr);
+    try (BasicProverEnvironment<?> pe = context.newProverEnvironment()) {
+      pe.push(gen.generate(20));
+      assertThat(pe.isUnsat(Duration.ofMillis(100))).isEmpty();
+
+      // the prover is still usable after the timeout
+      pe.pop();
+      pe.push(bmgr.makeVariable("a"));
+      assertThat(pe.isUnsat(Duration.ofSeconds(10))).hasValue(false);
+    }
+  }
+
+  @Test
+  public void testResourceLimitInt() throws InterruptedException, SolverException {
+    requireIntegers();
+    TruthJUnit.assume()
+        .withMessage(solverToUse() + " does not support resource limits")
+        .that(solverToUse())
+        .isNoneOf(Solvers.PRINCESS, Solvers.YICES2);
+    HardIntegerFormulaGenerator gen = new HardIntegerFormulaGenerator(imgr, bmgr);
+    try (BasicProverEnvironment<?> pe = context.newProverEnvironment()) {
+      pe.push(gen.generate(20));
+      assertThat(pe.isUnsatWithResourceLimit(100)).isEmpty();
+      long consumed = pe.getConsumedResources();
+      assertThat(consumed).isAtLeast(100L);
+
+      // the same limit gives the same result
+      assertThat(pe.isUnsatWithResourceLimit(100)).isEmpty();
+
+      pe.pop();
+      pe.push(bmgr.makeVariable("a"));
+      assertThat(pe.isUnsatWithResourceLimit(Long.MAX_VALUE)).hasValue(false);
+    }
+  }
+
   @SuppressWarnings("CheckReturnValue")
   private void testBasicProverTimeoutInt(Supplier<BasicProverEnvironment<?>> proverConstructor)
       throws InterruptedException {
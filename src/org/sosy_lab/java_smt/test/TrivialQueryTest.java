@@ -0,0 +1,94 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+@RunWith(Parameterized.class)
+public class TrivialQueryTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Test
+  public void testTrivialQueries() throws SolverException, InterruptedException {
+    requireVisitor();
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(
+            ProverOptions.SKIP_TRIVIAL_QUERIES, ProverOptions.GENERATE_MODELS)) {
+      BooleanFormula a = bmgr.makeVariable("a");
+      BooleanFormula b = bmgr.makeVariable("b");
+
+      prover.addConstraint(bmgr.makeTrue());
+      assertThat(prover).isSatisfiable();
+      assertThat(prover.getStatistics().get("trivially satisfiable checks")).isEqualTo(1);
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(bmgr.makeTrue())).isTrue();
+      }
+
+      prover.addConstraint(bmgr.and(a, b));
+      prover.push();
+      prover.addConstraint(bmgr.not(a));
+      assertThat(prover).isUnsatisfiable();
+      assertThat(prover.getStatistics().get("trivially unsatisfiable checks")).isEqualTo(1);
+      prover.pop();
+
+      assertThat(prover).isSatisfiable();
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(b)))).isTrue();
+      assertThat(prover.getStatistics().get("trivially unsatisfiable checks")).isEqualTo(2);
+      assertThat(prover.getStatistics().get("checks for trivial queries")).isEqualTo(4);
+    }
+  }
+
+  @Test
+  public void testQueriesWithoutVisitor() throws SolverException, InterruptedException {
+    assume()
+        .withMessage("only solvers without formula visitor keep constraints as opaque atoms")
+        .that(solverToUse())
+        .isEqualTo(Solvers.BOOLECTOR);
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.SKIP_TRIVIAL_QUERIES)) {
+      BooleanFormula a = bmgr.makeVariable("a");
+
+      prover.addConstraint(a);
+      assertThat(prover).isSatisfiable();
+      prover.push();
+      prover.addConstraint(bmgr.not(a));
+      assertThat(prover).isUnsatisfiable();
+      prover.pop();
+      assertThat(prover).isSatisfiable();
+      assertThat(prover.getStatistics().get("trivially unsatisfiable checks")).isEqualTo(0);
+    }
+  }
+}
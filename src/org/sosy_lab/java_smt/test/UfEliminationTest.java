@@ -237,6 +237,35 @@ public class UfEliminationTest extends SolverBasedTest0 {
     Truth.assertThat(variablesAndUFs).isEqualTo(variables);
   }
 
+  @Test
+  public void sharedApplicationsTest() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    // f1 := uf(1) < uf(v1), f2 := uf(v1) < uf(2)
+    IntegerFormula variable1 = imgr.makeVariable("variable1");
+    FunctionDeclaration<IntegerFormula> ufDecl = fmgr.declareUF("uf", IntegerType, IntegerType);
+    IntegerFormula ufV1 = fmgr.callUF(ufDecl, variable1);
+    BooleanFormula f1 = imgr.lessThan(fmgr.callUF(ufDecl, imgr.makeNumber(1)), ufV1);
+    BooleanFormula f2 = imgr.lessThan(ufV1, fmgr.callUF(ufDecl, imgr.makeNumber(2)));
+
+    Result result1 = ackermannization.eliminateUfs(f1, Result.empty(mgr));
+    Result result2 = ackermannization.eliminateUfs(f2, result1);
+    Truth.assertThat(result2.getSubstitution()).containsAtLeastEntriesIn(result1.getSubstitution());
+    Truth.assertThat(result2.getSubstitution().get(ufV1))
+        .isEqualTo(result1.getSubstitution().get(ufV1));
+
+    BooleanFormula withOutUfs =
+        bmgr.and(result1.getFormula(), result2.getFormula(), result2.getConstraints());
+    // variable1 and one fresh variable for each of uf(1), uf(v1) and uf(2)
+    Truth.assertThat(mgr.extractVariablesAndUFs(withOutUfs)).hasSize(4);
+    assertThatFormula(withOutUfs).isSatisfiable();
+    BooleanFormula v1IsOne = imgr.equal(variable1, imgr.makeNumber(1));
+    BooleanFormula v1IsTwo = imgr.equal(variable1, imgr.makeNumber(2));
+    assertThatFormula(bmgr.and(bmgr.and(f1, f2), bmgr.or(v1IsOne, v1IsTwo)))
+        .isUnsatisfiable(); // sanity check
+    assertThatFormula(bmgr.and(withOutUfs, bmgr.or(v1IsOne, v1IsTwo))).isUnsatisfiable();
+  }
+
   @Test
   public void quantifierTest() {
     requireQuantifiers();
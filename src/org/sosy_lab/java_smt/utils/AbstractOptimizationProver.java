@@ -0,0 +1,389 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Streams;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Base class for optimization on top of a plain {@link ProverEnvironment}.
+ *
+ * <p>The objectives are kept on a stack parallel to the assertion stack. An optimization is
+ * computed on additional levels of the prover, which also contain the constraints enforcing the
+ * optimal values for lexicographic optimization. These levels are kept until the next modification
+ * of the assertion stack, such that the model of the optimum is available.
+ *
+ * <p>Box optimization optimizes each objective on its own level. The Pareto front of integer
+ * objectives is enumerated with the guided improvement algorithm: a solution is improved in all
+ * objectives until no dominating solution exists, and then all solutions dominated by this point
+ * are excluded from the search for the next point.
+ *
+ * @param <O> the internal representation of an objective
+ */
+abstract class AbstractOptimizationProver<O> implements OptimizationProverEnvironment {
+
+  private static final UniqueIdGenerator UNIQUE_ID_GENERATOR = new UniqueIdGenerator();
+
+  protected final ProverEnvironment prover;
+  protected final FormulaManager fmgr;
+  protected final BooleanFormulaManager bfmgr;
+
+  private final String prefix;
+
+  private final List<O> objectives = new ArrayList<>();
+
+  /** The original objective terms, and whether they are maximized, parallel to the objectives. */
+  private final List<Formula> objectiveTerms = new ArrayList<>();
+
+  private final List<Boolean> maximized = new ArrayList<>();
+
+  /** For each level of the stack, the number of objectives before this level. */
+  private final Deque<Integer> objectiveLevels = new ArrayDeque<>();
+
+  /** Number of additional levels of the prover from the last optimization. */
+  private int optimizationLevels = 0;
+
+  /** Counts the removals of optimization levels, to detect outdated Pareto enumerations. */
+  private int optimizationGeneration = 0;
+
+  AbstractOptimizationProver(ProverEnvironment pProver, FormulaManager pFmgr, String pPrefix) {
+    prover = checkNotNull(pProver);
+    fmgr = checkNotNull(pFmgr);
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    prefix = checkNotNull(pPrefix);
+  }
+
+  /** Convert a maximization or minimization objective into the internal representation. */
+  protected abstract O createObjective(Formula pObjective, boolean pMaximize);
+
+  /**
+   * Optimize all given objectives lexicographically. This method is called on an additional level
+   * of the prover, where it may add arbitrary constraints.
+   */
+  protected abstract OptStatus optimize(List<O> pObjectives)
+      throws InterruptedException, SolverException;
+
+  protected final O getObjective(int pHandle) {
+    return objectives.get(pHandle);
+  }
+
+  protected final BooleanFormula makeFreshVariable() {
+    return bfmgr.makeVariable(prefix + UNIQUE_ID_GENERATOR.getFreshId());
+  }
+
+  @Override
+  public final int maximize(Formula pObjective) {
+    return addObjective(pObjective, true);
+  }
+
+  @Override
+  public final int minimize(Formula pObjective) {
+    return addObjective(pObjective, false);
+  }
+
+  private int addObjective(Formula pObjective, boolean pMaximize) {
+    closeOptimizationLevel();
+    objectives.add(createObjective(pObjective, pMaximize));
+    objectiveTerms.add(pObjective);
+    maximized.add(pMaximize);
+    return objectives.size() - 1;
+  }
+
+  @Override
+  public final OptStatus check() throws InterruptedException, SolverException {
+    return check(ObjectivePriority.LEXICOGRAPHIC);
+  }
+
+  @Override
+  public final OptStatus check(ObjectivePriority pPriority)
+      throws InterruptedException, SolverException {
+    switch (pPriority) {
+      case LEXICOGRAPHIC:
+        closeOptimizationLevel();
+        pushOptimizationLevel();
+        return optimize(Collections.unmodifiableList(objectives));
+      case BOX:
+        OptStatus status = OptStatus.OPT;
+        for (O objective : objectives) {
+          // the level of the last objective is kept for its model
+          closeOptimizationLevel();
+          pushOptimizationLevel();
+          status = optimize(ImmutableList.of(objective));
+          if (status != OptStatus.OPT) {
+            return status;
+          }
+        }
+        if (objectives.isEmpty()) {
+          closeOptimizationLevel();
+          status = prover.isUnsat() ? OptStatus.UNSAT : OptStatus.OPT;
+        }
+        return status;
+      default:
+        throw new AssertionError("unexpected priority " + pPriority);
+    }
+  }
+
+  private void pushOptimizationLevel() {
+    prover.push();
+    optimizationLevels++;
+  }
+
+  /** Remove the constraints of the last optimization from the prover. */
+  private void closeOptimizationLevel() {
+    if (optimizationLevels > 0) {
+      for (; optimizationLevels > 0; optimizationLevels--) {
+        prover.pop();
+      }
+      optimizationGeneration++;
+    }
+  }
+
+  @Override
+  public final Stream<ImmutableList<Rational>> paretoFront() {
+    IntegerFormulaManager imgr = fmgr.getIntegerFormulaManager();
+    for (Formula term : objectiveTerms) {
+      checkArgument(
+          fmgr.getFormulaType(term).isIntegerType(),
+          "Pareto front is only supported for integer objectives, but got %s",
+          term);
+    }
+    closeOptimizationLevel();
+    pushOptimizationLevel(); // level for excluding dominated solutions
+    return Streams.stream(new ParetoIterator(imgr, optimizationGeneration));
+  }
+
+  /** Enumerates the Pareto front with the guided improvement algorithm. */
+  private final class ParetoIterator extends AbstractIterator<ImmutableList<Rational>> {
+
+    private final IntegerFormulaManager imgr;
+    private final int generation;
+    private @Nullable List<BigInteger> lastPoint = null;
+
+    private ParetoIterator(IntegerFormulaManager pImgr, int pGeneration) {
+      imgr = pImgr;
+      generation = pGeneration;
+    }
+
+    @Override
+    protected ImmutableList<Rational> computeNext() {
+      checkState(generation == optimizationGeneration, "prover was modified during enumeration");
+      try {
+        return computeNextPoint();
+      } catch (SolverException e) {
+        throw new IllegalStateException(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private ImmutableList<Rational> computeNextPoint()
+        throws SolverException, InterruptedException {
+      if (lastPoint != null) {
+        // remove the level for the model of the last point, and exclude all dominated solutions
+        prover.pop();
+        optimizationLevels--;
+        prover.addConstraint(bfmgr.or(compare(lastPoint, true)));
+      }
+      if (prover.isUnsat()) {
+        return endOfData();
+      }
+
+      List<BigInteger> point = evaluate();
+      while (true) {
+        prover.push();
+        prover.addConstraint(bfmgr.and(compare(point, false)));
+        prover.addConstraint(bfmgr.or(compare(point, true)));
+        if (prover.isUnsat()) {
+          prover.pop();
+          break;
+        }
+        point = evaluate();
+        prover.pop();
+      }
+
+      // provide the model of the point while it is processed
+      pushOptimizationLevel();
+      for (int i = 0; i < point.size(); i++) {
+        prover.addConstraint(imgr.equal(getTerm(i), imgr.makeNumber(point.get(i))));
+      }
+      checkState(!prover.isUnsat(), "Pareto-optimal point is not satisfiable");
+      lastPoint = point;
+
+      ImmutableList.Builder<Rational> values = ImmutableList.builder();
+      for (BigInteger value : point) {
+        values.add(Rational.of(value, BigInteger.ONE));
+      }
+      return values.build();
+    }
+
+    private IntegerFormula getTerm(int pIndex) {
+      return (IntegerFormula) objectiveTerms.get(pIndex);
+    }
+
+    /** Compare the objectives with the point, i.e., whether they are better than the point. */
+    private List<BooleanFormula> compare(List<BigInteger> point, boolean strict) {
+      List<BooleanFormula> comparisons = new ArrayList<>();
+      for (int i = 0; i < point.size(); i++) {
+        IntegerFormula value = imgr.makeNumber(point.get(i));
+        if (maximized.get(i)) {
+          comparisons.add(
+              strict
+                  ? imgr.greaterThan(getTerm(i), value)
+                  : imgr.greaterOrEquals(getTerm(i), value));
+        } else {
+          comparisons.add(
+              strict ? imgr.lessThan(getTerm(i), value) : imgr.lessOrEquals(getTerm(i), value));
+        }
+      }
+      return comparisons;
+    }
+
+    private List<BigInteger> evaluate() throws SolverException {
+      List<BigInteger> point = new ArrayList<>();
+      try (Model model = prover.getModel()) {
+        for (int i = 0; i < objectiveTerms.size(); i++) {
+          BigInteger value = model.evaluate(getTerm(i));
+          if (value == null) {
+            throw new SolverException("objective can not be evaluated in model: " + getTerm(i));
+          }
+          point.add(value);
+        }
+      }
+      return point;
+    }
+  }
+
+  @Override
+  public void push() {
+    closeOptimizationLevel();
+    prover.push();
+    objectiveLevels.push(objectives.size());
+  }
+
+  @Override
+  public void pop() {
+    closeOptimizationLevel();
+    checkState(!objectiveLevels.isEmpty(), "cannot pop from empty stack");
+    prover.pop();
+    int numObjectives = objectiveLevels.pop();
+    objectives.subList(numObjectives, objectives.size()).clear();
+    objectiveTerms.subList(numObjectives, objectiveTerms.size()).clear();
+    maximized.subList(numObjectives, maximized.size()).clear();
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    closeOptimizationLevel();
+    prover.addConstraint(pConstraint);
+    return null;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    closeOptimizationLevel();
+    return prover.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    closeOptimizationLevel();
+    return prover.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsat(Duration pTimeout) throws SolverException, InterruptedException {
+    closeOptimizationLevel();
+    return prover.isUnsat(pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions, Duration pTimeout)
+      throws SolverException, InterruptedException {
+    closeOptimizationLevel();
+    return prover.isUnsatWithAssumptions(pAssumptions, pTimeout);
+  }
+
+  @Override
+  public Optional<Boolean> isUnsatWithResourceLimit(long pResourceLimit)
+      throws SolverException, InterruptedException {
+    closeOptimizationLevel();
+    return prover.isUnsatWithResourceLimit(pResourceLimit);
+  }
+
+  @Override
+  public long getConsumedResources() {
+    return prover.getConsumedResources();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return prover.getModel();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return prover.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    closeOptimizationLevel();
+    return prover.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, Number> getStatistics() {
+    return prover.getStatistics();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    closeOptimizationLevel();
+    return prover.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public void close() {
+    prover.close();
+  }
+}
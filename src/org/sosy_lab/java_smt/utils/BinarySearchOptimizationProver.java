@@ -0,0 +1,241 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * An {@link OptimizationProverEnvironment} for integer objectives that works on top of any {@link
+ * ProverEnvironment} supporting {@link ProverEnvironment#isUnsatWithAssumptions}.
+ *
+ * <p>Each objective is maximized by an exponential search for an upper bound, followed by a binary
+ * search between the best known value and the upper bound. Each probed bound is guarded by a fresh
+ * assumption, such that the underlying prover is reused for all queries. Minimization is done by
+ * maximizing the negated objective. Several objectives are optimized lexicographically in the
+ * order of their creation. An objective whose value grows by more than {@code 2^128} during the
+ * exponential search is reported as unbounded.
+ *
+ * <p>In anytime mode, each optimization is limited by a time limit. If the time limit is reached
+ * or the optimization is interrupted, {@link #check()} returns {@link OptStatus#UNDEF} and {@link
+ * #upper} and {@link #lower} report the best bounds found so far. A model is only available for the
+ * result {@link OptStatus#OPT}.
+ */
+public class BinarySearchOptimizationProver
+    extends AbstractOptimizationProver<BinarySearchOptimizationProver.Objective> {
+
+  private static final int MAX_BOUND_BITS = 128;
+
+  private final IntegerFormulaManager imgr;
+
+  /** The time limit for one optimization in anytime mode, or null. */
+  private final @Nullable Duration timeLimit;
+
+  BinarySearchOptimizationProver(
+      ProverEnvironment pProver, FormulaManager pFmgr, @Nullable Duration pTimeLimit) {
+    super(pProver, pFmgr, "__BINARY_SEARCH_");
+    imgr = pFmgr.getIntegerFormulaManager();
+    checkArgument(
+        pTimeLimit == null || (!pTimeLimit.isNegative() && !pTimeLimit.isZero()),
+        "time limit must be positive");
+    timeLimit = pTimeLimit;
+  }
+
+  /** A maximization objective, where minimization objectives are negated. */
+  static final class Objective {
+
+    private final IntegerFormula term;
+    private final boolean negated;
+
+    /** Best value found so far, i.e., a lower bound for the maximum. */
+    private @Nullable BigInteger lowerBound;
+
+    /** Smallest value known to be infeasible minus one, or null if unknown or unbounded. */
+    private @Nullable BigInteger upperBound;
+
+    private Objective(IntegerFormula pTerm, boolean pNegated) {
+      term = pTerm;
+      negated = pNegated;
+    }
+
+    private void reset() {
+      lowerBound = null;
+      upperBound = null;
+    }
+  }
+
+  /** Marks that the time limit of an optimization in anytime mode was reached. */
+  private static final class TimeLimitReachedException extends Exception {
+    private static final long serialVersionUID = 1L;
+  }
+
+  @Override
+  protected Objective createObjective(Formula pObjective, boolean pMaximize) {
+    checkArgument(
+        fmgr.getFormulaType(pObjective).isIntegerType(),
+        "only integer objectives are supported, but got %s",
+        pObjective);
+    IntegerFormula term = (IntegerFormula) pObjective;
+    return pMaximize ? new Objective(term, false) : new Objective(imgr.negate(term), true);
+  }
+
+  @Override
+  protected OptStatus optimize(List<Objective> pObjectives)
+      throws InterruptedException, SolverException {
+    for (Objective objective : pObjectives) {
+      objective.reset();
+    }
+    long deadline = timeLimit == null ? 0 : System.nanoTime() + timeLimit.toNanos();
+    try {
+      if (isUnsat(deadline, ImmutableList.of())) {
+        return OptStatus.UNSAT;
+      }
+      for (Objective objective : pObjectives) {
+        maximize(objective, deadline);
+        if (objective.upperBound != null) {
+          prover.addConstraint(
+              imgr.greaterOrEquals(objective.term, imgr.makeNumber(objective.lowerBound)));
+        }
+        // The search usually ends with an unsatisfiable probe, thus the model for the next
+        // objective or for the user requires a new query. With all optimal values enforced so
+        // far, any model of this query is optimal for them.
+        if (isUnsat(deadline, ImmutableList.of())) {
+          return OptStatus.UNSAT;
+        }
+        if (objective.upperBound == null) {
+          // unbounded objectives can not be fixed for the next objectives
+          break;
+        }
+      }
+      return OptStatus.OPT;
+
+    } catch (TimeLimitReachedException e) {
+      return OptStatus.UNDEF;
+    } catch (InterruptedException e) {
+      if (timeLimit == null) {
+        throw e;
+      }
+      return OptStatus.UNDEF;
+    }
+  }
+
+  /**
+   * Maximize the objective. The current constraints must be satisfiable and the last query must
+   * have been satisfiable.
+   */
+  private void maximize(Objective objective, long deadline)
+      throws InterruptedException, SolverException, TimeLimitReachedException {
+    objective.lowerBound = getValue(objective, null);
+
+    // exponential search for an upper bound
+    BigInteger step = BigInteger.ONE;
+    while (true) {
+      BigInteger bound = objective.lowerBound.add(step);
+      if (isUnsat(deadline, ImmutableList.of(makeBound(objective, bound)))) {
+        objective.upperBound = bound.subtract(BigInteger.ONE);
+        break;
+      }
+      objective.lowerBound = getValue(objective, bound);
+      if (step.bitLength() > MAX_BOUND_BITS) {
+        return; // unbounded
+      }
+      step = step.shiftLeft(1);
+    }
+
+    // binary search between lower and upper bound
+    while (objective.lowerBound.compareTo(objective.upperBound) < 0) {
+      BigInteger difference = objective.upperBound.subtract(objective.lowerBound);
+      BigInteger bound = objective.lowerBound.add(difference.add(BigInteger.ONE).shiftRight(1));
+      if (isUnsat(deadline, ImmutableList.of(makeBound(objective, bound)))) {
+        objective.upperBound = bound.subtract(BigInteger.ONE);
+      } else {
+        objective.lowerBound = getValue(objective, bound);
+      }
+    }
+  }
+
+  /** Create a fresh assumption that guards the lower bound for the objective. */
+  private BooleanFormula makeBound(Objective objective, BigInteger bound)
+      throws InterruptedException {
+    BooleanFormula assumption = makeFreshVariable();
+    BooleanFormula constraint = imgr.greaterOrEquals(objective.term, imgr.makeNumber(bound));
+    prover.addConstraint(bfmgr.implication(assumption, constraint));
+    return assumption;
+  }
+
+  /** Get the value of the objective in the model of the last query. */
+  private BigInteger getValue(Objective objective, @Nullable BigInteger bound)
+      throws SolverException {
+    try (Model model = prover.getModel()) {
+      BigInteger value = model.evaluate(objective.term);
+      if (value != null) {
+        return value;
+      } else if (bound != null) {
+        return bound;
+      }
+      throw new SolverException("objective can not be evaluated in model: " + objective.term);
+    }
+  }
+
+  private boolean isUnsat(long deadline, List<BooleanFormula> assumptions)
+      throws InterruptedException, SolverException, TimeLimitReachedException {
+    if (timeLimit == null) {
+      return prover.isUnsatWithAssumptions(assumptions);
+    }
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      throw new TimeLimitReachedException();
+    }
+    Optional<Boolean> result =
+        prover.isUnsatWithAssumptions(assumptions, Duration.ofNanos(remaining));
+    if (!result.isPresent()) {
+      throw new TimeLimitReachedException();
+    }
+    return result.orElseThrow();
+  }
+
+  private static Optional<Rational> toRational(@Nullable BigInteger value, boolean negated) {
+    if (value == null) {
+      return Optional.empty();
+    }
+    return Optional.of(Rational.of(negated ? value.negate() : value, BigInteger.ONE));
+  }
+
+  @Override
+  public Optional<Rational> upper(int pHandle, Rational pEpsilon) {
+    Objective objective = getObjective(pHandle);
+    return objective.negated
+        ? toRational(objective.lowerBound, true)
+        : toRational(objective.upperBound, false);
+  }
+
+  @Override
+  public Optional<Rational> lower(int pHandle, Rational pEpsilon) {
+    Objective objective = getObjective(pHandle);
+    return objective.negated
+        ? toRational(objective.upperBound, true)
+        : toRational(objective.lowerBound, false);
+  }
+}
@@ -0,0 +1,1034 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Evaluates ground formulas in Java for a given assignment of their free variables, without a
+ * model of the solver.
+ *
+ * <p>A formula is compiled once into a {@link Term}, which traverses the formula with {@link
+ * FormulaManager#visit} and stores each node of the formula DAG exactly once. A compiled term can
+ * then be evaluated for many assignments without any call to the solver, and each node is evaluated
+ * at most once per assignment.
+ *
+ * <p>The values of the assignment and the results of the evaluation use the same representation
+ * as {@link org.sosy_lab.java_smt.api.Model#evaluate}: {@link Boolean} for Boolean formulas, {@link
+ * BigInteger} for integer formulas and unsigned bitvector values, {@link Rational} for rational
+ * formulas, {@link Float} and {@link Double} for floating-point formulas of single and double
+ * precision, and {@link ArrayValue} for arrays. Integral {@link Number}s are accepted for integer
+ * and bitvector variables, and {@link Map}s are accepted for array variables.
+ *
+ * <p>Uninterpreted functions, quantifiers, floating-point formulas of other precisions and
+ * rounding modes other than {@link FloatingPointRoundingMode#NEAREST_TIES_TO_EVEN} for arithmetic
+ * operations are not supported. Division by zero is unspecified in SMT-LIB for integers and
+ * rationals and causes an {@link ArithmeticException}. The maximum and minimum of zeros with
+ * different signs are unspecified in SMT-LIB and cause an {@link UnsupportedOperationException}.
+ */
+public class GroundTermEvaluator {
+
+  private static final Pattern EXTRACT_INDICES = Pattern.compile("(\\d+)\\D+(\\d+)");
+
+  private final FormulaManager fmgr;
+
+  GroundTermEvaluator(FormulaManager pFmgr) {
+    fmgr = checkNotNull(pFmgr);
+  }
+
+  /** Compile the formula for an efficient evaluation under many assignments. */
+  public Term compile(Formula pFormula) {
+    return new Compiler().compile(pFormula);
+  }
+
+  /**
+   * Evaluate the formula under the given assignment. For many assignments of the same formula,
+   * {@link #compile} should be used instead.
+   */
+  public Object evaluate(Formula pFormula, Map<? extends Formula, ?> pAssignment) {
+    return compile(pFormula).evaluate(pAssignment);
+  }
+
+  /** Returns whether the given assignment satisfies the given formula. */
+  public boolean isSatisfiedBy(BooleanFormula pFormula, Map<? extends Formula, ?> pAssignment) {
+    return compile(pFormula).isSatisfiedBy(pAssignment);
+  }
+
+  /**
+   * The value of an array with a default value for all indices without explicit value. Two arrays
+   * are equal if they have the same value for each index. Indices and elements use the same
+   * representation as the results of the evaluation, and arrays that are assigned to variables are
+   * normalized to this representation.
+   */
+  public static final class ArrayValue {
+
+    private final ImmutableMap<Object, Object> values;
+    private final @Nullable Object defaultValue;
+
+    /**
+     * Create an array value. If no default value is given, selecting an index without explicit
+     * value causes an {@link IllegalArgumentException}.
+     */
+    public ArrayValue(Map<?, ?> pValues, @Nullable Object pDefaultValue) {
+      defaultValue = pDefaultValue;
+      ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
+      for (Map.Entry<?, ?> entry : pValues.entrySet()) {
+        if (!Objects.equals(entry.getValue(), pDefaultValue)) {
+          builder.put(entry.getKey(), entry.getValue());
+        }
+      }
+      values = builder.build();
+    }
+
+    public Object select(Object pIndex) {
+      Object value = values.get(pIndex);
+      if (value == null) {
+        checkArgument(defaultValue != null, "no value for index %s in array %s", pIndex, this);
+        return defaultValue;
+      }
+      return value;
+    }
+
+    public ArrayValue store(Object pIndex, Object pValue) {
+      Map<Object, Object> newValues = new LinkedHashMap<>(values);
+      newValues.put(pIndex, pValue);
+      return new ArrayValue(newValues, defaultValue);
+    }
+
+    public ImmutableMap<Object, Object> getValues() {
+      return values;
+    }
+
+    public @Nullable Object getDefaultValue() {
+      return defaultValue;
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof ArrayValue)) {
+        return false;
+      }
+      ArrayValue other = (ArrayValue) pOther;
+      return values.equals(other.values) && Objects.equals(defaultValue, other.defaultValue);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(values, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+      return values + " default " + defaultValue;
+    }
+  }
+
+  /** One node of the compiled formula DAG. */
+  private static final class Node {
+
+    private final FunctionDeclarationKind kind;
+    private final FormulaType<?> type;
+    private final int[] args;
+    private final ImmutableList<FormulaType<?>> argTypes;
+
+    /**
+     * The formula of a variable, the value of a constant, the lowest extracted bit of a bitvector
+     * extraction, or the name of a function.
+     */
+    private final @Nullable Object info;
+
+    private Node(
+        FunctionDeclarationKind pKind,
+        FormulaType<?> pType,
+        int[] pArgs,
+        ImmutableList<FormulaType<?>> pArgTypes,
+        @Nullable Object pInfo) {
+      kind = pKind;
+      type = pType;
+      args = pArgs;
+      argTypes = pArgTypes;
+      info = pInfo;
+    }
+  }
+
+  /** A compiled formula, which can be evaluated without calls to the solver. */
+  public static final class Term {
+
+    private final ImmutableList<Node> nodes;
+
+    private Term(List<Node> pNodes) {
+      nodes = ImmutableList.copyOf(pNodes);
+    }
+
+    /** Evaluate the term under the given assignment of its free variables. */
+    public Object evaluate(Map<? extends Formula, ?> pAssignment) {
+      Object[] values = new Object[nodes.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = evaluateNode(nodes.get(i), values, pAssignment);
+      }
+      return values[values.length - 1];
+    }
+
+    /** Returns whether the given assignment satisfies the term, which must be Boolean. */
+    public boolean isSatisfiedBy(Map<? extends Formula, ?> pAssignment) {
+      checkArgument(nodes.get(nodes.size() - 1).type.isBooleanType(), "term is not Boolean");
+      return (Boolean) evaluate(pAssignment);
+    }
+  }
+
+  /** The decomposition of one formula into its operator and direct arguments. */
+  private static final class Decomposition {
+
+    private final FunctionDeclarationKind kind;
+    private final List<Formula> args;
+    private final @Nullable Object info;
+
+    private Decomposition(
+        FunctionDeclarationKind pKind, List<Formula> pArgs, @Nullable Object pInfo) {
+      kind = pKind;
+      args = pArgs;
+      info = pInfo;
+    }
+  }
+
+  private static final FormulaVisitor<Decomposition> DECOMPOSER =
+      new FormulaVisitor<>() {
+        @Override
+        public Decomposition visitFreeVariable(Formula f, String name) {
+          return new Decomposition(FunctionDeclarationKind.VAR, ImmutableList.of(), f);
+        }
+
+        @Override
+        public Decomposition visitBoundVariable(Formula f, int deBruijnIdx) {
+          throw new UnsupportedOperationException("bound variables are not supported: " + f);
+        }
+
+        @Override
+        public Decomposition visitConstant(Formula f, Object value) {
+          return new Decomposition(FunctionDeclarationKind.OTHER, ImmutableList.of(), value);
+        }
+
+        @Override
+        public Decomposition visitFunction(
+            Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+          return new Decomposition(
+              functionDeclaration.getKind(), args, functionDeclaration.getName());
+        }
+
+        @Override
+        public Decomposition visitQuantifier(
+            BooleanFormula f,
+            Quantifier quantifier,
+            List<Formula> boundVariables,
+            BooleanFormula body) {
+          throw new UnsupportedOperationException("quantifiers are not supported: " + f);
+        }
+      };
+
+  /** Compiles a formula into a list of nodes in topological order. */
+  private final class Compiler {
+
+    private final Map<Formula, Integer> indices = new HashMap<>();
+    private final Map<Formula, Decomposition> decompositions = new HashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+
+    private Term compile(Formula pFormula) {
+      // iterative post-order traversal, such that deep formulas do not overflow the stack
+      Deque<Formula> waitlist = new ArrayDeque<>();
+      waitlist.push(pFormula);
+      while (!waitlist.isEmpty()) {
+        Formula formula = waitlist.peek();
+        if (indices.containsKey(formula)) {
+          waitlist.pop();
+          continue;
+        }
+        Decomposition decomposition = decompositions.get(formula);
+        if (decomposition == null) {
+          decomposition = fmgr.visit(formula, DECOMPOSER);
+          decompositions.put(formula, decomposition);
+          for (Formula arg : decomposition.args) {
+            if (!indices.containsKey(arg)) {
+              waitlist.push(arg);
+            }
+          }
+          continue;
+        }
+        waitlist.pop();
+        int[] args = new int[decomposition.args.size()];
+        ImmutableList.Builder<FormulaType<?>> argTypes = ImmutableList.builder();
+        for (int i = 0; i < args.length; i++) {
+          Formula arg = decomposition.args.get(i);
+          args[i] = indices.get(arg);
+          argTypes.add(nodes.get(args[i]).type);
+        }
+        FormulaType<?> type = fmgr.getFormulaType(formula);
+        Object info = decomposition.info;
+        if (decomposition.kind == FunctionDeclarationKind.OTHER && args.length == 0) {
+          info = normalize(checkNotNull(info), type); // constants are converted only once
+        } else if (decomposition.kind == FunctionDeclarationKind.BV_EXTRACT) {
+          info = getExtractionStart(formula, decomposition, type);
+        }
+        nodes.add(new Node(decomposition.kind, type, args, argTypes.build(), info));
+        indices.put(formula, nodes.size() - 1);
+        decompositions.remove(formula);
+      }
+      // the root is the last node of the post-order traversal
+      return new Term(nodes);
+    }
+
+    /**
+     * Determine the lowest extracted bit of a bitvector extraction. Some solvers include the
+     * indices in the name of the function. Others do not, e.g., Z3 names it only "extract", thus we
+     * compare the formula with the extractions of all positions that match the bitvector widths.
+     */
+    private int getExtractionStart(
+        Formula pFormula, Decomposition pDecomposition, FormulaType<?> pType) {
+      checkArgument(pDecomposition.args.size() == 1, "unexpected extraction %s", pFormula);
+      BitvectorFormula operand = (BitvectorFormula) pDecomposition.args.get(0);
+      int width = ((BitvectorType) pType).getSize();
+      int operandWidth = ((BitvectorType) fmgr.getFormulaType(operand)).getSize();
+      Matcher matcher = EXTRACT_INDICES.matcher(String.valueOf(pDecomposition.info));
+      if (matcher.find()) {
+        int high = Integer.parseInt(matcher.group(1));
+        int low = Integer.parseInt(matcher.group(2));
+        if (high - low + 1 == width && high < operandWidth) {
+          return low;
+        }
+      }
+      BitvectorFormulaManager bvmgr = fmgr.getBitvectorFormulaManager();
+      for (int low = 0; low + width <= operandWidth; low++) {
+        if (pFormula.equals(bvmgr.extract(operand, low + width - 1, low, false))) {
+          return low;
+        }
+      }
+      throw new UnsupportedOperationException(
+          String.format("can not determine the indices of extraction %s", pFormula));
+    }
+  }
+
+  private static Object evaluateNode(
+      Node node, Object[] values, Map<? extends Formula, ?> assignment) {
+    switch (node.kind) {
+      case VAR:
+        Object value = assignment.get(node.info);
+        checkArgument(value != null, "no value for variable %s", node.info);
+        return normalize(value, node.type);
+      case OTHER:
+        if (node.args.length == 0) {
+          return checkNotNull(node.info);
+        }
+        break;
+      case UF:
+        throw new UnsupportedOperationException(
+            "uninterpreted function " + node.info + " can not be evaluated");
+      default:
+        break;
+    }
+
+    if (node.type.isBooleanType()) {
+      return evaluateBoolean(node, values);
+    } else if (node.type.isIntegerType() || node.type.isRationalType()) {
+      return evaluateNumeral(node, values);
+    } else if (node.type.isBitvectorType()) {
+      return evaluateBitvector(node, values);
+    } else if (node.type.isFloatingPointType()) {
+      return evaluateFloatingPoint(node, values);
+    } else if (node.type.isFloatingPointRoundingModeType()) {
+      return evaluateRoundingMode(node);
+    } else if (node.type.isArrayType()) {
+      return evaluateArray(node, values);
+    }
+    throw unsupported(node);
+  }
+
+  private static UnsupportedOperationException unsupported(Node node) {
+    return new UnsupportedOperationException(
+        String.format(
+            "operation %s (%s) of type %s is not supported", node.kind, node.info, node.type));
+  }
+
+  private static Object arg(Node node, Object[] values, int i) {
+    return values[node.args[i]];
+  }
+
+  // Normalization of values
+
+  private static Object normalize(Object value, FormulaType<?> type) {
+    if (type.isBooleanType()) {
+      return (Boolean) value;
+    } else if (type.isIntegerType()) {
+      return floor(toRational(value));
+    } else if (type.isRationalType()) {
+      return toRational(value);
+    } else if (type.isBitvectorType()) {
+      BigInteger bits = floor(toRational(value));
+      return truncate(bits, ((BitvectorType) type).getSize());
+    } else if (type.isFloatingPointType()) {
+      return toFloatingPoint(value, (FloatingPointType) type);
+    } else if (type.isFloatingPointRoundingModeType()) {
+      checkArgument(value instanceof FloatingPointRoundingMode, "invalid rounding mode %s", value);
+      return value;
+    } else if (type.isArrayType()) {
+      ArrayFormulaType<?, ?> arrayType = (ArrayFormulaType<?, ?>) type;
+      if (value instanceof ArrayValue) {
+        ArrayValue array = (ArrayValue) value;
+        return normalizeArray(array.getValues(), array.getDefaultValue(), arrayType);
+      } else if (value instanceof Map) {
+        return normalizeArray((Map<?, ?>) value, null, arrayType);
+      }
+    }
+    throw new IllegalArgumentException(String.format("invalid value %s of type %s", value, type));
+  }
+
+  /**
+   * Normalize the indices and elements of an array, such that indices of any numeral type match
+   * the indices that are computed by the evaluation.
+   */
+  private static ArrayValue normalizeArray(
+      Map<?, ?> values, @Nullable Object defaultValue, ArrayFormulaType<?, ?> type) {
+    Map<Object, Object> normalized = new LinkedHashMap<>();
+    for (Map.Entry<?, ?> entry : values.entrySet()) {
+      normalized.put(
+          normalize(entry.getKey(), type.getIndexType()),
+          normalize(entry.getValue(), type.getElementType()));
+    }
+    return new ArrayValue(
+        normalized, defaultValue == null ? null : normalize(defaultValue, type.getElementType()));
+  }
+
+  private static Rational toRational(Object value) {
+    if (value instanceof Rational) {
+      return (Rational) value;
+    } else if (value instanceof BigInteger) {
+      return Rational.ofBigInteger((BigInteger) value);
+    } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+      return Rational.ofLongs(((Number) value).longValue(), 1);
+    } else if (value instanceof BigDecimal) {
+      return Rational.ofBigDecimal((BigDecimal) value);
+    } else if (value instanceof Double || value instanceof Float) {
+      return Rational.ofBigDecimal(BigDecimal.valueOf(((Number) value).doubleValue()));
+    }
+    throw new IllegalArgumentException("invalid numeral value " + value);
+  }
+
+  private static BigInteger floor(Rational value) {
+    BigInteger[] division = value.getNum().divideAndRemainder(value.getDen());
+    return division[1].signum() < 0 ? division[0].subtract(BigInteger.ONE) : division[0];
+  }
+
+  private static Rational divide(Rational dividend, Rational divisor) {
+    BigInteger numerator = dividend.getNum().multiply(divisor.getDen());
+    BigInteger denominator = dividend.getDen().multiply(divisor.getNum());
+    if (denominator.signum() < 0) {
+      numerator = numerator.negate();
+      denominator = denominator.negate();
+    }
+    return Rational.of(numerator, denominator);
+  }
+
+  private static Object toFloatingPoint(Object value, FloatingPointType type) {
+    double result;
+    if (value instanceof Rational) {
+      result = ((Rational) value).doubleValue();
+    } else if (value instanceof Number) {
+      result = ((Number) value).doubleValue();
+    } else {
+      throw new IllegalArgumentException("invalid floating-point value " + value);
+    }
+    return fromDouble(result, type);
+  }
+
+  private static boolean isSinglePrecision(FormulaType<?> type) {
+    return type.equals(FormulaType.getSinglePrecisionFloatingPointType());
+  }
+
+  private static Object fromDouble(double value, FormulaType<?> type) {
+    if (isSinglePrecision(type)) {
+      return (float) value;
+    } else if (type.equals(FormulaType.getDoublePrecisionFloatingPointType())) {
+      return value;
+    }
+    throw new UnsupportedOperationException("unsupported floating-point type " + type);
+  }
+
+  // Boolean semantics
+
+  private static Object evaluateBoolean(Node node, Object[] values) {
+    switch (node.kind) {
+      case AND:
+        for (int arg : node.args) {
+          if (!(Boolean) values[arg]) {
+            return false;
+          }
+        }
+        return true;
+      case OR:
+        for (int arg : node.args) {
+          if ((Boolean) values[arg]) {
+            return true;
+          }
+        }
+        return false;
+      case NOT:
+        return !(Boolean) arg(node, values, 0);
+      case IFF:
+      case XOR:
+        boolean result = node.kind == FunctionDeclarationKind.XOR;
+        return ((Boolean) arg(node, values, 0)).equals(arg(node, values, 1)) != result;
+      case IMPLIES:
+        return !(Boolean) arg(node, values, 0) || (Boolean) arg(node, values, 1);
+      case ITE:
+        return ite(node, values);
+      case EQ:
+      case BV_EQ:
+        for (int i = 1; i < node.args.length; i++) {
+          if (!equal(arg(node, values, 0), arg(node, values, i))) {
+            return false;
+          }
+        }
+        return true;
+      case DISTINCT:
+        for (int i = 0; i < node.args.length; i++) {
+          for (int j = i + 1; j < node.args.length; j++) {
+            if (equal(arg(node, values, i), arg(node, values, j))) {
+              return false;
+            }
+          }
+        }
+        return true;
+      case LT:
+      case LTE:
+      case GT:
+      case GTE:
+        return compare(
+            node.kind, toRational(arg(node, values, 0)), toRational(arg(node, values, 1)));
+      case EQ_ZERO:
+        return toRational(arg(node, values, 0)).getNum().signum() == 0;
+      case GTE_ZERO:
+        return toRational(arg(node, values, 0)).getNum().signum() >= 0;
+      case BV_ULT:
+      case BV_ULE:
+      case BV_UGT:
+      case BV_UGE:
+        return compare(node.kind, bitvectorArg(node, values, 0), bitvectorArg(node, values, 1));
+      case BV_SLT:
+      case BV_SLE:
+      case BV_SGT:
+      case BV_SGE:
+        return compare(node.kind, signedArg(node, values, 0), signedArg(node, values, 1));
+      case SELECT:
+        return select(node, values);
+      default:
+        return evaluateFloatingPointPredicate(node, values);
+    }
+  }
+
+  private static Object ite(Node node, Object[] values) {
+    return (Boolean) arg(node, values, 0) ? arg(node, values, 1) : arg(node, values, 2);
+  }
+
+  /** Equality of values, where numerals of different representation are compared by value. */
+  private static boolean equal(Object a, Object b) {
+    if (a instanceof Rational || b instanceof Rational) {
+      return toRational(a).equals(toRational(b));
+    }
+    // equality of floating-point values in SMT-LIB is equality of the values, not IEEE equality
+    return a.equals(b);
+  }
+
+  private static <C extends Comparable<C>> boolean compare(
+      FunctionDeclarationKind kind, C left, C right) {
+    int comparison = left.compareTo(right);
+    switch (kind) {
+      case LT:
+      case BV_ULT:
+      case BV_SLT:
+        return comparison < 0;
+      case LTE:
+      case BV_ULE:
+      case BV_SLE:
+        return comparison <= 0;
+      case GT:
+      case BV_UGT:
+      case BV_SGT:
+        return comparison > 0;
+      case GTE:
+      case BV_UGE:
+      case BV_SGE:
+        return comparison >= 0;
+      default:
+        throw new AssertionError("unexpected comparison " + kind);
+    }
+  }
+
+  // Integer and rational semantics
+
+  private static Object evaluateNumeral(Node node, Object[] values) {
+    switch (node.kind) {
+      case ITE:
+        return normalize(ite(node, values), node.type);
+      case SELECT:
+        return select(node, values);
+      case FLOOR:
+        return floor(toRational(arg(node, values, 0)));
+      case UMINUS:
+        return normalize(toRational(arg(node, values, 0)).negate(), node.type);
+      case ADD:
+        Rational sum = Rational.ZERO;
+        for (int arg : node.args) {
+          sum = sum.plus(toRational(values[arg]));
+        }
+        return normalize(sum, node.type);
+      case SUB:
+        Rational difference = toRational(arg(node, values, 0));
+        for (int i = 1; i < node.args.length; i++) {
+          difference = difference.minus(toRational(arg(node, values, i)));
+        }
+        return normalize(difference, node.type);
+      case MUL:
+        Rational product = Rational.ONE;
+        for (int arg : node.args) {
+          product = product.times(toRational(values[arg]));
+        }
+        return normalize(product, node.type);
+      case DIV:
+        Rational divisor = toRational(arg(node, values, 1));
+        if (divisor.getNum().signum() == 0) {
+          throw new ArithmeticException("division by zero is unspecified");
+        }
+        if (node.type.isIntegerType()) {
+          // the remainder of the integer division is always non-negative
+          BigInteger dividend = floor(toRational(arg(node, values, 0)));
+          BigInteger intDivisor = floor(divisor);
+          BigInteger remainder = dividend.mod(intDivisor.abs());
+          return dividend.subtract(remainder).divide(intDivisor);
+        }
+        return divide(toRational(arg(node, values, 0)), divisor);
+      case MODULO:
+        BigInteger modulus = floor(toRational(arg(node, values, 1)));
+        if (modulus.signum() == 0) {
+          throw new ArithmeticException("modulo by zero is unspecified");
+        }
+        return floor(toRational(arg(node, values, 0))).mod(modulus.abs());
+      default:
+        throw unsupported(node);
+    }
+  }
+
+  // Bitvector semantics
+
+  private static BigInteger truncate(BigInteger value, int width) {
+    return value.mod(BigInteger.ONE.shiftLeft(width));
+  }
+
+  private static int width(Node node) {
+    return ((BitvectorType) node.type).getSize();
+  }
+
+  private static BigInteger toSigned(BigInteger value, int width) {
+    return value.testBit(width - 1) ? value.subtract(BigInteger.ONE.shiftLeft(width)) : value;
+  }
+
+  private static BigInteger bitvectorArg(Node node, Object[] values, int i) {
+    return (BigInteger) arg(node, values, i);
+  }
+
+  private static int argWidth(Node node, int i) {
+    return ((BitvectorType) node.argTypes.get(i)).getSize();
+  }
+
+  /** The value of a bitvector argument, interpreted as signed value. */
+  private static BigInteger signedArg(Node node, Object[] values, int i) {
+    return toSigned(bitvectorArg(node, values, i), argWidth(node, i));
+  }
+
+  private static Object evaluateBitvector(Node node, Object[] values) {
+    int width = width(node);
+    switch (node.kind) {
+      case ITE:
+        return ite(node, values);
+      case SELECT:
+        return select(node, values);
+      case BV_NOT:
+        return truncate(bitvectorArg(node, values, 0).not(), width);
+      case BV_NEG:
+        return truncate(bitvectorArg(node, values, 0).negate(), width);
+      case BV_AND:
+      case BV_OR:
+      case BV_XOR:
+      case BV_ADD:
+      case BV_MUL:
+        BigInteger result = bitvectorArg(node, values, 0);
+        for (int i = 1; i < node.args.length; i++) {
+          result = applyBinary(node.kind, result, bitvectorArg(node, values, i));
+        }
+        return truncate(result, width);
+      case BV_SUB:
+        return truncate(
+            bitvectorArg(node, values, 0).subtract(bitvectorArg(node, values, 1)), width);
+      case BV_UDIV:
+        BigInteger udivisor = bitvectorArg(node, values, 1);
+        if (udivisor.signum() == 0) {
+          return BigInteger.ONE.shiftLeft(width).subtract(BigInteger.ONE);
+        }
+        return bitvectorArg(node, values, 0).divide(udivisor);
+      case BV_UREM:
+        BigInteger umodulus = bitvectorArg(node, values, 1);
+        if (umodulus.signum() == 0) {
+          return bitvectorArg(node, values, 0);
+        }
+        return bitvectorArg(node, values, 0).remainder(umodulus);
+      case BV_SDIV:
+        return signedDivision(node, values, width, true);
+      case BV_SREM:
+        return signedDivision(node, values, width, false);
+      case BV_SHL:
+        int distance = shiftDistance(node, values);
+        return truncate(bitvectorArg(node, values, 0).shiftLeft(distance), width);
+      case BV_LSHR:
+        return bitvectorArg(node, values, 0).shiftRight(shiftDistance(node, values));
+      case BV_ASHR:
+        BigInteger shifted = signedArg(node, values, 0).shiftRight(shiftDistance(node, values));
+        return truncate(shifted, width);
+      case BV_CONCAT:
+        BigInteger concatenation = BigInteger.ZERO;
+        for (int i = 0; i < node.args.length; i++) {
+          BigInteger part = bitvectorArg(node, values, i);
+          concatenation = concatenation.shiftLeft(argWidth(node, i)).or(part);
+        }
+        return concatenation;
+      case BV_EXTRACT:
+        int low = (Integer) checkNotNull(node.info);
+        return truncate(bitvectorArg(node, values, 0).shiftRight(low), width);
+      case BV_ZERO_EXTENSION:
+        return bitvectorArg(node, values, 0);
+      case BV_SIGN_EXTENSION:
+        return truncate(signedArg(node, values, 0), width);
+      case FP_AS_IEEEBV:
+        Object fp = arg(node, values, 0);
+        if (fp instanceof Float) {
+          return truncate(BigInteger.valueOf(Float.floatToRawIntBits((Float) fp)), width);
+        }
+        return truncate(BigInteger.valueOf(Double.doubleToRawLongBits((Double) fp)), width);
+      case FP_CASTTO_SBV:
+      case FP_CASTTO_UBV:
+        return truncate(roundToIntegral(node, values).toBigIntegerExact(), width);
+      default:
+        throw unsupported(node);
+    }
+  }
+
+  private static BigInteger applyBinary(
+      FunctionDeclarationKind kind, BigInteger left, BigInteger right) {
+    switch (kind) {
+      case BV_AND:
+        return left.and(right);
+      case BV_OR:
+        return left.or(right);
+      case BV_XOR:
+        return left.xor(right);
+      case BV_ADD:
+        return left.add(right);
+      case BV_MUL:
+        return left.multiply(right);
+      default:
+        throw new AssertionError("unexpected operation " + kind);
+    }
+  }
+
+  /** Signed division and remainder as defined by SMT-LIB, including division by zero. */
+  private static BigInteger signedDivision(
+      Node node, Object[] values, int width, boolean division) {
+    BigInteger dividend = toSigned(bitvectorArg(node, values, 0), width);
+    BigInteger divisor = toSigned(bitvectorArg(node, values, 1), width);
+    if (divisor.signum() == 0) {
+      if (division) {
+        // bvsdiv by zero is -1 for non-negative and 1 for negative dividends
+        return truncate(dividend.signum() < 0 ? BigInteger.ONE : BigInteger.ONE.negate(), width);
+      }
+      return truncate(dividend, width);
+    }
+    // BigInteger rounds towards zero, like bvsdiv, and the remainder has the sign of the dividend
+    return truncate(division ? dividend.divide(divisor) : dividend.remainder(divisor), width);
+  }
+
+  /** The shift distance, where distances beyond the width shift out all bits. */
+  private static int shiftDistance(Node node, Object[] values) {
+    BigInteger distance = bitvectorArg(node, values, 1);
+    return distance.min(BigInteger.valueOf(argWidth(node, 0))).intValueExact();
+  }
+
+  // Floating-point semantics
+
+  private static Object evaluateRoundingMode(Node node) {
+    switch (node.kind) {
+      case FP_ROUND_EVEN:
+        return FloatingPointRoundingMode.NEAREST_TIES_TO_EVEN;
+      case FP_ROUND_AWAY:
+        return FloatingPointRoundingMode.NEAREST_TIES_AWAY;
+      case FP_ROUND_POSITIVE:
+        return FloatingPointRoundingMode.TOWARD_POSITIVE;
+      case FP_ROUND_NEGATIVE:
+        return FloatingPointRoundingMode.TOWARD_NEGATIVE;
+      case FP_ROUND_ZERO:
+        return FloatingPointRoundingMode.TOWARD_ZERO;
+      default:
+        throw unsupported(node);
+    }
+  }
+
+  private static double doubleArg(Node node, Object[] values, int i) {
+    return ((Number) arg(node, values, i)).doubleValue();
+  }
+
+  /**
+   * Check that arithmetic is rounded to nearest with ties to even, which is the rounding of Java.
+   * The rounding mode is the first argument of the operation, if present.
+   */
+  private static int checkDefaultRounding(Node node, Object[] values, int operands) {
+    if (node.args.length == operands) {
+      return 0;
+    }
+    Object roundingMode = arg(node, values, 0);
+    if (roundingMode != FloatingPointRoundingMode.NEAREST_TIES_TO_EVEN) {
+      throw new UnsupportedOperationException(
+          "rounding mode " + roundingMode + " is not supported for " + node.kind);
+    }
+    return 1;
+  }
+
+  private static Object evaluateFloatingPoint(Node node, Object[] values) {
+    // single-precision operations are computed in double precision and rounded afterwards,
+    // which gives the correctly rounded result for +, -, *, / and sqrt
+    switch (node.kind) {
+      case ITE:
+        return ite(node, values);
+      case SELECT:
+        return select(node, values);
+      case FP_NEG:
+        return fromDouble(-doubleArg(node, values, 0), node.type);
+      case FP_ABS:
+        return fromDouble(Math.abs(doubleArg(node, values, 0)), node.type);
+      case FP_MAX:
+        return fromDouble(maxOrMin(node, values, true), node.type);
+      case FP_MIN:
+        return fromDouble(maxOrMin(node, values, false), node.type);
+      case FP_SQRT:
+        int offset = checkDefaultRounding(node, values, 1);
+        return fromDouble(Math.sqrt(doubleArg(node, values, offset)), node.type);
+      case FP_ADD:
+      case FP_SUB:
+      case FP_MUL:
+      case FP_DIV:
+        int first = checkDefaultRounding(node, values, 2);
+        double left = doubleArg(node, values, first);
+        double right = doubleArg(node, values, first + 1);
+        return fromDouble(applyFloatingPoint(node.kind, left, right), node.type);
+      case FP_ROUND_TO_INTEGRAL:
+        return fromDouble(roundToIntegral(node, values).doubleValue(), node.type);
+      case FP_CASTTO_FP:
+      case BV_SCASTTO_FP:
+      case BV_UCASTTO_FP:
+        return castToFloatingPoint(node, values);
+      case FP_FROM_IEEEBV:
+        BigInteger bits = bitvectorArg(node, values, 0);
+        if (isSinglePrecision(node.type)) {
+          return Float.intBitsToFloat(bits.intValue());
+        }
+        return fromDouble(Double.longBitsToDouble(bits.longValue()), node.type);
+      default:
+        throw unsupported(node);
+    }
+  }
+
+  /**
+   * fp.max and fp.min as defined by SMT-LIB, which return the other operand if one operand is NaN,
+   * unlike {@link Math#max} and {@link Math#min}. The result for zeros with different signs is
+   * unspecified, and thus depends on the solver.
+   */
+  private static double maxOrMin(Node node, Object[] values, boolean max) {
+    double left = doubleArg(node, values, 0);
+    double right = doubleArg(node, values, 1);
+    if (Double.isNaN(left)) {
+      return right;
+    } else if (Double.isNaN(right)) {
+      return left;
+    } else if (left == 0
+        && right == 0
+        && Double.doubleToRawLongBits(left) != Double.doubleToRawLongBits(right)) {
+      throw new UnsupportedOperationException(
+          node.kind + " of zeros with different signs is unspecified");
+    }
+    return max ? Math.max(left, right) : Math.min(left, right);
+  }
+
+  private static double applyFloatingPoint(
+      FunctionDeclarationKind kind, double left, double right) {
+    switch (kind) {
+      case FP_ADD:
+        return left + right;
+      case FP_SUB:
+        return left - right;
+      case FP_MUL:
+        return left * right;
+      case FP_DIV:
+        return left / right;
+      default:
+        throw new AssertionError("unexpected operation " + kind);
+    }
+  }
+
+  /** Round the floating-point operand of the node to an integral value. */
+  private static BigDecimal roundToIntegral(Node node, Object[] values) {
+    FloatingPointRoundingMode mode = FloatingPointRoundingMode.NEAREST_TIES_TO_EVEN;
+    int operand = 0;
+    if (node.args.length == 2) {
+      mode = (FloatingPointRoundingMode) arg(node, values, 0);
+      operand = 1;
+    }
+    double value = doubleArg(node, values, operand);
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new ArithmeticException("no integral value for " + value);
+    }
+    return new BigDecimal(value).setScale(0, toJavaRoundingMode(mode));
+  }
+
+  private static RoundingMode toJavaRoundingMode(FloatingPointRoundingMode mode) {
+    switch (mode) {
+      case NEAREST_TIES_TO_EVEN:
+        return RoundingMode.HALF_EVEN;
+      case NEAREST_TIES_AWAY:
+        return RoundingMode.HALF_UP;
+      case TOWARD_POSITIVE:
+        return RoundingMode.CEILING;
+      case TOWARD_NEGATIVE:
+        return RoundingMode.FLOOR;
+      case TOWARD_ZERO:
+        return RoundingMode.DOWN;
+      default:
+        throw new AssertionError("unexpected rounding mode " + mode);
+    }
+  }
+
+  private static Object castToFloatingPoint(Node node, Object[] values) {
+    int operand = node.args.length - 1;
+    Object value = arg(node, values, operand);
+    if (operand > 0) {
+      checkDefaultRounding(node, values, 1);
+    }
+    if (value instanceof Float || value instanceof Double) {
+      return fromDouble(((Number) value).doubleValue(), node.type);
+    } else if (node.kind == FunctionDeclarationKind.BV_SCASTTO_FP) {
+      return fromDouble(signedArg(node, values, operand).doubleValue(), node.type);
+    }
+    return fromDouble(toRational(value).doubleValue(), node.type);
+  }
+
+  private static boolean evaluateFloatingPointPredicate(Node node, Object[] values) {
+    switch (node.kind) {
+      case FP_LT:
+        return doubleArg(node, values, 0) < doubleArg(node, values, 1);
+      case FP_LE:
+        return doubleArg(node, values, 0) <= doubleArg(node, values, 1);
+      case FP_GT:
+        return doubleArg(node, values, 0) > doubleArg(node, values, 1);
+      case FP_GE:
+        return doubleArg(node, values, 0) >= doubleArg(node, values, 1);
+      case FP_EQ:
+        return doubleArg(node, values, 0) == doubleArg(node, values, 1);
+      case FP_IS_NAN:
+        return Double.isNaN(doubleArg(node, values, 0));
+      case FP_IS_INF:
+        return Double.isInfinite(doubleArg(node, values, 0));
+      case FP_IS_ZERO:
+        return doubleArg(node, values, 0) == 0;
+      case FP_IS_NEGATIVE:
+        double value = doubleArg(node, values, 0);
+        return !Double.isNaN(value) && (value < 0 || 1 / value < 0);
+      case FP_IS_SUBNORMAL:
+        return isSubnormal(arg(node, values, 0));
+      case FP_IS_NORMAL:
+        Object operand = arg(node, values, 0);
+        double number = ((Number) operand).doubleValue();
+        return !Double.isNaN(number)
+            && !Double.isInfinite(number)
+            && number != 0
+            && !isSubnormal(operand);
+      default:
+        throw unsupported(node);
+    }
+  }
+
+  private static boolean isSubnormal(Object value) {
+    if (value instanceof Float) {
+      float number = (Float) value;
+      return number != 0 && Math.abs(number) < Float.MIN_NORMAL;
+    }
+    double number = (Double) value;
+    return number != 0 && Math.abs(number) < Double.MIN_NORMAL;
+  }
+
+  // Array semantics
+
+  private static Object evaluateArray(Node node, Object[] values) {
+    switch (node.kind) {
+      case ITE:
+        return ite(node, values);
+      case STORE:
+        FormulaType<?> elementType = ((ArrayFormulaType<?, ?>) node.type).getElementType();
+        return ((ArrayValue) arg(node, values, 0))
+            .store(arg(node, values, 1), normalize(arg(node, values, 2), elementType));
+      case SELECT:
+        return select(node, values);
+      default:
+        throw unsupported(node);
+    }
+  }
+
+  private static Object select(Node node, Object[] values) {
+    Object element = ((ArrayValue) arg(node, values, 0)).select(arg(node, values, 1));
+    return normalize(element, node.type);
+  }
+}
@@ -0,0 +1,347 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+
+/**
+ * An {@link OptimizationProverEnvironment} for weighted MaxSAT and MaxSMT problems that works on
+ * top of any {@link ProverEnvironment} supporting {@link
+ * ProverEnvironment#unsatCoreOverAssumptions}.
+ *
+ * <p>Objectives must be pseudo-Boolean sums, i.e., sums of integer constants and terms {@code
+ * ite(c, a, b)} with a Boolean condition {@code c} and integer constants {@code a} and {@code b}.
+ * This is the usual encoding of weighted soft constraints, e.g., minimizing {@code ite(c, 0, w)}
+ * corresponds to a soft constraint {@code c} with weight {@code w}. Several objectives are
+ * optimized lexicographically in the order of their creation.
+ *
+ * <p>The optimization uses the core-guided algorithm OLL with stratification: unsatisfiable cores
+ * over the soft constraints with the highest weights increase the lower bound of the costs and are
+ * relaxed by cardinality constraints (totalizers), until the soft constraints are satisfiable. All
+ * queries are solved by the same underlying prover.
+ */
+public class MaxSatOptimizationProver
+    extends AbstractOptimizationProver<MaxSatOptimizationProver.Objective> {
+
+  MaxSatOptimizationProver(ProverEnvironment pProver, FormulaManager pFmgr) {
+    super(pProver, pFmgr, "__MAXSAT_");
+  }
+
+  /** A minimization objective, normalized to weighted soft constraints. */
+  static final class Objective {
+
+    /** Soft constraints with positive weights, whose violation is counted as costs. */
+    private final Map<BooleanFormula, Long> softConstraints = new LinkedHashMap<>();
+
+    /** Constant part of the objective. */
+    private long offset = 0;
+
+    /** Whether the value of the objective has to be negated, i.e., it was a maximization. */
+    private final boolean negated;
+
+    /** Costs of the last optimization, if available. */
+    private @Nullable Long costs = null;
+
+    private Objective(boolean pNegated) {
+      negated = pNegated;
+    }
+
+    /** Add a term that contributes the given weight if the condition is satisfied. */
+    private void addTerm(BooleanFormula condition, long weight, BooleanFormulaManager bfmgr) {
+      if (weight > 0) {
+        softConstraints.merge(bfmgr.not(condition), weight, Math::addExact);
+      } else if (weight < 0) {
+        offset = Math.addExact(offset, weight);
+        softConstraints.merge(condition, -weight, Math::addExact);
+      }
+    }
+
+    private long getValue() {
+      checkState(costs != null, "objective was not optimized");
+      long value = Math.addExact(offset, costs);
+      return negated ? -value : value;
+    }
+  }
+
+  /**
+   * The relaxation of a core: the assumption bounds the number of violated soft constraints of the
+   * core, and is replaced by a weaker bound whenever it appears in a core itself.
+   */
+  private static final class Cardinality {
+
+    /** Output {@code i} of the totalizer holds if at least {@code i+1} inputs hold. */
+    private final List<BooleanFormula> outputs;
+
+    /** Number of violated soft constraints allowed by the assumption. */
+    private final int bound;
+
+    private Cardinality(List<BooleanFormula> pOutputs, int pBound) {
+      outputs = pOutputs;
+      bound = pBound;
+    }
+  }
+
+  @Override
+  protected Objective createObjective(Formula pObjective, boolean pMaximize) {
+    Objective objective = new Objective(pMaximize);
+    fmgr.visit(pObjective, new ObjectiveVisitor(objective, pMaximize ? -1 : 1));
+    return objective;
+  }
+
+  /** Collects the terms of a pseudo-Boolean sum, multiplied by a constant factor. */
+  private final class ObjectiveVisitor extends DefaultFormulaVisitor<Void> {
+
+    private final Objective objective;
+    private final long factor;
+
+    private ObjectiveVisitor(Objective pObjective, long pFactor) {
+      objective = pObjective;
+      factor = pFactor;
+    }
+
+    @Override
+    protected Void visitDefault(Formula f) {
+      throw new IllegalArgumentException("objective is not a pseudo-Boolean sum: " + f);
+    }
+
+    @Override
+    public Void visitConstant(Formula f, Object value) {
+      objective.offset = Math.addExact(objective.offset, Math.multiplyExact(factor, toLong(value)));
+      return null;
+    }
+
+    @Override
+    public Void visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      switch (functionDeclaration.getKind()) {
+        case ADD:
+          for (Formula arg : args) {
+            fmgr.visit(arg, this);
+          }
+          return null;
+        case SUB:
+          fmgr.visit(args.get(0), this);
+          fmgr.visit(args.get(1), new ObjectiveVisitor(objective, -factor));
+          return null;
+        case UMINUS:
+          fmgr.visit(args.get(0), new ObjectiveVisitor(objective, -factor));
+          return null;
+        case ITE:
+          long thenValue = getConstantValue(args.get(1));
+          long elseValue = getConstantValue(args.get(2));
+          objective.offset = Math.addExact(objective.offset, Math.multiplyExact(factor, elseValue));
+          objective.addTerm(
+              (BooleanFormula) args.get(0),
+              Math.multiplyExact(factor, Math.subtractExact(thenValue, elseValue)),
+              bfmgr);
+          return null;
+        default:
+          return visitDefault(f);
+      }
+    }
+
+    private long getConstantValue(Formula f) {
+      Objective constant = new Objective(false);
+      fmgr.visit(f, new ObjectiveVisitor(constant, 1));
+      checkArgument(
+          constant.softConstraints.isEmpty(),
+          "objective is not a pseudo-Boolean sum, expected a constant instead of %s",
+          f);
+      return constant.offset;
+    }
+  }
+
+  private static long toLong(Object value) {
+    if (value instanceof BigInteger) {
+      return ((BigInteger) value).longValueExact();
+    } else if (value instanceof Rational && ((Rational) value).isIntegral()) {
+      return ((Rational) value).getNum().longValueExact();
+    } else if (value instanceof Long || value instanceof Integer) {
+      return ((Number) value).longValue();
+    }
+    throw new IllegalArgumentException("objective contains non-integer constant " + value);
+  }
+
+  @Override
+  protected OptStatus optimize(List<Objective> pObjectives)
+      throws InterruptedException, SolverException {
+    for (Objective objective : pObjectives) {
+      objective.costs = null;
+    }
+    for (Objective objective : pObjectives) {
+      Optional<Long> costs = minimizeCosts(objective.softConstraints);
+      if (!costs.isPresent()) {
+        return OptStatus.UNSAT;
+      }
+      objective.costs = costs.orElseThrow();
+    }
+    // all optimal costs are enforced now, thus any model is optimal
+    return prover.isUnsat() ? OptStatus.UNSAT : OptStatus.OPT;
+  }
+
+  /**
+   * Compute the minimal sum of weights of violated soft constraints, and add constraints to the
+   * prover that enforce the minimal costs.
+   *
+   * @return the minimal costs, or an empty optional if the hard constraints are unsatisfiable.
+   */
+  private Optional<Long> minimizeCosts(Map<BooleanFormula, Long> pSoftConstraints)
+      throws InterruptedException, SolverException {
+    // each assumption is a fresh variable, because not all solvers support arbitrary assumptions
+    Map<BooleanFormula, Long> weights = new LinkedHashMap<>();
+    for (Map.Entry<BooleanFormula, Long> soft : pSoftConstraints.entrySet()) {
+      BooleanFormula assumption = makeFreshVariable();
+      prover.addConstraint(bfmgr.implication(assumption, soft.getKey()));
+      weights.put(assumption, soft.getValue());
+    }
+    Map<BooleanFormula, Cardinality> cardinalities = new HashMap<>();
+
+    long costs = 0;
+    long threshold = getMaxWeightBelow(weights, Long.MAX_VALUE);
+    while (true) {
+      List<BooleanFormula> assumptions = new ArrayList<>();
+      for (Map.Entry<BooleanFormula, Long> entry : weights.entrySet()) {
+        if (entry.getValue() >= threshold) {
+          assumptions.add(entry.getKey());
+        }
+      }
+      Optional<List<BooleanFormula>> core = prover.unsatCoreOverAssumptions(assumptions);
+
+      if (!core.isPresent()) {
+        // stratification: continue with the soft constraints of the next lower weight
+        threshold = getMaxWeightBelow(weights, threshold);
+        if (threshold == 0) {
+          for (BooleanFormula assumption : weights.keySet()) {
+            prover.addConstraint(assumption);
+          }
+          return Optional.of(costs);
+        }
+        continue;
+      }
+      if (core.orElseThrow().isEmpty()) {
+        return Optional.empty();
+      }
+
+      long coreWeight = Long.MAX_VALUE;
+      for (BooleanFormula assumption : core.orElseThrow()) {
+        coreWeight = Math.min(coreWeight, weights.get(assumption));
+      }
+      costs = Math.addExact(costs, coreWeight);
+
+      List<BooleanFormula> violated = new ArrayList<>();
+      for (BooleanFormula assumption : core.orElseThrow()) {
+        long remainingWeight = weights.get(assumption) - coreWeight;
+        if (remainingWeight == 0) {
+          weights.remove(assumption);
+        } else {
+          weights.put(assumption, remainingWeight);
+        }
+        violated.add(bfmgr.not(assumption));
+
+        // a violated cardinality constraint is relaxed to the next weaker bound
+        Cardinality cardinality = cardinalities.get(assumption);
+        if (cardinality != null && cardinality.bound + 1 < cardinality.outputs.size()) {
+          addCardinality(
+              weights, cardinalities, cardinality.outputs, cardinality.bound + 1, coreWeight);
+        }
+      }
+
+      // at least one soft constraint of the core is violated, allow only one for now
+      if (violated.size() > 1) {
+        addCardinality(weights, cardinalities, buildTotalizer(violated), 1, coreWeight);
+      }
+    }
+  }
+
+  private void addCardinality(
+      Map<BooleanFormula, Long> weights,
+      Map<BooleanFormula, Cardinality> cardinalities,
+      List<BooleanFormula> outputs,
+      int bound,
+      long weight)
+      throws InterruptedException {
+    BooleanFormula assumption = makeFreshVariable();
+    prover.addConstraint(bfmgr.implication(assumption, bfmgr.not(outputs.get(bound))));
+    weights.put(assumption, weight);
+    cardinalities.put(assumption, new Cardinality(outputs, bound));
+  }
+
+  /**
+   * Encode a totalizer for the given inputs. Output {@code i} is implied if at least {@code i+1}
+   * inputs hold.
+   */
+  private List<BooleanFormula> buildTotalizer(List<BooleanFormula> inputs)
+      throws InterruptedException {
+    if (inputs.size() == 1) {
+      return inputs;
+    }
+    List<BooleanFormula> left = buildTotalizer(inputs.subList(0, inputs.size() / 2));
+    List<BooleanFormula> right = buildTotalizer(inputs.subList(inputs.size() / 2, inputs.size()));
+    List<BooleanFormula> outputs = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      outputs.add(makeFreshVariable());
+    }
+    for (int i = 0; i <= left.size(); i++) {
+      for (int j = 0; j <= right.size(); j++) {
+        if (i + j > 0) {
+          BooleanFormula leftPart = i == 0 ? bfmgr.makeTrue() : left.get(i - 1);
+          BooleanFormula rightPart = j == 0 ? bfmgr.makeTrue() : right.get(j - 1);
+          prover.addConstraint(
+              bfmgr.implication(bfmgr.and(leftPart, rightPart), outputs.get(i + j - 1)));
+        }
+      }
+    }
+    return outputs;
+  }
+
+  private static long getMaxWeightBelow(Map<BooleanFormula, Long> weights, long bound) {
+    long max = 0;
+    for (long weight : weights.values()) {
+      if (weight < bound && weight > max) {
+        max = weight;
+      }
+    }
+    return max;
+  }
+
+  private Optional<Rational> getValue(int pHandle) {
+    BigInteger value = BigInteger.valueOf(getObjective(pHandle).getValue());
+    return Optional.of(Rational.of(value, BigInteger.ONE));
+  }
+
+  @Override
+  public Optional<Rational> upper(int pHandle, Rational pEpsilon) {
+    return getValue(pHandle);
+  }
+
+  @Override
+  public Optional<Rational> lower(int pHandle, Rational pEpsilon) {
+    return getValue(pHandle);
+  }
+}
@@ -0,0 +1,298 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * MusExtractor minimizes an unsatisfiable set of constraints into a minimal unsatisfiable subset
+ * (MUS), i.e., an unsatisfiable subset where removing any constraint makes it satisfiable.
+ *
+ * <p>The extraction is deletion-based: chunks of constraints are tentatively removed and the
+ * remaining constraints are checked with {@link ProverEnvironment#isUnsatWithAssumptions}. If the
+ * check is satisfiable and the model falsifies exactly one constraint of the removed chunk, this
+ * constraint is critical and kept without any further check. Several chunks are checked in
+ * parallel, one per solver context, where all additional contexts must use the same solver as the
+ * main context.
+ */
+public class MusExtractor {
+
+  private static final UniqueIdGenerator UNIQUE_ID_GENERATOR = new UniqueIdGenerator();
+
+  private static final String prefix = "__MUS_selector_";
+
+  private final SolverContext context;
+  private final ImmutableList<SolverContext> workerContexts;
+
+  MusExtractor(SolverContext pContext, List<SolverContext> pWorkerContexts) {
+    context = checkNotNull(pContext);
+    workerContexts = ImmutableList.copyOf(pWorkerContexts);
+  }
+
+  /**
+   * Compute a minimal unsatisfiable subset of the given constraints.
+   *
+   * @param pConstraints an unsatisfiable list of constraints
+   * @return a minimal unsatisfiable sublist of the given constraints, in the original order
+   * @throws IllegalArgumentException if the given constraints are satisfiable
+   */
+  public List<BooleanFormula> computeMus(List<BooleanFormula> pConstraints)
+      throws SolverException, InterruptedException {
+    return computeMus(ImmutableList.of(), pConstraints);
+  }
+
+  /**
+   * Compute a minimal unsatisfiable subset of the given constraints with respect to a set of
+   * background constraints that are always included, but never part of the result.
+   *
+   * @param pBackground the constraints that are assumed to hold
+   * @param pConstraints a list of constraints that is unsatisfiable together with the background
+   * @return a minimal sublist of the given constraints that is unsatisfiable together with the
+   *     background, in the original order
+   * @throws IllegalArgumentException if the given constraints are satisfiable
+   */
+  public List<BooleanFormula> computeMus(
+      Collection<BooleanFormula> pBackground, List<BooleanFormula> pConstraints)
+      throws SolverException, InterruptedException {
+    List<Worker> workers = new ArrayList<>();
+    ExecutorService executor = null;
+    try {
+      workers.add(new Worker(context, context.getFormulaManager(), pBackground, pConstraints));
+      for (SolverContext workerContext : workerContexts) {
+        workers.add(
+            new Worker(workerContext, context.getFormulaManager(), pBackground, pConstraints));
+      }
+      if (workers.size() > 1) {
+        executor =
+            Executors.newFixedThreadPool(
+                workers.size() - 1,
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("JavaSMT MUS extraction %d")
+                    .build());
+      }
+
+      TreeSet<Integer> critical = new TreeSet<>();
+      TreeSet<Integer> candidates = new TreeSet<>();
+      for (int i = 0; i < pConstraints.size(); i++) {
+        candidates.add(i);
+      }
+      checkArgument(
+          workers.get(0).check(critical, candidates, ImmutableList.of()).unsat,
+          "constraints are satisfiable");
+
+      int chunkSize = Math.max(1, candidates.size() / (2 * workers.size()));
+      while (!candidates.isEmpty()) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> chunk = new ArrayList<>();
+        for (int candidate : candidates) {
+          if (chunks.size() == workers.size()) {
+            break;
+          }
+          chunk.add(candidate);
+          if (chunk.size() == chunkSize) {
+            chunks.add(chunk);
+            chunk = new ArrayList<>();
+          }
+        }
+        if (!chunk.isEmpty() && chunks.size() < workers.size()) {
+          chunks.add(chunk);
+        }
+
+        List<CheckResult> results = checkChunks(executor, workers, critical, candidates, chunks);
+
+        boolean removed = false;
+        for (int i = 0; i < results.size(); i++) {
+          CheckResult result = results.get(i);
+          if (result.unsat) {
+            // two removable chunks are not necessarily removable together
+            if (!removed) {
+              candidates.removeAll(chunks.get(i));
+              removed = true;
+            }
+          } else if (result.critical >= 0) {
+            // a critical constraint stays critical in every subset
+            candidates.remove(result.critical);
+            critical.add(result.critical);
+          }
+        }
+        if (!removed) {
+          chunkSize = Math.max(1, chunkSize / 2);
+        }
+      }
+
+      ImmutableList.Builder<BooleanFormula> mus = ImmutableList.builder();
+      for (int index : critical) {
+        mus.add(pConstraints.get(index));
+      }
+      return mus.build();
+
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+      for (Worker worker : workers) {
+        worker.close();
+      }
+    }
+  }
+
+  /**
+   * Check the removal of each chunk. The first chunk is checked in the current thread with the main
+   * context, all others in parallel with the other contexts.
+   */
+  private static List<CheckResult> checkChunks(
+      ExecutorService executor,
+      List<Worker> workers,
+      Collection<Integer> critical,
+      Collection<Integer> candidates,
+      List<List<Integer>> chunks)
+      throws SolverException, InterruptedException {
+    List<Future<CheckResult>> futures = new ArrayList<>();
+    for (int i = 1; i < chunks.size(); i++) {
+      Worker worker = workers.get(i);
+      List<Integer> chunk = chunks.get(i);
+      Callable<CheckResult> task = () -> worker.check(critical, candidates, chunk);
+      futures.add(executor.submit(task));
+    }
+    List<CheckResult> results = new ArrayList<>();
+    results.add(workers.get(0).check(critical, candidates, chunks.get(0)));
+    for (Future<CheckResult> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        Throwables.throwIfInstanceOf(cause, SolverException.class);
+        Throwables.throwIfInstanceOf(cause, InterruptedException.class);
+        Throwables.throwIfUnchecked(cause);
+        throw new SolverException("MUS extraction failed", cause);
+      }
+    }
+    return results;
+  }
+
+  private static final class CheckResult {
+
+    private final boolean unsat;
+
+    /** The index of a constraint found to be critical, or -1. */
+    private final int critical;
+
+    private CheckResult(boolean pUnsat, int pCritical) {
+      unsat = pUnsat;
+      critical = pCritical;
+    }
+  }
+
+  /**
+   * A prover in one solver context, which contains each constraint guarded by a fresh selector
+   * variable.
+   */
+  private static final class Worker {
+
+    private final ProverEnvironment prover;
+    private final List<BooleanFormula> constraints = new ArrayList<>();
+    private final List<BooleanFormula> selectors = new ArrayList<>();
+
+    private Worker(
+        SolverContext pContext,
+        FormulaManager pFromManager,
+        Collection<BooleanFormula> pBackground,
+        List<BooleanFormula> pConstraints)
+        throws InterruptedException {
+      FormulaManager fmgr = pContext.getFormulaManager();
+      BooleanFormulaManager bfmgr = fmgr.getBooleanFormulaManager();
+      prover = pContext.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+      for (BooleanFormula f : pBackground) {
+        prover.addConstraint(translate(fmgr, f, pFromManager));
+      }
+      for (BooleanFormula f : pConstraints) {
+        BooleanFormula constraint = translate(fmgr, f, pFromManager);
+        BooleanFormula selector = bfmgr.makeVariable(prefix + UNIQUE_ID_GENERATOR.getFreshId());
+        prover.addConstraint(bfmgr.implication(selector, constraint));
+        constraints.add(constraint);
+        selectors.add(selector);
+      }
+    }
+
+    private static BooleanFormula translate(
+        FormulaManager pManager, BooleanFormula pFormula, FormulaManager pFromManager) {
+      return pManager == pFromManager ? pFormula : pManager.translateFrom(pFormula, pFromManager);
+    }
+
+    /**
+     * Check whether the critical constraints and the candidates without the chunk are
+     * unsatisfiable. Otherwise, use the model to identify a critical constraint in the chunk.
+     */
+    private CheckResult check(
+        Collection<Integer> critical, Collection<Integer> candidates, List<Integer> chunk)
+        throws SolverException, InterruptedException {
+      Set<Integer> removed = new HashSet<>(chunk);
+      List<BooleanFormula> assumptions = new ArrayList<>();
+      for (int index : critical) {
+        assumptions.add(selectors.get(index));
+      }
+      for (int index : candidates) {
+        if (!removed.contains(index)) {
+          assumptions.add(selectors.get(index));
+        }
+      }
+      if (prover.isUnsatWithAssumptions(assumptions)) {
+        return new CheckResult(true, -1);
+      }
+
+      // The model satisfies all constraints outside the chunk. If it falsifies exactly one
+      // constraint of the chunk, then this constraint is critical.
+      if (chunk.size() == 1) {
+        return new CheckResult(false, chunk.get(0));
+      }
+      int falsified = -1;
+      try (Model model = prover.getModel()) {
+        for (int index : chunk) {
+          Boolean value = model.evaluate(constraints.get(index));
+          if (value == null || (!value && falsified >= 0)) {
+            return new CheckResult(false, -1);
+          } else if (!value) {
+            falsified = index;
+          }
+        }
+      }
+      return new CheckResult(false, falsified);
+    }
+
+    private void close() {
+      prover.close();
+    }
+  }
+}
@@ -8,7 +8,15 @@
 
 package org.sosy_lab.java_smt.utils;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.List;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 
 /** Central entry point for all utility classes. */
 public final class SolverUtils {
@@ -24,4 +32,88 @@ public final class SolverUtils {
   public static UfElimination ufElimination(FormulaManager pFormulaManager) {
     return new UfElimination(pFormulaManager);
   }
+
+  /**
+   * Creates a new {@link GroundTermEvaluator} instance.
+   *
+   * @param pFormulaManager the {@link FormulaManager} of the formulas to be evaluated
+   * @return a new {@link GroundTermEvaluator} instance
+   */
+  public static GroundTermEvaluator groundTermEvaluator(FormulaManager pFormulaManager) {
+    return new GroundTermEvaluator(pFormulaManager);
+  }
+
+  /**
+   * Creates a new {@link MusExtractor} instance that computes all checks sequentially.
+   *
+   * @param pContext the {@link SolverContext} of the constraints to be minimized
+   * @return a new {@link MusExtractor} instance
+   */
+  public static MusExtractor musExtractor(SolverContext pContext) {
+    return new MusExtractor(pContext, ImmutableList.of());
+  }
+
+  /**
+   * Creates a new {@link MusExtractor} instance that computes checks in parallel in the given
+   * additional contexts. The additional contexts must use the same solver as the main context and
+   * must not be used by other threads during the extraction.
+   *
+   * @param pContext the {@link SolverContext} of the constraints to be minimized
+   * @param pWorkerContexts additional contexts for parallel checks
+   * @return a new {@link MusExtractor} instance
+   */
+  public static MusExtractor musExtractor(
+      SolverContext pContext, List<SolverContext> pWorkerContexts) {
+    return new MusExtractor(pContext, pWorkerContexts);
+  }
+
+  /**
+   * Creates a new {@link MaxSatOptimizationProver} instance, i.e., an {@link
+   * OptimizationProverEnvironment} for pseudo-Boolean objectives that is available for all solvers
+   * with support for unsatisfiable cores over assumptions.
+   *
+   * @param pContext the {@link SolverContext} to create the underlying prover with
+   * @return a new {@link MaxSatOptimizationProver} instance
+   */
+  @SuppressWarnings("resource")
+  public static MaxSatOptimizationProver maxSatOptimizationProver(SolverContext pContext) {
+    return new MaxSatOptimizationProver(
+        pContext.newProverEnvironment(
+            ProverOptions.GENERATE_MODELS, ProverOptions.GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS),
+        pContext.getFormulaManager());
+  }
+
+  /**
+   * Creates a new {@link BinarySearchOptimizationProver} instance, i.e., an {@link
+   * OptimizationProverEnvironment} for integer objectives that is available for all solvers with
+   * support for integers and assumptions.
+   *
+   * @param pContext the {@link SolverContext} to create the underlying prover with
+   * @return a new {@link BinarySearchOptimizationProver} instance
+   */
+  @SuppressWarnings("resource")
+  public static BinarySearchOptimizationProver binarySearchOptimizationProver(
+      SolverContext pContext) {
+    return new BinarySearchOptimizationProver(
+        pContext.newProverEnvironment(ProverOptions.GENERATE_MODELS),
+        pContext.getFormulaManager(),
+        null);
+  }
+
+  /**
+   * Creates a new {@link BinarySearchOptimizationProver} instance in anytime mode, which reports
+   * the best bounds found so far if an optimization exceeds the time limit or is interrupted.
+   *
+   * @param pContext the {@link SolverContext} to create the underlying prover with
+   * @param pTimeLimit the time limit for each optimization
+   * @return a new {@link BinarySearchOptimizationProver} instance
+   */
+  @SuppressWarnings("resource")
+  public static BinarySearchOptimizationProver binarySearchOptimizationProver(
+      SolverContext pContext, Duration pTimeLimit) {
+    return new BinarySearchOptimizationProver(
+        pContext.newProverEnvironment(ProverOptions.GENERATE_MODELS),
+        pContext.getFormulaManager(),
+        checkNotNull(pTimeLimit));
+  }
 }
@@ -10,21 +10,23 @@ package org.sosy_lab.java_smt.utils;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Maps.difference;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Verify;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Streams;
 import com.google.errorprone.annotations.CheckReturnValue;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -39,9 +41,9 @@ import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
 import org.sosy_lab.java_smt.api.NumeralFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
-import org.sosy_lab.java_smt.api.QuantifiedFormulaManager;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 
 /**
@@ -55,18 +57,19 @@ public class UfElimination {
     private final BooleanFormula formula;
     private final BooleanFormula constraints;
     private final ImmutableMap<Formula, Formula> substitutions;
-    private final ImmutableMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs;
+    private final ImmutableListMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication>
+        ufs;
 
     public static Result empty(FormulaManager pFormulaManager) {
       BooleanFormula trueFormula = pFormulaManager.getBooleanFormulaManager().makeTrue();
-      return new Result(trueFormula, trueFormula, ImmutableMap.of(), ImmutableMultimap.of());
+      return new Result(trueFormula, trueFormula, ImmutableMap.of(), ImmutableListMultimap.of());
     }
 
     Result(
         BooleanFormula pFormula,
         BooleanFormula pConstraints,
         ImmutableMap<Formula, Formula> pSubstitutions,
-        ImmutableMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> pUfs) {
+        ImmutableListMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> pUfs) {
       formula = checkNotNull(pFormula);
       constraints = checkNotNull(pConstraints);
       substitutions = checkNotNull(pSubstitutions);
@@ -78,7 +81,10 @@ public class UfElimination {
       return formula;
     }
 
-    /** @return the constraints enforcing the functional consistency. */
+    /**
+     * @return the constraints enforcing the functional consistency of all applications that were
+     *     eliminated in this and all previous results of the chain.
+     */
     public BooleanFormula getConstraints() {
       return constraints;
     }
@@ -88,7 +94,7 @@ public class UfElimination {
       return substitutions;
     }
 
-    /** @return all eliminated application of Ufs */
+    /** @return all eliminated application of Ufs, with one entry per distinct argument tuple */
     Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> getUfs() {
       return ufs;
     }
@@ -122,83 +128,157 @@ public class UfElimination {
    * Applies the Ackermann transformation to the given {@link Formula} with respect to the {@link
    * Result} of another formula. Quantified formulas are not supported.
    *
+   * <p>Applications with the same function and syntactically equal arguments (after eliminating
+   * nested UFs) are replaced by the same fresh variable, also across the chain of results. Only the
+   * new applications are compared with the other applications of the same function, and no
+   * constraint is created for two applications with provably distinct arguments, i.e., distinct
+   * constants at some position. The given formula is traversed only once, and the formulas of the
+   * previous results are not changed.
+   *
    * @param pF the {@link Formula} to remove all Ufs from
    * @param pOtherResult result of eliminating Ufs in another {@link BooleanFormula}
    * @return the {@link Result} of the Ackermannization
    */
   public Result eliminateUfs(BooleanFormula pF, Result pOtherResult) {
     checkArgument(!isQuantified(pF));
-    BooleanFormula f;
-    if (!pOtherResult.getSubstitution().isEmpty()) {
-      f = fmgr.substitute(pF, pOtherResult.getSubstitution());
-    } else {
-      f = pF;
-    }
 
-    int depth = getNestingDepthOfUfs(f);
-    Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs = findUFs(f);
-    merge(ufs, pOtherResult);
+    Map<FunctionDeclaration<?>, Applications> ufs = new LinkedHashMap<>();
+    for (Map.Entry<FunctionDeclaration<?>, Collection<UninterpretedFunctionApplication>> entry :
+        pOtherResult.getUfs().asMap().entrySet()) {
+      Applications applications = new Applications();
+      entry.getValue().forEach(applications::add);
+      ufs.put(entry.getKey(), applications);
+    }
 
-    ImmutableMap.Builder<Formula, Formula> substitutionsBuilder = ImmutableMap.builder();
+    Map<Formula, Formula> substitutions = new LinkedHashMap<>(pOtherResult.getSubstitution());
     List<BooleanFormula> extraConstraints = new ArrayList<>();
+    extraConstraints.add(pOtherResult.getConstraints());
+    ImmutableListMultimap.Builder<FunctionDeclaration<?>, UninterpretedFunctionApplication>
+        newUfs = ImmutableListMultimap.builder();
+
+    // bottom-up, thus the arguments of an application are already free of UFs,
+    // e.g., for uf(uf(1, 2), 2)
+    BooleanFormula formulaWithoutUFs =
+        fmgr.transformRecursively(
+            pF,
+            new FormulaTransformationVisitor(fmgr) {
+              @Override
+              public Formula visitFunction(
+                  Formula f, List<Formula> newArgs, FunctionDeclaration<?> decl) {
+                if (decl.getKind() != FunctionDeclarationKind.UF) {
+                  return super.visitFunction(f, newArgs, decl);
+                }
+                Applications applications = ufs.computeIfAbsent(decl, k -> new Applications());
+                ImmutableList<Formula> args = ImmutableList.copyOf(newArgs);
+                UninterpretedFunctionApplication application = applications.get(args);
+                if (application == null) {
+                  Formula substitution = freshUfReplaceVariable(decl.getType());
+                  application = UninterpretedFunctionApplication.create(f, args, substitution);
+                  for (UninterpretedFunctionApplication other : applications.getCandidates(args)) {
+                    addConstraint(application, other, extraConstraints);
+                  }
+                  applications.add(application);
+                  newUfs.put(decl, application);
+                }
+                substitutions.put(f, application.getSubstitution());
+                return application.getSubstitution();
+              }
+            });
+
+    ImmutableListMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> allUfs =
+        ImmutableListMultimap.<FunctionDeclaration<?>, UninterpretedFunctionApplication>builder()
+            .putAll(pOtherResult.getUfs())
+            .putAll(newUfs.build())
+            .build();
+    BooleanFormula constraints = bfmgr.and(extraConstraints);
+    return new Result(formulaWithoutUFs, constraints, ImmutableMap.copyOf(substitutions), allUfs);
+  }
 
-    for (FunctionDeclaration<?> function : ufs.keySet()) {
-      List<UninterpretedFunctionApplication> applications = new ArrayList<>(ufs.get(function));
-      for (int idx1 = 0; idx1 < applications.size(); idx1++) {
-        UninterpretedFunctionApplication application = applications.get(idx1);
-
-        Formula uf = application.getFormula();
-        List<Formula> args = application.getArguments();
+  /**
+   * Add the constraint that enforces the functional consistency of both applications, unless their
+   * arguments are provably distinct.
+   */
+  private void addConstraint(
+      UninterpretedFunctionApplication pApplication,
+      UninterpretedFunctionApplication pOther,
+      List<BooleanFormula> pConstraints) {
+    List<Formula> args = pApplication.getArguments();
+    List<Formula> otherArgs = pOther.getArguments();
+    Verify.verify(args.size() == otherArgs.size());
+    List<BooleanFormula> argumentsEquality = new ArrayList<>(args.size());
+    for (int i = 0; i < args.size(); i++) {
+      Formula arg = args.get(i);
+      Formula otherArg = otherArgs.get(i);
+      if (arg.equals(otherArg)) {
+        continue;
+      } else if (isConstant(arg) && isConstant(otherArg)) {
+        // distinct constants, the applications are independent
+        return;
+      }
+      argumentsEquality.add(makeEqual(arg, otherArg));
+    }
+    BooleanFormula functionEquality =
+        makeEqual(pApplication.getSubstitution(), pOther.getSubstitution());
+    pConstraints.add(bfmgr.implication(bfmgr.and(argumentsEquality), functionEquality));
+  }
 
-        Formula substitution = application.getSubstitution();
-        substitutionsBuilder.put(uf, substitution);
+  /**
+   * The eliminated applications of one function, indexed by their argument tuple and by the
+   * constant first argument. Two constants are distinct iff they are syntactically distinct, thus
+   * an application with a constant first argument needs to be compared only with applications that
+   * have the same or a non-constant first argument.
+   */
+  private final class Applications {
 
-        for (int idx2 = idx1 + 1; idx2 < applications.size(); idx2++) {
-          UninterpretedFunctionApplication application2 = applications.get(idx2);
-          List<Formula> otherArgs = application2.getArguments();
+    private final Map<List<Formula>, UninterpretedFunctionApplication> byArguments =
+        new HashMap<>();
+    private final Map<Formula, List<UninterpretedFunctionApplication>> byConstantFirstArgument =
+        new HashMap<>();
+    private final List<UninterpretedFunctionApplication> withoutConstantFirstArgument =
+        new ArrayList<>();
 
-          /*
-           * Add constraints to enforce functional consistency.
-           */
-          Verify.verify(args.size() == otherArgs.size());
-          BooleanFormula argumentsEquality =
-              Streams.zip(args.stream(), otherArgs.stream(), this::makeEqual)
-                  .collect(bfmgr.toConjunction());
+    @Nullable UninterpretedFunctionApplication get(List<Formula> pArguments) {
+      return byArguments.get(pArguments);
+    }
 
-          BooleanFormula functionEquality = makeEqual(substitution, application2.getSubstitution());
-          extraConstraints.add(bfmgr.implication(argumentsEquality, functionEquality));
-        }
+    void add(UninterpretedFunctionApplication pApplication) {
+      ImmutableList<Formula> args = pApplication.getArguments();
+      byArguments.put(args, pApplication);
+      if (!args.isEmpty() && isConstant(args.get(0))) {
+        byConstantFirstArgument
+            .computeIfAbsent(args.get(0), k -> new ArrayList<>())
+            .add(pApplication);
+      } else {
+        withoutConstantFirstArgument.add(pApplication);
       }
     }
 
-    // Get rid of UFs.
-    ImmutableMap<Formula, Formula> substitutions = substitutionsBuilder.build();
-    BooleanFormula formulaWithoutUFs = fmgr.substitute(f, substitutions);
-
-    // substitute all UFs in the additional constraints,
-    // required if UFs are arguments of UFs, e.g. uf(uf(1, 2), 2)
-    for (int i = 0; i < depth; i++) {
-      extraConstraints.replaceAll(c -> fmgr.substitute(c, substitutions));
+    /** Returns all applications whose first argument may be equal to the given one. */
+    Iterable<UninterpretedFunctionApplication> getCandidates(List<Formula> pArguments) {
+      if (pArguments.isEmpty() || !isConstant(pArguments.get(0))) {
+        return byArguments.values();
+      }
+      return Iterables.concat(
+          byConstantFirstArgument.getOrDefault(pArguments.get(0), ImmutableList.of()),
+          withoutConstantFirstArgument);
     }
-
-    Map<Formula, Formula> otherSubstitution =
-        difference(pOtherResult.getSubstitution(), substitutions).entriesOnlyOnLeft();
-    substitutionsBuilder.putAll(otherSubstitution);
-    ImmutableMap<Formula, Formula> allSubstitutions = substitutionsBuilder.build();
-    BooleanFormula constraints = bfmgr.and(extraConstraints);
-    return new Result(
-        formulaWithoutUFs, constraints, allSubstitutions, ImmutableMultimap.copyOf(ufs));
   }
 
-  private void merge(
-      Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> pUfs,
-      Result pPreviousResult) {
-    for (Map.Entry<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufInOtherFormula :
-        pPreviousResult.getUfs().entries()) {
-      if (pUfs.containsKey(ufInOtherFormula.getKey())) {
-        pUfs.put(ufInOtherFormula.getKey(), ufInOtherFormula.getValue());
-      }
-    }
+  private static final DefaultFormulaVisitor<Boolean> CONSTANT_VISITOR =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected Boolean visitDefault(Formula pF) {
+          return false;
+        }
+
+        @Override
+        public Boolean visitConstant(Formula pF, Object pValue) {
+          return true;
+        }
+      };
+
+  private boolean isConstant(Formula pFormula) {
+    return fmgr.visit(pFormula, CONSTANT_VISITOR);
   }
 
   @SuppressWarnings("unchecked")
@@ -253,67 +333,6 @@ public class UfElimination {
     return result.get();
   }
 
-  private int getNestingDepthOfUfs(Formula pFormula) {
-    return fmgr.visit(
-        pFormula,
-        new DefaultFormulaVisitor<>() {
-
-          @Override
-          protected Integer visitDefault(Formula pF) {
-            return 0;
-          }
-
-          @Override
-          public Integer visitFunction(
-              Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
-            int depthOfArgs = pArgs.stream().mapToInt(f -> fmgr.visit(f, this)).max().orElse(0);
-
-            // count only UFs
-            if (pFunctionDeclaration.getKind() == FunctionDeclarationKind.UF) {
-              return depthOfArgs + 1;
-            } else {
-              return depthOfArgs;
-            }
-          }
-
-          @Override
-          public Integer visitQuantifier(
-              BooleanFormula pF,
-              QuantifiedFormulaManager.Quantifier pQ,
-              List<Formula> pBoundVariables,
-              BooleanFormula pBody) {
-            return fmgr.visit(pBody, this);
-          }
-        });
-  }
-
-  private Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> findUFs(
-      Formula pFormula) {
-    Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs = HashMultimap.create();
-
-    fmgr.visitRecursively(
-        pFormula,
-        new DefaultFormulaVisitor<>() {
-
-          @Override
-          protected TraversalProcess visitDefault(Formula f) {
-            return TraversalProcess.CONTINUE;
-          }
-
-          @Override
-          public TraversalProcess visitFunction(
-              Formula f, List<Formula> args, FunctionDeclaration<?> decl) {
-            if (decl.getKind() == FunctionDeclarationKind.UF) {
-              Formula substitution = freshUfReplaceVariable(decl.getType());
-              ufs.put(decl, UninterpretedFunctionApplication.create(f, args, substitution));
-            }
-            return TraversalProcess.CONTINUE;
-          }
-        });
-
-    return ufs;
-  }
-
   private Formula freshUfReplaceVariable(FormulaType<?> pType) {
     return fmgr.makeVariable(pType, prefix + UNIQUE_ID_GENERATOR.getFreshId());
   }